@@ -1,11 +1,14 @@
 package com.banku.userservice.aggregate;
 
 import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.event.UserEventHandler;
+import com.banku.userservice.event.UserEventType;
 import com.banku.userservice.event.UserLoginEvent;
 import com.banku.userservice.event.UserCreatedEvent;
 import com.banku.userservice.event.UserDeletedEvent;
 import com.banku.userservice.event.UserUpdatedEvent;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -14,10 +17,9 @@ import lombok.Setter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
-import java.util.ArrayList;
 
 @Getter
 @Setter 
@@ -33,52 +35,30 @@ public class UserAggregate extends Aggregate implements UserDetails {
     private String lastName;
     private String profilePicture;
     private String preferredLanguage;
-    @Builder.Default
-    private List<LoginHistoryAggregate> loginHistory = new ArrayList<>();
+    private Instant lastLoginAt;
+    private Instant lastSuccessfulLoginAt;
+    private long successfulLogins;
+    private long failedLogins;
+
+    @Getter(AccessLevel.NONE)
+    private final UserEventHandler applier = new Applier();
 
     @Override
     public void apply(UserEvent event) {
-        if (event instanceof UserCreatedEvent) {
-            apply((UserCreatedEvent) event);
-        } else if (event instanceof UserUpdatedEvent) {
-            apply((UserUpdatedEvent) event);
-        } else if (event instanceof UserDeletedEvent) {
-            apply((UserDeletedEvent) event);
-        } else if (event instanceof UserLoginEvent) {
-            apply((UserLoginEvent) event);
-        }
+        UserEventType.dispatch(event, applier);
         this.version = event.getVersion();
     }
 
-    private void apply(UserCreatedEvent event) {
-        this.email = event.getEmail();
-        this.password = event.getPassword();
-        this.provider = event.getProvider();
-        this.providerId = event.getProviderId();
-        this.firstName = event.getFirstName();
-        this.lastName = event.getLastName();
-        this.profilePicture = event.getProfilePicture();
-        this.preferredLanguage = event.getPreferredLanguage();
-    }
-
-    private void apply(UserUpdatedEvent event) {
-        if (event.getEmail() != null) {
-            this.email = event.getEmail();
-        }
-        if (event.getPassword() != null) {
-            this.password = event.getPassword();
-        }
-        if (event.getPreferredLanguage() != null) {
-            this.preferredLanguage = event.getPreferredLanguage();
-        }
-    }
-
-    private void apply(UserLoginEvent event) {
-        this.loginHistory.add(new LoginHistoryAggregate(event.getTimestamp(), event.getIsSuccessfulLogin()));
-    }
-
-    private void apply(UserDeletedEvent event) {
-        this.deleted = true;
+    /**
+     * Returns a deep copy of this aggregate, so cached instances are never shared mutably.
+     */
+    public UserAggregate copy() {
+        UserAggregate copy = new UserAggregate(email, password, provider, providerId, firstName, lastName,
+                profilePicture, preferredLanguage, lastLoginAt, lastSuccessfulLoginAt, successfulLogins, failedLogins);
+        copy.setId(getId());
+        copy.setVersion(version);
+        copy.setDeleted(deleted);
+        return copy;
     }
 
     @Override
@@ -110,4 +90,51 @@ public class UserAggregate extends Aggregate implements UserDetails {
     public boolean isEnabled() {
         return !deleted;
     }
-} 
\ No newline at end of file
+
+    /**
+     * Folds events into the enclosing aggregate; private so its state only changes through {@link #apply(UserEvent)}.
+     */
+    private class Applier implements UserEventHandler {
+
+        @Override
+        public void onCreated(UserCreatedEvent event) {
+            email = event.getEmail();
+            password = event.getPassword();
+            provider = event.getProvider();
+            providerId = event.getProviderId();
+            firstName = event.getFirstName();
+            lastName = event.getLastName();
+            profilePicture = event.getProfilePicture();
+            preferredLanguage = event.getPreferredLanguage();
+        }
+
+        @Override
+        public void onUpdated(UserUpdatedEvent event) {
+            if (event.getEmail() != null) {
+                email = event.getEmail();
+            }
+            if (event.getPassword() != null) {
+                password = event.getPassword();
+            }
+            if (event.getPreferredLanguage() != null) {
+                preferredLanguage = event.getPreferredLanguage();
+            }
+        }
+
+        @Override
+        public void onLogin(UserLoginEvent event) {
+            lastLoginAt = event.getTimestamp();
+            if (Boolean.TRUE.equals(event.getIsSuccessfulLogin())) {
+                successfulLogins++;
+                lastSuccessfulLoginAt = event.getTimestamp();
+            } else {
+                failedLogins++;
+            }
+        }
+
+        @Override
+        public void onDeleted(UserDeletedEvent event) {
+            deleted = true;
+        }
+    }
+}
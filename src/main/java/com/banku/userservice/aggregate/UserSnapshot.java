@@ -0,0 +1,96 @@
+package com.banku.userservice.aggregate;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Point-in-time state of a {@link UserAggregate} at a given event version.
+ * <p>
+ * Only the latest snapshot per aggregate is kept (the aggregate id is the document id).
+ * Snapshots written with a different {@link #SCHEMA_VERSION} are ignored on load and the
+ * aggregate is rebuilt from its events instead, so bump the version whenever the
+ * aggregate state or its mapping changes.
+ * </p>
+ * <p>
+ * Logins are kept as the last login times and counters, like in the {@code user_view}, so a
+ * snapshot has the same size however often the user logs in.
+ * </p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Document(collection = "user_snapshots")
+public class UserSnapshot {
+    public static final int SCHEMA_VERSION = 2;
+
+    @Id
+    private String aggregateId;
+    private int schemaVersion;
+    private long version;
+    private Instant takenAt;
+    private boolean deleted;
+    private String email;
+    private String password;
+    private String provider;
+    private String providerId;
+    private String firstName;
+    private String lastName;
+    private String profilePicture;
+    private String preferredLanguage;
+    private Instant lastLoginAt;
+    private Instant lastSuccessfulLoginAt;
+    private long successfulLogins;
+    private long failedLogins;
+
+    public static UserSnapshot of(UserAggregate aggregate) {
+        UserSnapshot snapshot = new UserSnapshot();
+        snapshot.aggregateId = aggregate.getId();
+        snapshot.schemaVersion = SCHEMA_VERSION;
+        snapshot.version = aggregate.getVersion();
+        snapshot.takenAt = Instant.now();
+        snapshot.deleted = aggregate.isDeleted();
+        snapshot.email = aggregate.getEmail();
+        snapshot.password = aggregate.getPassword();
+        snapshot.provider = aggregate.getProvider();
+        snapshot.providerId = aggregate.getProviderId();
+        snapshot.firstName = aggregate.getFirstName();
+        snapshot.lastName = aggregate.getLastName();
+        snapshot.profilePicture = aggregate.getProfilePicture();
+        snapshot.preferredLanguage = aggregate.getPreferredLanguage();
+        snapshot.lastLoginAt = aggregate.getLastLoginAt();
+        snapshot.lastSuccessfulLoginAt = aggregate.getLastSuccessfulLoginAt();
+        snapshot.successfulLogins = aggregate.getSuccessfulLogins();
+        snapshot.failedLogins = aggregate.getFailedLogins();
+        return snapshot;
+    }
+
+    public boolean hasCurrentSchema() {
+        return schemaVersion == SCHEMA_VERSION;
+    }
+
+    public UserAggregate toAggregate() {
+        UserAggregate aggregate = UserAggregate.builder()
+                .email(email)
+                .password(password)
+                .provider(provider)
+                .providerId(providerId)
+                .firstName(firstName)
+                .lastName(lastName)
+                .profilePicture(profilePicture)
+                .preferredLanguage(preferredLanguage)
+                .lastLoginAt(lastLoginAt)
+                .lastSuccessfulLoginAt(lastSuccessfulLoginAt)
+                .successfulLogins(successfulLogins)
+                .failedLogins(failedLogins)
+                .build();
+        aggregate.setId(aggregateId);
+        aggregate.setVersion(version);
+        aggregate.setDeleted(deleted);
+        return aggregate;
+    }
+}
@@ -0,0 +1,51 @@
+package com.banku.userservice.config;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.springframework.kafka.config.ContainerPostProcessor;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * <h3>Support for listeners that every instance runs over the whole topic.</h3>
+ * <p>
+ * Such a listener assigns itself every partition instead of joining a consumer group, with
+ * {@code partitions = "#{@broadcastListenerSupport.partitions('banku.user')}"}, and positions itself in
+ * {@code onPartitionsAssigned}. Naming this bean as its {@code containerPostProcessor} switches the container
+ * to manual acknowledgement, so it never commits offsets and leaves no consumer group behind on the broker.
+ * </p>
+ * <p>
+ * Partitions are resolved once, when the listener bean is created, which is before {@link KafkaAdmin} creates
+ * the declared topics on its own. They are therefore created here first, and read through the admin client, so
+ * a missing topic is never auto-created by the broker with a default partition count. A topic that still does
+ * not exist, or has no partitions, fails the startup. Partitions added later need a restart.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class BroadcastListenerSupport
+        implements ContainerPostProcessor<Object, Object, AbstractMessageListenerContainer<Object, Object>> {
+
+    private final KafkaAdmin kafkaAdmin;
+
+    public String[] partitions(String topic) {
+        kafkaAdmin.initialize();
+        TopicDescription description = kafkaAdmin.describeTopics(topic).get(topic);
+        if (description == null || description.partitions().isEmpty()) {
+            throw new IllegalStateException("Topic " + topic + " has no partitions to assign");
+        }
+        return description.partitions().stream()
+                .map(TopicPartitionInfo::partition)
+                .sorted()
+                .map(String::valueOf)
+                .toArray(String[]::new);
+    }
+
+    @Override
+    public void postProcess(AbstractMessageListenerContainer<Object, Object> container) {
+        container.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+    }
+}
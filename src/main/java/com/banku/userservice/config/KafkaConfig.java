@@ -1,29 +1,62 @@
 package com.banku.userservice.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.time.Duration;
 
 /**
  * <h3>Kafka configuration for the user service.</h3>
  * <p>
  * This configuration defines the Kafka topics and producer/consumer configurations.
  * It includes:
- * - User events topic
- * </p>
- * <p>
- *  <b>Only applicable for local development.</b>
+ * - User events topic (<b>only applicable for local development</b>)
+ * - Batch listener container factory, used when {@code kafka-consumer.mode} is {@code batch}
  * </p>
  */
 @Configuration
 public class KafkaConfig {
 
+    public static final String USER_EVENTS_TOPIC = "banku.user";
+    public static final int USER_EVENTS_PARTITIONS = 2;
+    public static final String BATCH_LISTENER_CONTAINER_FACTORY = "batchKafkaListenerContainerFactory";
+
     @Bean
     public NewTopic userEventsTopic() {
-        return TopicBuilder.name("banku.user")
-                .partitions(2)
+        return TopicBuilder.name(USER_EVENTS_TOPIC)
+                .partitions(USER_EVENTS_PARTITIONS)
                 .replicas(1)
                 .build();
     }
-} 
\ No newline at end of file
+
+    /**
+     * Delivers each poll as one list and commits its offsets once the listener returned. Runs one consumer
+     * per partition by default; more than the partition count would leave consumers idle. When the listener
+     * throws, the batch is redelivered every {@code kafka-consumer.batch-retry-interval}, up to
+     * {@code kafka-consumer.batch-retries} times, before its records are logged and skipped.
+     */
+    @Bean(BATCH_LISTENER_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${kafka-consumer.concurrency:" + USER_EVENTS_PARTITIONS + "}") int concurrency,
+            @Value("${kafka-consumer.batch-retry-interval:1s}") Duration retryInterval,
+            @Value("${kafka-consumer.batch-retries:10}") long retries) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(retryInterval.toMillis(), retries)));
+        return factory;
+    }
+}
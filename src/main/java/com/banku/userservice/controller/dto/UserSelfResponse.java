@@ -1,9 +1,9 @@
 package com.banku.userservice.controller.dto;
 
-import java.util.List;
+import java.time.Instant;
 
-import com.banku.userservice.aggregate.LoginHistoryAggregate;
 import com.banku.userservice.aggregate.UserAggregate;
+import com.banku.userservice.projection.UserView;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 import lombok.AllArgsConstructor;
@@ -21,7 +21,10 @@ public class UserSelfResponse {
     private String lastName;
     private String profilePicture;
     private String preferredLanguage;
-    private List<LoginHistoryAggregate> loginHistory;
+    private Instant lastLoginAt;
+    private Instant lastSuccessfulLoginAt;
+    private long successfulLogins;
+    private long failedLogins;
 
     public UserSelfResponse(UserAggregate userAggregate) {
         this.userId = userAggregate.getId();
@@ -30,6 +33,22 @@ public class UserSelfResponse {
         this.lastName = userAggregate.getLastName();
         this.profilePicture = userAggregate.getProfilePicture();
         this.preferredLanguage = userAggregate.getPreferredLanguage();
-        this.loginHistory = userAggregate.getLoginHistory();
+        this.lastLoginAt = userAggregate.getLastLoginAt();
+        this.lastSuccessfulLoginAt = userAggregate.getLastSuccessfulLoginAt();
+        this.successfulLogins = userAggregate.getSuccessfulLogins();
+        this.failedLogins = userAggregate.getFailedLogins();
+    }
+
+    public UserSelfResponse(UserView userView) {
+        this.userId = userView.getUserId();
+        this.email = userView.getEmail();
+        this.firstName = userView.getFirstName();
+        this.lastName = userView.getLastName();
+        this.profilePicture = userView.getProfilePicture();
+        this.preferredLanguage = userView.getPreferredLanguage();
+        this.lastLoginAt = userView.getLastLoginAt();
+        this.lastSuccessfulLoginAt = userView.getLastSuccessfulLoginAt();
+        this.successfulLogins = userView.getSuccessfulLogins();
+        this.failedLogins = userView.getFailedLogins();
     }
 } 
\ No newline at end of file
@@ -1,11 +1,14 @@
 package com.banku.userservice.event;
 
 import com.banku.userservice.security.JwtService;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -15,8 +18,13 @@ import java.util.UUID;
 @Getter
 @Setter
 @Document(collection = "user_events")
+@CompoundIndex(name = UserEvent.AGGREGATE_VERSION_INDEX, def = "{'aggregateId': 1, 'version': 1}", unique = true)
 @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS)
 public abstract class UserEvent {
+    public static final String AGGREGATE_VERSION_INDEX = "aggregate_version_idx";
+    public static final String PENDING_PUBLICATION_INDEX = "pending_publication_idx";
+    public static final String EMAIL_INDEX = "email_idx";
+
     @Id
     private String id;
     protected String aggregateId;
@@ -24,6 +32,10 @@ public abstract class UserEvent {
     private Instant timestamp;
     private long version;
     private String createdBy;
+    /** Set while the event waits in the outbox to be published to Kafka; never part of the payload. */
+    @JsonIgnore
+    @Indexed(name = PENDING_PUBLICATION_INDEX, sparse = true)
+    private Instant pendingSince;
 
     protected UserEvent() {
         this.id = UUID.randomUUID().toString();
@@ -31,4 +43,11 @@ public abstract class UserEvent {
         this.eventType = this.getClass().getSimpleName();
         this.createdBy = JwtService.extractUserId();
     }
-} 
\ No newline at end of file
+
+    /**
+     * The registered type of this event, used for dispatch and as the wire type id.
+     */
+    public UserEventType type() {
+        return UserEventType.of(getClass());
+    }
+}
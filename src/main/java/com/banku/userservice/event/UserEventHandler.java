@@ -0,0 +1,20 @@
+package com.banku.userservice.event;
+
+/**
+ * Reacts to {@link UserEvent}s by type, called through {@link UserEventType#dispatch(UserEvent, UserEventHandler)}.
+ * Every method ignores its event by default, so a handler only overrides the types it reacts to.
+ */
+public interface UserEventHandler {
+
+    default void onCreated(UserCreatedEvent event) {
+    }
+
+    default void onUpdated(UserUpdatedEvent event) {
+    }
+
+    default void onDeleted(UserDeletedEvent event) {
+    }
+
+    default void onLogin(UserLoginEvent event) {
+    }
+}
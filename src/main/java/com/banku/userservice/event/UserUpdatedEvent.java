@@ -11,6 +11,10 @@ public class UserUpdatedEvent extends UserEvent {
     private String email;
     private String password;
     private String preferredLanguage;
+    /**
+     * The password is the same, only stored with a stronger hash: tokens issued before stay valid.
+     */
+    private boolean passwordRehash;
 
     public UserUpdatedEvent(String aggregateId, String email, String password) {
         this.aggregateId = aggregateId;
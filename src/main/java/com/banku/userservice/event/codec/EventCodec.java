@@ -0,0 +1,24 @@
+package com.banku.userservice.event.codec;
+
+import com.banku.userservice.event.UserEvent;
+
+/**
+ * Wire format of {@link UserEvent}s on the {@code banku.user} topic. The {@link #contentType()} is sent in
+ * the {@value #CONTENT_TYPE_HEADER} record header so consumers can decode records from producers that
+ * use a different codec.
+ */
+public interface EventCodec {
+
+    String CONTENT_TYPE_HEADER = "content-type";
+
+    String contentType();
+
+    byte[] encode(UserEvent event);
+
+    /**
+     * Decodes the payload in a single pass into the concrete event type.
+     *
+     * @throws EventCodecException if the payload is not a valid event in this format
+     */
+    UserEvent decode(byte[] payload);
+}
@@ -0,0 +1,8 @@
+package com.banku.userservice.event.codec;
+
+public class EventCodecException extends RuntimeException {
+
+    public EventCodecException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,72 @@
+package com.banku.userservice.event.codec;
+
+import com.banku.userservice.event.UserEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <h3>Selects the codec used to publish events and resolves the codec of received records.</h3>
+ * <p>
+ * Producers encode with {@code event-codec.publish} ({@code json} or {@code smile}); consumers always
+ * accept every known format, so the publish format can be switched instance by instance once every
+ * consumer runs a version that understands it.
+ * </p>
+ */
+@Slf4j
+@Component
+public class EventCodecRegistry {
+
+    private final Map<String, EventCodec> byContentType;
+    private final EventCodec publishCodec;
+
+    public EventCodecRegistry(ObjectMapper objectMapper, @Value("${event-codec.publish:json}") String publishFormat) {
+        this.byContentType = Stream.of(new JsonEventCodec(objectMapper), new SmileEventCodec(objectMapper)).collect(Collectors.toMap(EventCodec::contentType, Function.identity()));
+        this.publishCodec = switch (publishFormat.toLowerCase()) {
+            case "json" -> byContentType.get(JsonEventCodec.CONTENT_TYPE);
+            case "smile" -> byContentType.get(SmileEventCodec.CONTENT_TYPE);
+            default -> throw new IllegalArgumentException("Unknown event-codec.publish format: " + publishFormat);
+        };
+        log.info("Publishing events as {}", publishCodec.contentType());
+    }
+
+    public EventCodec forPublishing() {
+        return publishCodec;
+    }
+
+    /**
+     * Returns the codec for a record's content type; records without one predate the header and are JSON.
+     *
+     * @throws EventCodecException if the content type is not supported
+     */
+    public EventCodec forContentType(String contentType) {
+        if (contentType == null) {
+            return byContentType.get(JsonEventCodec.CONTENT_TYPE);
+        }
+        EventCodec codec = byContentType.get(contentType);
+        if (codec == null) {
+            throw new EventCodecException("Unsupported event content type: " + contentType, null);
+        }
+        return codec;
+    }
+
+    /**
+     * Decodes a received record with the codec named by its {@link EventCodec#CONTENT_TYPE_HEADER} header.
+     *
+     * @throws EventCodecException if the content type is not supported or the payload is invalid
+     */
+    public UserEvent decode(Headers headers, byte[] payload) {
+        Header header = headers.lastHeader(EventCodec.CONTENT_TYPE_HEADER);
+        String contentType = header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+        return forContentType(contentType).decode(payload);
+    }
+}
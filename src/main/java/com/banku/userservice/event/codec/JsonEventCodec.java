@@ -0,0 +1,86 @@
+package com.banku.userservice.event.codec;
+
+import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.event.UserEventType;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DatabindContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonTypeIdResolver;
+import com.fasterxml.jackson.databind.jsontype.impl.TypeIdResolverBase;
+
+import java.io.IOException;
+
+/**
+ * The original format: JSON with the fully qualified class name in {@code @class}.
+ * Records without a content-type header are decoded with this codec.
+ * <p>
+ * The class name is resolved through {@link UserEventType} rather than loaded by name, so only registered
+ * event types decode.
+ * </p>
+ */
+public class JsonEventCodec implements EventCodec {
+
+    public static final String CONTENT_TYPE = "application/json";
+
+    private final ObjectMapper objectMapper;
+
+    public JsonEventCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper.copy()
+                .addMixIn(UserEvent.class, RegisteredClassMixin.class);
+    }
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] encode(UserEvent event) {
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (IOException e) {
+            throw new EventCodecException("Error encoding " + event.getEventType() + " as JSON", e);
+        }
+    }
+
+    @Override
+    public UserEvent decode(byte[] payload) {
+        try {
+            return objectMapper.readValue(payload, UserEvent.class);
+        } catch (IOException e) {
+            throw new EventCodecException("Error decoding JSON event", e);
+        }
+    }
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.CUSTOM, property = "@class")
+    @JsonTypeIdResolver(RegisteredClassIdResolver.class)
+    abstract static class RegisteredClassMixin {
+    }
+
+    static class RegisteredClassIdResolver extends TypeIdResolverBase {
+
+        @Override
+        public String idFromValue(Object value) {
+            return value.getClass().getName();
+        }
+
+        @Override
+        public String idFromValueAndType(Object value, Class<?> suggestedType) {
+            return suggestedType.getName();
+        }
+
+        @Override
+        public JavaType typeFromId(DatabindContext context, String id) {
+            // null lets Jackson report the id as an unknown subtype
+            return UserEventType.ofClassName(id)
+                    .map(type -> context.constructType(type.getEventClass()))
+                    .orElse(null);
+        }
+
+        @Override
+        public JsonTypeInfo.Id getMechanism() {
+            return JsonTypeInfo.Id.CUSTOM;
+        }
+    }
+}
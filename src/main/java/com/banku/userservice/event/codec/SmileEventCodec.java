@@ -0,0 +1,71 @@
+package com.banku.userservice.event.codec;
+
+import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.event.UserEventType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+import java.io.IOException;
+
+/**
+ * Binary <a href="https://github.com/FasterXML/smile-format-specification">Smile</a> encoding of the same
+ * event fields, with the {@link UserEventType#getTypeId() type id} in {@code t} instead of the class name
+ * and {@code eventType}.
+ * Timestamps are written as numeric epoch seconds with nanosecond fraction, and repeated short strings
+ * (the aggregate id usually doubles as {@code createdBy}) as back-references.
+ * <p>
+ * Type ids are part of the wire contract, see {@link UserEventType}.
+ * </p>
+ */
+public class SmileEventCodec implements EventCodec {
+
+    public static final String CONTENT_TYPE = "application/x-jackson-smile";
+
+    private final ObjectMapper smileMapper;
+
+    public SmileEventCodec(ObjectMapper objectMapper) {
+        SmileFactory smileFactory = new SmileFactory()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES);
+        this.smileMapper = objectMapper.copyWith(smileFactory)
+                .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .addMixIn(UserEvent.class, TypeTagMixin.class);
+        for (UserEventType type : UserEventType.values()) {
+            smileMapper.registerSubtypes(new NamedType(type.getEventClass(), type.getTypeId()));
+        }
+    }
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] encode(UserEvent event) {
+        try {
+            return smileMapper.writeValueAsBytes(event);
+        } catch (IOException e) {
+            throw new EventCodecException("Error encoding " + event.getEventType() + " as Smile", e);
+        }
+    }
+
+    @Override
+    public UserEvent decode(byte[] payload) {
+        try {
+            return smileMapper.readValue(payload, UserEvent.class);
+        } catch (IOException e) {
+            throw new EventCodecException("Error decoding Smile event", e);
+        }
+    }
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "t")
+    abstract static class TypeTagMixin {
+        /** Derived from the concrete type when the event is instantiated. */
+        @JsonIgnore
+        abstract String getEventType();
+    }
+}
@@ -0,0 +1,28 @@
+package com.banku.userservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when an event is appended with an expected version that is no longer the
+ * current version of the aggregate. The operation can be retried after reloading the aggregate.
+ */
+public class ConcurrencyConflictException extends ApiException {
+
+    private final String aggregateId;
+    private final long expectedVersion;
+
+    public ConcurrencyConflictException(String aggregateId, long expectedVersion, Throwable cause) {
+        super("Aggregate " + aggregateId + " was modified concurrently (expected version " + expectedVersion + ")",
+                HttpStatus.CONFLICT, "Conflict", cause);
+        this.aggregateId = aggregateId;
+        this.expectedVersion = expectedVersion;
+    }
+
+    public String getAggregateId() {
+        return aggregateId;
+    }
+
+    public long getExpectedVersion() {
+        return expectedVersion;
+    }
+}
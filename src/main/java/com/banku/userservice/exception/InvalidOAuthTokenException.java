@@ -0,0 +1,14 @@
+package com.banku.userservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when the ID token returned by an OAuth provider fails verification: bad signature, unknown signing
+ * key, wrong issuer or audience, or expired.
+ */
+public class InvalidOAuthTokenException extends ApiException {
+
+    public InvalidOAuthTokenException(String message) {
+        super(message, HttpStatus.UNAUTHORIZED, "Unauthorized");
+    }
+}
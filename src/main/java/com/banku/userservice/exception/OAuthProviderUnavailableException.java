@@ -0,0 +1,14 @@
+package com.banku.userservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when an OAuth provider cannot be reached, does not answer within {@code oauth-http.response-timeout},
+ * or no pooled connection to it frees up within {@code oauth-http.pool-timeout}.
+ */
+public class OAuthProviderUnavailableException extends ApiException {
+
+    public OAuthProviderUnavailableException(String message) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable");
+    }
+}
@@ -0,0 +1,14 @@
+package com.banku.userservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a password cannot be hashed or checked because the {@code password-hashing} pool and its queue
+ * are full, or the hash did not complete within {@code password-hashing.timeout}.
+ */
+public class PasswordHashingUnavailableException extends ApiException {
+
+    public PasswordHashingUnavailableException(String message) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable");
+    }
+}
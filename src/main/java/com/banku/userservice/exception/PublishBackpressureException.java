@@ -0,0 +1,23 @@
+package com.banku.userservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when an event cannot be handed to the Kafka producer because {@code kafka-producer.max-in-flight}
+ * records are already waiting for an acknowledgement, either immediately ({@code reject} mode) or after
+ * {@code kafka-producer.block-timeout} ({@code block} mode).
+ */
+public class PublishBackpressureException extends ApiException {
+
+    private final int maxInFlight;
+
+    public PublishBackpressureException(int maxInFlight) {
+        super("Too many events waiting to be published (limit " + maxInFlight + ")",
+                HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable");
+        this.maxInFlight = maxInFlight;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+}
@@ -0,0 +1,40 @@
+package com.banku.userservice.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Thrown when a client address or an account used up its authentication attempts; the response carries a
+ * {@code Retry-After} header with the seconds until the next attempt is allowed.
+ */
+public class TooManyRequestsException extends ApiException {
+
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message, HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Whole seconds, rounded up so a client retrying right on time is let through.
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+
+    @Override
+    public ResponseEntity<Map<String, Object>> toResponse() {
+        return ResponseEntity.status(getHttpStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(getRetryAfterSeconds()))
+                .body(super.toResponse().getBody());
+    }
+}
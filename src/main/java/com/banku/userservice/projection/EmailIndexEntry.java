@@ -0,0 +1,42 @@
+package com.banku.userservice.projection;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Email to aggregate id projection of the {@code user_events} stream.
+ * <p>
+ * The email is the document id, so a lookup is a single primary key read.
+ * Deleted users keep their entry (flagged) so that the email stays reserved,
+ * matching the behaviour of replaying the full event history.
+ * </p>
+ * <p>
+ * {@code indexedAt} records when the entry was written, so a rebuild can tell entries written
+ * by live appends during the rebuild from those it should overwrite.
+ * </p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Document(collection = "user_email_index")
+public class EmailIndexEntry {
+    @Id
+    private String email;
+    private String aggregateId;
+    private long version;
+    private boolean deleted;
+    private Instant indexedAt;
+
+    public EmailIndexEntry(String email, String aggregateId, long version, boolean deleted) {
+        this.email = email;
+        this.aggregateId = aggregateId;
+        this.version = version;
+        this.deleted = deleted;
+        this.indexedAt = Instant.now();
+    }
+}
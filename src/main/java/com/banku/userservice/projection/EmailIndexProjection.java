@@ -0,0 +1,161 @@
+package com.banku.userservice.projection;
+
+import com.banku.userservice.aggregate.UserAggregate;
+import com.banku.userservice.repository.EmailIndexStore;
+import com.banku.userservice.repository.EventStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * <h3>Maintains the {@code user_email_index} projection.</h3>
+ * <p>
+ * The repository calls into this projection right after appending
+ * {@code UserCreatedEvent}, {@code UserUpdatedEvent} and {@code UserDeletedEvent},
+ * so lookups by email never need to replay the event store.
+ * The index can always be rebuilt from {@code user_events} with {@link #rebuild()}, which
+ * runs this projection as a {@link ProjectionHandler} on the {@link ProjectionRebuildEngine}.
+ * </p>
+ * <p>
+ * A rebuild never clears the live collection, since logins and registrations keep reading it meanwhile:
+ * replayed entries are upserted in place, and entries that live appends wrote after the replay started
+ * are kept unless the replay carries a newer version of the same aggregate.
+ * </p>
+ * <p>
+ * Only one instance builds the index at startup; the others serve lookups that miss the index
+ * from {@code user_events}, through its partial {@code email} index, until it is complete, so a
+ * half-built index never reports a registered email as unknown.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmailIndexProjection implements ProjectionHandler {
+
+    public static final String NAME = "user_email_index";
+
+    private final EmailIndexStore emailIndexStore;
+    private final EventStore eventStore;
+    private final ProjectionRebuildEngine rebuildEngine;
+    private volatile Instant replayStartedAt = Instant.now();
+    private volatile boolean indexComplete;
+    private volatile long nextCompletionCheckNanos = System.nanoTime();
+
+    @Value("${email-index.completion-check-interval:5s}")
+    private Duration completionCheckInterval = Duration.ofSeconds(5);
+
+    public Optional<String> findAggregateId(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        Optional<String> aggregateId = emailIndexStore.findById(email).map(EmailIndexEntry::getAggregateId);
+        if (aggregateId.isPresent() || isIndexComplete()) {
+            return aggregateId;
+        }
+        return eventStore.findLastAggregateIdByEmail(email);
+    }
+
+    /**
+     * Whether a miss in the index can be trusted. Checked against the store, at most once per
+     * {@code email-index.completion-check-interval}, until the first build is seen complete,
+     * whichever instance ran it.
+     */
+    private boolean isIndexComplete() {
+        if (indexComplete) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (now - nextCompletionCheckNanos < 0) {
+            return false;
+        }
+        nextCompletionCheckNanos = now + completionCheckInterval.toNanos();
+        indexComplete = !rebuildEngine.hasUnfinishedRebuild(NAME)
+                && (emailIndexStore.count() > 0 || eventStore.count() == 0);
+        return indexComplete;
+    }
+
+    public void onUserCreated(String aggregateId, String email, long version) {
+        if (email == null) {
+            return;
+        }
+        emailIndexStore.save(new EmailIndexEntry(email, aggregateId, version, false));
+    }
+
+    public void onUserUpdated(String aggregateId, String previousEmail, String newEmail, long version) {
+        if (newEmail == null || newEmail.equals(previousEmail)) {
+            return;
+        }
+        if (previousEmail != null) {
+            emailIndexStore.deleteById(previousEmail);
+        }
+        emailIndexStore.save(new EmailIndexEntry(newEmail, aggregateId, version, false));
+    }
+
+    public void onUserDeleted(String aggregateId, String email, long version) {
+        if (email == null) {
+            return;
+        }
+        emailIndexStore.save(new EmailIndexEntry(email, aggregateId, version, true));
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Keeps the index: it is rebuilt in place.
+     */
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public void beforeReplay() {
+        replayStartedAt = Instant.now();
+    }
+
+    @Override
+    public void handle(UserAggregate aggregate) {
+        if (aggregate.getEmail() == null) {
+            return;
+        }
+        emailIndexStore.saveReplayed(
+                new EmailIndexEntry(aggregate.getEmail(), aggregate.getId(), aggregate.getVersion(), aggregate.isDeleted()),
+                replayStartedAt);
+    }
+
+    /**
+     * Rebuilds the index in place from {@code user_events} with the {@link ProjectionRebuildEngine}.
+     */
+    public RebuildReport rebuild() {
+        log.info("Rebuilding email index from user_events");
+        return rebuildEngine.rebuild(this, false);
+    }
+
+    /**
+     * Builds the index at startup when it is empty, or finishes a rebuild that was interrupted.
+     * When another instance already holds the rebuild, this one leaves it to that instance and
+     * serves lookups from {@code user_events} until the index is complete.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        try {
+            if (rebuildEngine.hasUnfinishedRebuild(NAME)) {
+                rebuildEngine.rebuild(this, true);
+            } else if (emailIndexStore.count() == 0 && eventStore.count() > 0) {
+                rebuild();
+            }
+        } catch (IllegalStateException e) {
+            log.info("Email index is being rebuilt elsewhere, looking up missing emails in user_events meanwhile: {}",
+                    e.getMessage());
+        }
+    }
+}
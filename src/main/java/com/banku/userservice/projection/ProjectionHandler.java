@@ -0,0 +1,27 @@
+package com.banku.userservice.projection;
+
+import com.banku.userservice.aggregate.UserAggregate;
+
+/**
+ * A read model that can be backfilled by the {@link ProjectionRebuildEngine}.
+ * <p>
+ * {@link #handle(UserAggregate)} is called concurrently from several partitions and may be
+ * called again for the same aggregate when an interrupted rebuild resumes, so implementations
+ * must be thread-safe and idempotent (upserts keyed by aggregate).
+ * </p>
+ */
+public interface ProjectionHandler {
+
+    /** Unique name, used to key rebuild checkpoints. */
+    String getName();
+
+    /** Clears the projection before a rebuild that starts from scratch. */
+    void reset();
+
+    /** Called before every run, fresh or resumed, once {@link #reset()} is done and before the first {@link #handle}. */
+    default void beforeReplay() {
+    }
+
+    /** Receives an aggregate after all of its events have been replayed. */
+    void handle(UserAggregate aggregate);
+}
@@ -0,0 +1,70 @@
+package com.banku.userservice.projection;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Actuator endpoint ({@code /actuator/projections}) to inspect and trigger projection rebuilds.
+ * Like every actuator endpoint besides health it is only reachable once exposed through
+ * {@code management.endpoints.web.exposure.include}.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "projections")
+public class ProjectionRebuildEndpoint {
+
+    private final ProjectionRebuildEngine rebuildEngine;
+    private final Map<String, ProjectionHandler> handlers;
+
+    public ProjectionRebuildEndpoint(ProjectionRebuildEngine rebuildEngine, List<ProjectionHandler> handlers) {
+        this.rebuildEngine = rebuildEngine;
+        this.handlers = handlers.stream()
+                .collect(Collectors.toMap(ProjectionHandler::getName, Function.identity()));
+    }
+
+    @ReadOperation
+    public Map<String, Object> projections() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        handlers.keySet().stream().sorted().forEach(name -> result.put(name, status(name)));
+        return result;
+    }
+
+    /**
+     * Starts a rebuild in the background; progress is visible through {@link #projections()}.
+     */
+    @WriteOperation
+    public Map<String, Object> rebuild(@Selector String name, @Nullable Boolean resume) {
+        ProjectionHandler handler = handlers.get(name);
+        if (handler == null) {
+            throw new IllegalArgumentException("Unknown projection " + name);
+        }
+        rebuildEngine.rebuildAsync(handler, resume == null || resume)
+                .exceptionally(error -> {
+                    log.error("Rebuild of projection {} failed", name, error);
+                    return null;
+                });
+        return status(name);
+    }
+
+    private Map<String, Object> status(String name) {
+        List<RebuildCheckpoint> checkpoints = rebuildEngine.checkpoints(name);
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", rebuildEngine.isRunning(name));
+        status.put("partitions", rebuildEngine.partitionCount());
+        status.put("completedPartitions", checkpoints.stream().filter(RebuildCheckpoint::isCompleted).count());
+        status.put("aggregates", checkpoints.stream().mapToLong(RebuildCheckpoint::getAggregates).sum());
+        status.put("events", checkpoints.stream().mapToLong(RebuildCheckpoint::getEvents).sum());
+        return status;
+    }
+}
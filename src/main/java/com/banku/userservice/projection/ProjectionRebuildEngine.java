@@ -0,0 +1,246 @@
+package com.banku.userservice.projection;
+
+import com.banku.userservice.aggregate.UserAggregate;
+import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.repository.CheckpointStore;
+import com.banku.userservice.repository.EventStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <h3>Rebuilds projections by replaying {@code user_events} in parallel.</h3>
+ * <p>
+ * The aggregate id space is split into {@link #PARTITION_BOUNDS one range per leading hex digit}
+ * (aggregate ids are UUIDs); the first and last ranges are open-ended so ids of any shape are covered.
+ * Partitions are replayed concurrently on a dedicated {@link ForkJoinPool}; each one folds its
+ * aggregates in id order and hands them to the {@link ProjectionHandler}.
+ * </p>
+ * <p>
+ * Every {@code projection-rebuild.checkpoint-interval} aggregates a partition records the last
+ * handled aggregate id in {@code projection_checkpoints}. Rebuilding a projection whose previous run
+ * did not complete resumes each partition after its checkpoint instead of starting over.
+ * </p>
+ * <p>
+ * A rebuild runs under the projection's {@link RebuildLease}, renewed with every checkpoint, so two
+ * instances never rebuild the same projection at once; a partition that finds the lease lost stops.
+ * </p>
+ */
+@Slf4j
+@Component
+public class ProjectionRebuildEngine {
+
+    static final String[] PARTITION_BOUNDS = {
+            null, "1", "2", "3", "4", "5", "6", "7", "8", "9", "a", "b", "c", "d", "e", "f", null
+    };
+
+    private final EventStore eventStore;
+    private final CheckpointStore checkpointStore;
+    private final RebuildLease rebuildLease;
+    private final int parallelism;
+    private final int checkpointInterval;
+    private final Map<String, CompletableFuture<RebuildReport>> running = new ConcurrentHashMap<>();
+
+    public ProjectionRebuildEngine(
+            EventStore eventStore,
+            CheckpointStore checkpointStore,
+            RebuildLease rebuildLease,
+            @Value("${projection-rebuild.parallelism:0}") int parallelism,
+            @Value("${projection-rebuild.checkpoint-interval:1000}") int checkpointInterval) {
+        this.eventStore = eventStore;
+        this.checkpointStore = checkpointStore;
+        this.rebuildLease = rebuildLease;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    public int partitionCount() {
+        return PARTITION_BOUNDS.length - 1;
+    }
+
+    /**
+     * Rebuilds the projection, resuming the previous run if it was interrupted, and blocks until done.
+     */
+    public RebuildReport rebuild(ProjectionHandler handler) {
+        return rebuild(handler, true);
+    }
+
+    /**
+     * Rebuilds the projection and blocks until every partition is done. With {@code resume} false,
+     * or when the previous run completed, the projection is reset and replayed from scratch.
+     *
+     * @throws IllegalStateException if a rebuild of the same projection is already running, here or on
+     *                               another instance
+     */
+    public RebuildReport rebuild(ProjectionHandler handler, boolean resume) {
+        return rebuildAsync(handler, resume).join();
+    }
+
+    /**
+     * Starts a rebuild in the background. The returned future completes exceptionally if any
+     * partition fails; the checkpoints of the other partitions are kept so the next run resumes.
+     *
+     * @throws IllegalStateException if a rebuild of the same projection is already running, here or on
+     *                               another instance
+     */
+    public CompletableFuture<RebuildReport> rebuildAsync(ProjectionHandler handler, boolean resume) {
+        String name = handler.getName();
+        CompletableFuture<RebuildReport> result = new CompletableFuture<>();
+        if (running.putIfAbsent(name, result) != null) {
+            throw new IllegalStateException("Rebuild of projection " + name + " is already running");
+        }
+        if (!rebuildLease.acquire(name)) {
+            running.remove(name);
+            throw new IllegalStateException("Rebuild of projection " + name + " is running on another instance");
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            start(handler, resume, pool).whenComplete((report, error) -> {
+                rebuildLease.release(name);
+                running.remove(name);
+                pool.shutdown();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(report);
+                }
+            });
+        } catch (RuntimeException e) {
+            rebuildLease.release(name);
+            running.remove(name);
+            pool.shutdown();
+            throw e;
+        }
+        return result;
+    }
+
+    public boolean isRunning(String projection) {
+        return running.containsKey(projection);
+    }
+
+    public List<RebuildCheckpoint> checkpoints(String projection) {
+        return checkpointStore.findByProjection(projection);
+    }
+
+    /**
+     * Whether a previous rebuild of the projection stopped before all partitions completed.
+     */
+    public boolean hasUnfinishedRebuild(String projection) {
+        return checkpointStore.findByProjection(projection).stream()
+                .anyMatch(checkpoint -> !checkpoint.isCompleted());
+    }
+
+    private CompletableFuture<RebuildReport> start(ProjectionHandler handler, boolean resume, ForkJoinPool pool) {
+        String name = handler.getName();
+        Map<Integer, RebuildCheckpoint> checkpoints = checkpointStore.findByProjection(name).stream()
+                .collect(Collectors.toMap(RebuildCheckpoint::getPartition, Function.identity()));
+        boolean resumed = resume
+                && !checkpoints.isEmpty()
+                && checkpoints.values().stream().anyMatch(checkpoint -> !checkpoint.isCompleted());
+        if (!resumed) {
+            checkpointStore.deleteByProjection(name);
+            checkpoints.clear();
+            handler.reset();
+        }
+        handler.beforeReplay();
+        log.info("{} rebuild of projection {} over {} partitions with parallelism {}",
+                resumed ? "Resuming" : "Starting", name, partitionCount(), pool.getParallelism());
+
+        Instant startedAt = Instant.now();
+        AtomicLong aggregates = new AtomicLong();
+        AtomicLong events = new AtomicLong();
+        List<CompletableFuture<Void>> partitions = new ArrayList<>();
+        for (int partition = 0; partition < partitionCount(); partition++) {
+            RebuildCheckpoint checkpoint = checkpoints.getOrDefault(partition, new RebuildCheckpoint(name, partition));
+            if (checkpoint.isCompleted()) {
+                continue;
+            }
+            partitions.add(CompletableFuture.runAsync(
+                    () -> replayPartition(handler, checkpoint, aggregates, events), pool));
+        }
+        return CompletableFuture.allOf(partitions.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    RebuildReport report = new RebuildReport(name, resumed, partitions.size(),
+                            aggregates.get(), events.get(), Duration.between(startedAt, Instant.now()));
+                    log.info("Rebuilt projection {}: {} aggregates, {} events in {} ms ({} events/sec)",
+                            name, report.getAggregates(), report.getEvents(), report.getDuration().toMillis(),
+                            Math.round(report.getEventsPerSecond()));
+                    return report;
+                });
+    }
+
+    private void replayPartition(ProjectionHandler handler, RebuildCheckpoint checkpoint,
+                                 AtomicLong totalAggregates, AtomicLong totalEvents) {
+        int partition = checkpoint.getPartition();
+        // Appending the lowest char turns the inclusive lower bound into "strictly after" the checkpoint
+        String from = checkpoint.getLastAggregateId() != null
+                ? checkpoint.getLastAggregateId() + '\u0000'
+                : PARTITION_BOUNDS[partition];
+        String to = PARTITION_BOUNDS[partition + 1];
+        Instant startedAt = Instant.now();
+        long baseAggregates = checkpoint.getAggregates();
+        long baseEvents = checkpoint.getEvents();
+        long aggregates = 0;
+        long events = 0;
+
+        UserAggregate current = null;
+        try (Stream<UserEvent> stream = eventStore.streamAggregateRange(from, to)) {
+            Iterator<UserEvent> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                UserEvent event = iterator.next();
+                if (current == null || !Objects.equals(current.getId(), event.getAggregateId())) {
+                    if (current != null) {
+                        handler.handle(current);
+                        aggregates++;
+                        if (aggregates % checkpointInterval == 0) {
+                            save(checkpoint, current.getId(), baseAggregates + aggregates, baseEvents + events, false);
+                        }
+                    }
+                    current = new UserAggregate();
+                    current.setId(event.getAggregateId());
+                }
+                current.apply(event);
+                events++;
+            }
+        }
+        if (current != null) {
+            handler.handle(current);
+            aggregates++;
+        }
+        save(checkpoint, current != null ? current.getId() : checkpoint.getLastAggregateId(),
+                baseAggregates + aggregates, baseEvents + events, true);
+        totalAggregates.addAndGet(aggregates);
+        totalEvents.addAndGet(events);
+
+        long millis = Math.max(Duration.between(startedAt, Instant.now()).toMillis(), 1);
+        log.debug("Projection {} partition {} done: {} aggregates, {} events ({} events/sec)",
+                checkpoint.getProjection(), partition, aggregates, events, events * 1000 / millis);
+    }
+
+    private void save(RebuildCheckpoint checkpoint, String lastAggregateId, long aggregates, long events, boolean completed) {
+        if (!rebuildLease.acquire(checkpoint.getProjection())) {
+            throw new IllegalStateException("Lost the rebuild lease of projection " + checkpoint.getProjection());
+        }
+        checkpoint.setLastAggregateId(lastAggregateId);
+        checkpoint.setAggregates(aggregates);
+        checkpoint.setEvents(events);
+        checkpoint.setCompleted(completed);
+        checkpoint.setUpdatedAt(Instant.now());
+        checkpointStore.save(checkpoint);
+    }
+}
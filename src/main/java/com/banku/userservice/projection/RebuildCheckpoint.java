@@ -0,0 +1,35 @@
+package com.banku.userservice.projection;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Progress of one partition of a projection rebuild. {@code lastAggregateId} is the last
+ * aggregate of the partition that was fully handed to the projection.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Document(collection = "projection_checkpoints")
+public class RebuildCheckpoint {
+    @Id
+    private String id;
+    private String projection;
+    private int partition;
+    private String lastAggregateId;
+    private long aggregates;
+    private long events;
+    private boolean completed;
+    private Instant updatedAt;
+
+    public RebuildCheckpoint(String projection, int partition) {
+        this.id = projection + ":" + partition;
+        this.projection = projection;
+        this.partition = partition;
+    }
+}
@@ -0,0 +1,59 @@
+package com.banku.userservice.projection;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Lets a single instance rebuild a projection at a time. The owner of a projection's lease in
+ * {@code projection_rebuild_lease} renews it with every checkpoint; other instances can only take it once it
+ * has not been renewed for {@code projection-rebuild.lease}, i.e. after the owner died.
+ */
+@Component
+public class RebuildLease {
+
+    static final String COLLECTION = "projection_rebuild_lease";
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration leaseDuration;
+    private final String owner = UUID.randomUUID().toString();
+
+    public RebuildLease(MongoTemplate mongoTemplate,
+                        @Value("${projection-rebuild.lease:2m}") Duration leaseDuration) {
+        this.mongoTemplate = mongoTemplate;
+        this.leaseDuration = leaseDuration;
+    }
+
+    /**
+     * Takes or renews the lease of the projection. Like the outbox relay lease, the upsert only matches a lease
+     * this instance owns or one that expired; otherwise it tries to insert a second lease and fails on the id.
+     *
+     * @return whether this instance holds the lease
+     */
+    public boolean acquire(String projection) {
+        Instant now = Instant.now();
+        Query query = new Query(Criteria.where("_id").is(projection)
+                .orOperator(Criteria.where("owner").is(owner), Criteria.where("expiresAt").lt(now)));
+        Update update = new Update()
+                .set("owner", owner)
+                .set("expiresAt", now.plus(leaseDuration));
+        try {
+            mongoTemplate.upsert(query, update, COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    public void release(String projection) {
+        mongoTemplate.remove(new Query(Criteria.where("_id").is(projection).and("owner").is(owner)), COLLECTION);
+    }
+}
@@ -0,0 +1,22 @@
+package com.banku.userservice.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+@AllArgsConstructor
+public class RebuildReport {
+    private final String projection;
+    private final boolean resumed;
+    private final int partitions;
+    private final long aggregates;
+    private final long events;
+    private final Duration duration;
+
+    public double getEventsPerSecond() {
+        long millis = Math.max(duration.toMillis(), 1);
+        return events * 1000.0 / millis;
+    }
+}
@@ -0,0 +1,44 @@
+package com.banku.userservice.projection;
+
+import com.banku.userservice.aggregate.UserAggregate;
+import com.banku.userservice.aggregate.UserSnapshot;
+import com.banku.userservice.repository.SnapshotStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Regenerates {@code user_snapshots} on rebuild, e.g. after a {@link UserSnapshot#SCHEMA_VERSION} bump.
+ * Only aggregates that reached {@code event-store.snapshot-frequency} events get a snapshot, matching
+ * what the repository would have written on its own.
+ */
+@Component
+public class SnapshotProjection implements ProjectionHandler {
+
+    public static final String NAME = "user_snapshots";
+
+    private final SnapshotStore snapshotStore;
+    private final int snapshotFrequency;
+
+    public SnapshotProjection(SnapshotStore snapshotStore,
+                              @Value("${event-store.snapshot-frequency:100}") int snapshotFrequency) {
+        this.snapshotStore = snapshotStore;
+        this.snapshotFrequency = snapshotFrequency;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void reset() {
+        snapshotStore.deleteAll();
+    }
+
+    @Override
+    public void handle(UserAggregate aggregate) {
+        if (aggregate.getVersion() >= snapshotFrequency) {
+            snapshotStore.save(UserSnapshot.of(aggregate));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.banku.userservice.projection;
+
+import com.banku.userservice.aggregate.UserAggregate;
+import com.banku.userservice.event.UserCreatedEvent;
+import com.banku.userservice.event.UserDeletedEvent;
+import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.event.UserEventHandler;
+import com.banku.userservice.event.UserEventType;
+import com.banku.userservice.event.UserLoginEvent;
+import com.banku.userservice.event.UserUpdatedEvent;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Denormalized, query-side view of a user, one document per aggregate.
+ * <p>
+ * {@code version} is the version of the last event folded into the view; it is what makes
+ * redelivered Kafka records no-ops. Credentials are never copied into the view, and logins are only
+ * counted, so the document stays the same size however often the user logs in.
+ * </p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Document(collection = "user_view")
+public class UserView implements UserEventHandler {
+    @Id
+    private String userId;
+    private long version;
+    private boolean deleted;
+    private String email;
+    private String provider;
+    private String firstName;
+    private String lastName;
+    private String profilePicture;
+    private String preferredLanguage;
+    private Instant lastLoginAt;
+    private Instant lastSuccessfulLoginAt;
+    private long successfulLogins;
+    private long failedLogins;
+
+    public UserView(String userId) {
+        this.userId = userId;
+    }
+
+    public static UserView of(UserAggregate aggregate) {
+        UserView view = new UserView(aggregate.getId());
+        view.version = aggregate.getVersion();
+        view.deleted = aggregate.isDeleted();
+        view.email = aggregate.getEmail();
+        view.provider = aggregate.getProvider();
+        view.firstName = aggregate.getFirstName();
+        view.lastName = aggregate.getLastName();
+        view.profilePicture = aggregate.getProfilePicture();
+        view.preferredLanguage = aggregate.getPreferredLanguage();
+        view.lastLoginAt = aggregate.getLastLoginAt();
+        view.lastSuccessfulLoginAt = aggregate.getLastSuccessfulLoginAt();
+        view.successfulLogins = aggregate.getSuccessfulLogins();
+        view.failedLogins = aggregate.getFailedLogins();
+        return view;
+    }
+
+    public void apply(UserEvent event) {
+        UserEventType.dispatch(event, this);
+        this.version = event.getVersion();
+    }
+
+    @Override
+    public void onCreated(UserCreatedEvent event) {
+        this.email = event.getEmail();
+        this.provider = event.getProvider();
+        this.firstName = event.getFirstName();
+        this.lastName = event.getLastName();
+        this.profilePicture = event.getProfilePicture();
+        this.preferredLanguage = event.getPreferredLanguage();
+    }
+
+    @Override
+    public void onUpdated(UserUpdatedEvent event) {
+        if (event.getEmail() != null) {
+            this.email = event.getEmail();
+        }
+        if (event.getPreferredLanguage() != null) {
+            this.preferredLanguage = event.getPreferredLanguage();
+        }
+    }
+
+    @Override
+    public void onDeleted(UserDeletedEvent event) {
+        this.deleted = true;
+    }
+
+    @Override
+    public void onLogin(UserLoginEvent event) {
+        recordLogin(event.getTimestamp(), Boolean.TRUE.equals(event.getIsSuccessfulLogin()));
+    }
+
+    private void recordLogin(Instant loginTime, boolean successful) {
+        lastLoginAt = loginTime;
+        if (successful) {
+            successfulLogins++;
+            lastSuccessfulLoginAt = loginTime;
+        } else {
+            failedLogins++;
+        }
+    }
+}
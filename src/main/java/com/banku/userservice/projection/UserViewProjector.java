@@ -0,0 +1,122 @@
+package com.banku.userservice.projection;
+
+import com.banku.userservice.aggregate.UserAggregate;
+import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.repository.EventStore;
+import com.banku.userservice.repository.UserViewStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * <h3>Maintains the {@code user_view} read model from the {@code banku.user} topic.</h3>
+ * <p>
+ * Records are keyed by aggregate id, so events of one user arrive in version order. An event at or
+ * below the stored version is a redelivery and is ignored. An event that skips a version (the view
+ * missed a record, or did not exist yet for an older user) makes the view be rebuilt from
+ * {@code user_events} instead of being patched.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserViewProjector implements ProjectionHandler {
+
+    public static final String NAME = "user_view";
+
+    private final UserViewStore userViewStore;
+    private final EventStore eventStore;
+
+    public void project(UserEvent event) {
+        projectAll(List.of(event));
+    }
+
+    /**
+     * Projects a batch of events with one read and at most one write per user. Events of each user are
+     * applied in the order given, which for a Kafka batch is the partition order.
+     * <p>
+     * A failing user does not stop the others; once all were tried, the first failure is rethrown so the
+     * batch is not committed and gets redelivered, and the users already written skip their events then.
+     * </p>
+     */
+    public void projectAll(List<UserEvent> events) {
+        Map<String, List<UserEvent>> byUser = new LinkedHashMap<>();
+        events.forEach(event -> byUser.computeIfAbsent(event.getAggregateId(), id -> new ArrayList<>()).add(event));
+        RuntimeException failure = null;
+        for (Map.Entry<String, List<UserEvent>> user : byUser.entrySet()) {
+            try {
+                project(user.getKey(), user.getValue());
+            } catch (RuntimeException e) {
+                log.error("Error projecting {} events for user {}", user.getValue().size(), user.getKey(), e);
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void project(String userId, List<UserEvent> events) {
+        UserView view = userViewStore.findById(userId).orElse(null);
+        boolean changed = false;
+        for (UserEvent event : events) {
+            long currentVersion = view != null ? view.getVersion() : 0;
+            if (event.getVersion() <= currentVersion) {
+                log.debug("Ignoring already projected event {} v{} for user {}", event.getEventType(), event.getVersion(), userId);
+                continue;
+            }
+            if (event.getVersion() != currentVersion + 1) {
+                log.info("User view {} is at v{} but received v{}, rebuilding it from the event store",
+                        userId, currentVersion, event.getVersion());
+                UserView replayed = replay(userId);
+                if (replayed == null) {
+                    continue;
+                }
+                view = replayed;
+            } else {
+                if (view == null) {
+                    view = new UserView(userId);
+                }
+                view.apply(event);
+            }
+            changed = true;
+        }
+        if (changed) {
+            userViewStore.save(view);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void reset() {
+        userViewStore.deleteAll();
+    }
+
+    @Override
+    public void handle(UserAggregate aggregate) {
+        if (!userViewStore.saveReplayed(UserView.of(aggregate))) {
+            log.debug("Keeping the newer view of user {} over its v{} rebuild", aggregate.getId(), aggregate.getVersion());
+        }
+    }
+
+    private UserView replay(String userId) {
+        UserAggregate aggregate = new UserAggregate();
+        aggregate.setId(userId);
+        try (Stream<UserEvent> events = eventStore.streamByAggregateId(userId, 0)) {
+            events.forEach(aggregate::apply);
+        }
+        return aggregate.getVersion() > 0 ? UserView.of(aggregate) : null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.banku.userservice.repository;
+
+import com.banku.userservice.projection.RebuildCheckpoint;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface CheckpointStore extends MongoRepository<RebuildCheckpoint, String> {
+    List<RebuildCheckpoint> findByProjection(String projection);
+    void deleteByProjection(String projection);
+}
@@ -0,0 +1,7 @@
+package com.banku.userservice.repository;
+
+import com.banku.userservice.projection.EmailIndexEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface EmailIndexStore extends MongoRepository<EmailIndexEntry, String>, EmailIndexStoreCustom {
+}
@@ -0,0 +1,16 @@
+package com.banku.userservice.repository;
+
+import com.banku.userservice.projection.EmailIndexEntry;
+
+import java.time.Instant;
+
+public interface EmailIndexStoreCustom {
+
+    /**
+     * Writes an entry produced by a rebuild, unless the entry stored under the same email is newer: written
+     * at or after {@code replayStartedAt} by a live append, and not an older version of the same aggregate.
+     *
+     * @return whether the entry was written
+     */
+    boolean saveReplayed(EmailIndexEntry entry, Instant replayStartedAt);
+}
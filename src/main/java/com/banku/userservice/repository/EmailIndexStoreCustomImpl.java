@@ -0,0 +1,39 @@
+package com.banku.userservice.repository;
+
+import com.banku.userservice.projection.EmailIndexEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+
+@RequiredArgsConstructor
+public class EmailIndexStoreCustomImpl implements EmailIndexStoreCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * The upsert only matches an entry the rebuild may replace; when a newer one exists it tries to insert a
+     * second document with the same email and fails on the id, leaving the newer entry in place.
+     */
+    @Override
+    public boolean saveReplayed(EmailIndexEntry entry, Instant replayStartedAt) {
+        Query query = new Query(Criteria.where("_id").is(entry.getEmail()).orOperator(
+                Criteria.where("indexedAt").not().gte(replayStartedAt),
+                Criteria.where("aggregateId").is(entry.getAggregateId()).and("version").lte(entry.getVersion())));
+        Update update = new Update()
+                .set("aggregateId", entry.getAggregateId())
+                .set("version", entry.getVersion())
+                .set("deleted", entry.isDeleted())
+                .set("indexedAt", entry.getIndexedAt());
+        try {
+            mongoTemplate.upsert(query, update, EmailIndexEntry.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.banku.userservice.repository;
+
+import com.banku.userservice.event.UserEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of one event of a batch append.
+ */
+@Getter
+@AllArgsConstructor
+public class EventAppendResult {
+
+    public enum Status {
+        /** The event was written. */
+        APPENDED,
+        /** Its (aggregateId, version) already exists; reload the aggregate and retry. */
+        CONFLICT,
+        /** The write failed for another reason, see {@link #getError()}. */
+        FAILED,
+        /** The event was not attempted because an earlier event of the batch failed. */
+        SKIPPED
+    }
+
+    private final UserEvent event;
+    private final Status status;
+    private final String error;
+
+    public boolean isAppended() {
+        return status == Status.APPENDED;
+    }
+}
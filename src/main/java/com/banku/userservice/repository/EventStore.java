@@ -5,7 +5,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.List;
 
-public interface EventStore extends MongoRepository<UserEvent, String> {
+public interface EventStore extends MongoRepository<UserEvent, String>, EventStoreCustom {
     List<UserEvent> findByAggregateIdOrderByVersionAsc(String aggregateId);
     List<UserEvent> findByAggregateIdAndVersionGreaterThanOrderByVersionAsc(String aggregateId, long version);
 } 
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.banku.userservice.repository;
+
+import com.banku.userservice.event.UserEvent;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface EventStoreCustom {
+
+    /**
+     * Appends the event as version {@code expectedVersion + 1} of its aggregate, marked as pending
+     * publication so the outbox relay picks it up.
+     *
+     * @throws com.banku.userservice.exception.ConcurrencyConflictException if that version already exists
+     */
+    UserEvent append(UserEvent event, long expectedVersion);
+
+    /**
+     * Writes the events, for one or many aggregates, in a single ordered bulk insert, marked as
+     * pending publication. Each event must already carry its version. Writing stops at the first failing event,
+     * so events of the same aggregate are never written past a gap; the remaining events
+     * are reported as {@link EventAppendResult.Status#SKIPPED}.
+     *
+     * @return one result per event, in the order of {@code events}
+     */
+    List<EventAppendResult> appendAll(List<UserEvent> events);
+
+    /**
+     * Streams the events of one aggregate with a version greater than {@code afterVersion}, in version order.
+     * Documents are fetched from a cursor in batches of {@code event-store.replay-batch-size};
+     * the stream must be closed by the caller.
+     */
+    Stream<UserEvent> streamByAggregateId(String aggregateId, long afterVersion);
+
+    /**
+     * Streams every event of the store ordered by aggregate id and version, for projection rebuilds.
+     * The stream must be closed by the caller.
+     */
+    Stream<UserEvent> streamAll();
+
+    /**
+     * Streams the events of the aggregates whose id is in {@code [fromAggregateId, toAggregateId)},
+     * ordered by aggregate id and version. A {@code null} bound leaves that side of the range open.
+     * The stream must be closed by the caller.
+     */
+    Stream<UserEvent> streamAggregateRange(String fromAggregateId, String toAggregateId);
+
+    /**
+     * Returns the version of the latest event of the aggregate, or {@code 0} when it has none. Answered from the
+     * {@code (aggregateId, version)} index alone.
+     */
+    long findLatestVersion(String aggregateId);
+
+    /**
+     * Returns the aggregate whose latest event set this email, from the events rather than {@code user_email_index},
+     * through the partial {@code email} index on {@code user_events}. Only meant as a fallback while
+     * {@code user_email_index} is being built.
+     */
+    Optional<String> findLastAggregateIdByEmail(String email);
+
+    /**
+     * Returns up to {@code limit} events still pending publication, oldest first.
+     */
+    List<UserEvent> findPending(int limit);
+
+    /**
+     * Clears the pending-publication marker of the given events.
+     */
+    void markPublished(Collection<String> eventIds);
+
+    long countPending();
+
+    Optional<Instant> oldestPendingSince();
+}
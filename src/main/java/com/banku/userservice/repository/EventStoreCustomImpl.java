@@ -0,0 +1,163 @@
+package com.banku.userservice.repository;
+
+import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.exception.ConcurrencyConflictException;
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class EventStoreCustomImpl implements EventStoreCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${event-store.replay-batch-size:500}")
+    private int replayBatchSize;
+
+    @Override
+    public UserEvent append(UserEvent event, long expectedVersion) {
+        event.setVersion(expectedVersion + 1);
+        event.setPendingSince(Instant.now());
+        try {
+            return mongoTemplate.insert(event);
+        } catch (DuplicateKeyException e) {
+            throw new ConcurrencyConflictException(event.getAggregateId(), expectedVersion, e);
+        }
+    }
+
+    @Override
+    public List<EventAppendResult> appendAll(List<UserEvent> events) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+
+        Instant pendingSince = Instant.now();
+        events.forEach(event -> event.setPendingSince(pendingSince));
+
+        BulkWriteError error = null;
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, UserEvent.class)
+                    .insert(events)
+                    .execute();
+        } catch (BulkOperationException e) {
+            error = e.getErrors().get(0);
+        }
+
+        List<EventAppendResult> results = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            UserEvent event = events.get(i);
+            if (error == null || i < error.getIndex()) {
+                results.add(new EventAppendResult(event, EventAppendResult.Status.APPENDED, null));
+            } else if (i == error.getIndex()) {
+                EventAppendResult.Status status = ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY
+                        ? EventAppendResult.Status.CONFLICT
+                        : EventAppendResult.Status.FAILED;
+                results.add(new EventAppendResult(event, status, error.getMessage()));
+            } else {
+                results.add(new EventAppendResult(event, EventAppendResult.Status.SKIPPED, null));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public Stream<UserEvent> streamByAggregateId(String aggregateId, long afterVersion) {
+        Query query = new Query(Criteria.where("aggregateId").is(aggregateId).and("version").gt(afterVersion))
+                .with(Sort.by("version"))
+                .cursorBatchSize(replayBatchSize);
+        return mongoTemplate.stream(query, UserEvent.class);
+    }
+
+    @Override
+    public Stream<UserEvent> streamAll() {
+        return streamAggregateRange(null, null);
+    }
+
+    @Override
+    public Stream<UserEvent> streamAggregateRange(String fromAggregateId, String toAggregateId) {
+        Query query = new Query();
+        if (fromAggregateId != null || toAggregateId != null) {
+            Criteria range = Criteria.where("aggregateId");
+            if (fromAggregateId != null) {
+                range.gte(fromAggregateId);
+            }
+            if (toAggregateId != null) {
+                range.lt(toAggregateId);
+            }
+            query.addCriteria(range);
+        }
+        query.with(Sort.by("aggregateId", "version"))
+                .cursorBatchSize(replayBatchSize);
+        return mongoTemplate.stream(query, UserEvent.class);
+    }
+
+    @Override
+    public long findLatestVersion(String aggregateId) {
+        Query query = new Query(Criteria.where("aggregateId").is(aggregateId))
+                .with(Sort.by(Sort.Direction.DESC, "version"))
+                .limit(1);
+        query.fields().include("version").exclude("_id");
+        Document latest = mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(UserEvent.class));
+        return latest != null ? ((Number) latest.get("version")).longValue() : 0;
+    }
+
+    @Override
+    public Optional<String> findLastAggregateIdByEmail(String email) {
+        Query query = new Query(Criteria.where("email").is(email))
+                .with(Sort.by(Sort.Direction.DESC, "timestamp"))
+                .limit(1);
+        query.fields().include("aggregateId");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(UserEvent.class)))
+                .map(document -> document.getString("aggregateId"));
+    }
+
+    @Override
+    public List<UserEvent> findPending(int limit) {
+        Query query = new Query(pending())
+                .with(Sort.by("pendingSince", "version"))
+                .limit(limit);
+        return mongoTemplate.find(query, UserEvent.class);
+    }
+
+    @Override
+    public void markPublished(Collection<String> eventIds) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(eventIds)),
+                new Update().unset("pendingSince"), UserEvent.class);
+    }
+
+    @Override
+    public long countPending() {
+        return mongoTemplate.count(new Query(pending()), UserEvent.class);
+    }
+
+    @Override
+    public Optional<Instant> oldestPendingSince() {
+        Query query = new Query(pending()).with(Sort.by("pendingSince")).limit(1);
+        return Optional.ofNullable(mongoTemplate.findOne(query, UserEvent.class))
+                .map(UserEvent::getPendingSince);
+    }
+
+    private static Criteria pending() {
+        return Criteria.where("pendingSince").exists(true);
+    }
+}
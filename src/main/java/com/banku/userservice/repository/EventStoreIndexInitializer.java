@@ -0,0 +1,146 @@
+package com.banku.userservice.repository;
+
+import com.banku.userservice.aggregate.UserSnapshot;
+import com.banku.userservice.event.UserEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * <h3>Creates and verifies the {@code user_events} indexes at startup.</h3>
+ * <p>
+ * Indexes are declared on {@link UserEvent}. The unique {@code (aggregateId, version)} index is what
+ * makes {@link EventStoreCustom#append(UserEvent, long)} detect concurrent writers, so the application
+ * refuses to start when it is missing or not unique.
+ * </p>
+ * <p>
+ * While that index does not exist yet, versions written more than once would make its creation fail, so they
+ * are looked for first and the startup fails naming the affected aggregates. With
+ * {@code event-store.deduplicate-on-startup} set, the later copies of each version are moved to
+ * {@code user_events_duplicates} instead and the snapshots of those aggregates are dropped.
+ * </p>
+ * <p>
+ * The {@code email} field only exists on some event subtypes, so its index is created here instead: a partial
+ * {@code (email, timestamp desc)} index over the events that carry one, which answers
+ * {@link EventStoreCustom#findLastAggregateIdByEmail(String)} while {@code user_email_index} is being built.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventStoreIndexInitializer {
+
+    static final String DUPLICATES_COLLECTION = "user_events_duplicates";
+
+    private static final List<String> AGGREGATE_VERSION_FIELDS = List.of("aggregateId", "version");
+    private static final int REPORTED_AGGREGATES = 20;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${event-store.deduplicate-on-startup:false}")
+    private boolean deduplicateOnStartup;
+
+    @PostConstruct
+    public void ensureIndexes() {
+        IndexOperations indexOps = mongoTemplate.indexOps(UserEvent.class);
+        if (!hasUniqueAggregateVersionIndex(indexOps.getIndexInfo())) {
+            resolveDuplicateVersions();
+        }
+        new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(UserEvent.class)
+                .forEach(indexOps::ensureIndex);
+        indexOps.ensureIndex(emailIndex());
+        verify(indexOps.getIndexInfo());
+        log.info("Verified indexes on user_events");
+    }
+
+    static Index emailIndex() {
+        return new Index()
+                .on("email", Sort.Direction.ASC)
+                .on("timestamp", Sort.Direction.DESC)
+                .named(UserEvent.EMAIL_INDEX)
+                .partial(PartialIndexFilter.of(Criteria.where("email").exists(true)));
+    }
+
+    void resolveDuplicateVersions() {
+        List<Document> duplicates = findDuplicateVersions();
+        if (duplicates.isEmpty()) {
+            return;
+        }
+        List<String> aggregateIds = duplicates.stream()
+                .map(duplicate -> duplicate.get("_id", Document.class).getString("aggregateId"))
+                .distinct()
+                .toList();
+        if (!deduplicateOnStartup) {
+            throw new IllegalStateException(duplicates.size() + " versions of " + aggregateIds.size()
+                    + " aggregates are stored more than once in user_events, so the unique index "
+                    + UserEvent.AGGREGATE_VERSION_INDEX + " cannot be created. Affected aggregates: "
+                    + aggregateIds.subList(0, Math.min(REPORTED_AGGREGATES, aggregateIds.size()))
+                    + (aggregateIds.size() > REPORTED_AGGREGATES ? " and more" : "")
+                    + ". Start once with event-store.deduplicate-on-startup=true to move the later copies to "
+                    + DUPLICATES_COLLECTION + ", see the README");
+        }
+        duplicates.forEach(duplicate -> moveLaterCopies(duplicate.get("_id", Document.class)));
+        mongoTemplate.remove(new Query(Criteria.where("_id").in(aggregateIds)), UserSnapshot.class);
+        log.warn("Moved the duplicate copies of {} versions to {}; rebuild the projections of aggregates {}",
+                duplicates.size(), DUPLICATES_COLLECTION, aggregateIds);
+    }
+
+    private List<Document> findDuplicateVersions() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                        Aggregation.group("aggregateId", "version").count().as("count"),
+                        Aggregation.match(Criteria.where("count").gt(1)))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+        return mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(UserEvent.class), Document.class)
+                .getMappedResults();
+    }
+
+    /**
+     * Keeps the first written copy of a version. The others are saved to the duplicates collection before being
+     * removed, so a run interrupted in between is simply repeated on the next startup.
+     */
+    private void moveLaterCopies(Document version) {
+        String collection = mongoTemplate.getCollectionName(UserEvent.class);
+        Query query = new Query(Criteria.where("aggregateId").is(version.get("aggregateId"))
+                .and("version").is(version.get("version")))
+                .with(Sort.by("timestamp", "_id"));
+        List<Document> copies = mongoTemplate.find(query, Document.class, collection);
+        if (copies.size() < 2) {
+            return;
+        }
+        List<Document> later = copies.subList(1, copies.size());
+        later.forEach(copy -> mongoTemplate.save(copy, DUPLICATES_COLLECTION));
+        mongoTemplate.remove(new Query(Criteria.where("_id").in(later.stream().map(copy -> copy.get("_id")).toList())),
+                collection);
+    }
+
+    void verify(List<IndexInfo> indexes) {
+        if (!hasUniqueAggregateVersionIndex(indexes)) {
+            throw new IllegalStateException("Missing unique index " + UserEvent.AGGREGATE_VERSION_INDEX
+                    + " on user_events(aggregateId, version)");
+        }
+    }
+
+    private static boolean hasUniqueAggregateVersionIndex(List<IndexInfo> indexes) {
+        return indexes.stream()
+                .anyMatch(index -> index.isUnique() && AGGREGATE_VERSION_FIELDS.equals(
+                        index.getIndexFields().stream().map(IndexField::getKey).toList()));
+    }
+}
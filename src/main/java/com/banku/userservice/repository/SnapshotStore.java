@@ -0,0 +1,7 @@
+package com.banku.userservice.repository;
+
+import com.banku.userservice.aggregate.UserSnapshot;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface SnapshotStore extends MongoRepository<UserSnapshot, String> {
+}
@@ -0,0 +1,113 @@
+package com.banku.userservice.repository;
+
+import com.banku.userservice.aggregate.UserAggregate;
+import com.banku.userservice.event.UserEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * <h3>Bounded in-process cache of {@link UserAggregate}s keyed by aggregate id.</h3>
+ * <p>
+ * The cache is bounded by entry count, and entries expire {@code user-cache.expire-after-write}
+ * after their last write.
+ * </p>
+ * <p>
+ * Cached aggregates are never handed out: {@link #get(String)} and {@link #put(UserAggregate)}
+ * copy on the way out and in. Appended events are folded into a copy of the cached entry
+ * when they directly follow its version; any gap evicts the entry instead.
+ * </p>
+ * <p>
+ * Events appended by other instances, or by the reactive deployment, reach the cache through the
+ * {@link UserAggregateCacheListener}; lookups that authenticate a user also check the cached version
+ * against the event store first.
+ * </p>
+ */
+@Component
+public class UserAggregateCache implements MeterBinder {
+
+    private final Cache<String, UserAggregate> cache;
+
+    public UserAggregateCache(
+            @Value("${user-cache.maximum-size:10000}") long maximumSize,
+            @Value("${user-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public UserAggregate get(String id) {
+        UserAggregate cached = cache.getIfPresent(id);
+        return cached != null ? cached.copy() : null;
+    }
+
+    public void put(UserAggregate aggregate) {
+        cache.put(aggregate.getId(), aggregate.copy());
+    }
+
+    /**
+     * Folds a freshly appended event into the cached aggregate without reloading it.
+     * A creation event (version 1) populates the cache; an event that does not directly
+     * follow the cached version evicts the entry.
+     */
+    public void onAppend(UserEvent event) {
+        cache.asMap().compute(event.getAggregateId(), (id, cached) -> {
+            UserAggregate next;
+            if (cached == null) {
+                if (event.getVersion() != 1) {
+                    return null;
+                }
+                next = new UserAggregate();
+                next.setId(id);
+            } else if (cached.getVersion() >= event.getVersion()) {
+                return cached;
+            } else if (cached.getVersion() != event.getVersion() - 1) {
+                return null;
+            } else {
+                next = cached.copy();
+            }
+            next.apply(event);
+            return next;
+        });
+    }
+
+    /**
+     * Applies an event appended elsewhere to the cached aggregate, if any. Unlike {@link #onAppend(UserEvent)}
+     * it never adds an entry, and an event this cache already applied is ignored.
+     */
+    public void onExternalAppend(UserEvent event) {
+        cache.asMap().computeIfPresent(event.getAggregateId(), (id, cached) -> {
+            if (cached.getVersion() >= event.getVersion()) {
+                return cached;
+            }
+            if (cached.getVersion() != event.getVersion() - 1) {
+                return null;
+            }
+            UserAggregate next = cached.copy();
+            next.apply(event);
+            return next;
+        });
+    }
+
+    public void invalidate(String id) {
+        cache.invalidate(id);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "userAggregates");
+    }
+}
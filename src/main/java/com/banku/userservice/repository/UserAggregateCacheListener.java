@@ -0,0 +1,59 @@
+package com.banku.userservice.repository;
+
+import com.banku.userservice.config.KafkaConfig;
+import com.banku.userservice.event.codec.EventCodecRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * <h3>Keeps the {@link UserAggregateCache} of this instance in step with {@code banku.user}.</h3>
+ * <p>
+ * Every instance caches aggregates, so every instance must see every appended event, including the events of
+ * the other instances and of the reactive deployment. Like the token revocation listener, it assigns itself
+ * every partition and never commits offsets. The cache starts empty, so on assignment it only rewinds to
+ * {@link #STARTUP_MARGIN} before this listener was created, which covers records stamped by a clock slightly
+ * behind this one.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserAggregateCacheListener implements ConsumerSeekAware {
+
+    static final Duration STARTUP_MARGIN = Duration.ofMinutes(1);
+
+    private final EventCodecRegistry eventCodecRegistry;
+    private final UserAggregateCache userAggregateCache;
+    private final Instant createdAt = Instant.now();
+
+    @KafkaListener(id = "userAggregateCacheListener",
+            topicPartitions = @org.springframework.kafka.annotation.TopicPartition(topic = KafkaConfig.USER_EVENTS_TOPIC,
+                    partitions = "#{@broadcastListenerSupport.partitions('" + KafkaConfig.USER_EVENTS_TOPIC + "')}"),
+            groupId = "${spring.kafka.consumer.group-id}-aggregate-cache",
+            containerPostProcessor = "broadcastListenerSupport", properties = "enable.auto.commit=false",
+            autoStartup = "${user-cache.listener-enabled:true}")
+    public void listen(ConsumerRecord<String, byte[]> record) {
+        try {
+            userAggregateCache.onExternalAppend(eventCodecRegistry.decode(record.headers(), record.value()));
+        } catch (Exception e) {
+            log.warn("Evicting aggregate {} after failing to read record {}-{}@{}", record.key(), record.topic(), record.partition(), record.offset(), e);
+            if (record.key() != null) {
+                userAggregateCache.invalidate(record.key());
+            }
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        callback.seekToTimestamp(assignments.keySet(), createdAt.minus(STARTUP_MARGIN).toEpochMilli());
+    }
+}
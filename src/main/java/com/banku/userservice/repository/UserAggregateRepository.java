@@ -1,76 +1,163 @@
 package com.banku.userservice.repository;
 
 import com.banku.userservice.aggregate.UserAggregate;
+import com.banku.userservice.aggregate.UserSnapshot;
 import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.event.UserEventHandler;
+import com.banku.userservice.event.UserEventType;
 import com.banku.userservice.event.UserCreatedEvent;
 import com.banku.userservice.event.UserDeletedEvent;
 import com.banku.userservice.event.UserUpdatedEvent;
 import com.banku.userservice.event.UserLoginEvent;
-import com.banku.userservice.service.KafkaService;
+import com.banku.userservice.exception.ConcurrencyConflictException;
+import com.banku.userservice.projection.EmailIndexProjection;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+@Slf4j
 @Repository
 @RequiredArgsConstructor
 public class UserAggregateRepository implements AggregateRepository<UserAggregate, String> {
     private final EventStore eventStore;
-    private final KafkaService kafkaService;
+    private final EmailIndexProjection emailIndexProjection;
+    private final SnapshotStore snapshotStore;
+    private final UserAggregateCache userAggregateCache;
 
+    private static final int MAX_LOGIN_APPEND_ATTEMPTS = 3;
+
+    @Value("${event-store.snapshot-frequency:100}")
+    private int snapshotFrequency;
+
+    /**
+     * Returns a private copy of the aggregate, served from {@link UserAggregateCache} when possible.
+     * On a miss the aggregate is loaded from its latest snapshot plus the events appended after it,
+     * or from the full event history when there is no usable snapshot, streaming events from the store.
+     * A new snapshot is written whenever the replayed tail reaches {@code event-store.snapshot-frequency} events.
+     */
     @Override
     public UserAggregate findById(String id) {
-        List<UserEvent> events = eventStore.findByAggregateIdOrderByVersionAsc(id);
-        if (events.isEmpty()) {
-            return null;
+        UserAggregate cached = userAggregateCache.get(id);
+        if (cached != null) {
+            return cached;
         }
 
-        UserAggregate aggregate = new UserAggregate();
-        aggregate.setId(id);
-        events.forEach(aggregate::apply);
+        Optional<UserSnapshot> snapshot = snapshotStore.findById(id);
+        boolean staleSnapshot = snapshot.isPresent() && !snapshot.get().hasCurrentSchema();
+
+        UserAggregate aggregate;
+        if (snapshot.isPresent() && !staleSnapshot) {
+            aggregate = snapshot.get().toAggregate();
+        } else {
+            aggregate = new UserAggregate();
+            aggregate.setId(id);
+        }
+
+        int replayed = replay(aggregate);
+        if (replayed == 0 && aggregate.getVersion() == 0) {
+            return null;
+        }
+        if (staleSnapshot || (snapshotFrequency > 0 && replayed >= snapshotFrequency)) {
+            saveSnapshot(aggregate);
+        }
+        userAggregateCache.put(aggregate);
         return aggregate;
     }
 
+    /**
+     * Folds the events after the aggregate's current version into it as they arrive from the cursor,
+     * so memory stays bounded by the cursor batch size rather than the history length.
+     */
+    private int replay(UserAggregate aggregate) {
+        int replayed = 0;
+        try (Stream<UserEvent> events = eventStore.streamByAggregateId(aggregate.getId(), aggregate.getVersion())) {
+            Iterator<UserEvent> iterator = events.iterator();
+            while (iterator.hasNext()) {
+                aggregate.apply(iterator.next());
+                replayed++;
+            }
+        }
+        return replayed;
+    }
+
+    private void saveSnapshot(UserAggregate aggregate) {
+        try {
+            snapshotStore.save(UserSnapshot.of(aggregate));
+        } catch (Exception e) {
+            log.warn("Error saving snapshot for aggregate: {}", aggregate.getId(), e);
+        }
+    }
+
+    /**
+     * Looks the user up for authentication or registration. A cached aggregate is only returned once the
+     * event store confirmed it is still at the latest version, so a password change, email change or deletion
+     * made on another instance takes effect immediately rather than when the cache learns about it.
+     */
     @Override
     public Optional<UserAggregate> findByEmail(String email) {
-        return eventStore.findAll().stream()
-                .filter(event -> {
-                    UserAggregate aggregate = findById(event.getAggregateId());
-                    return aggregate != null && email.equals(aggregate.getEmail());
-                })
-                .map(event -> findById(event.getAggregateId()))
-                .findFirst();
+        return emailIndexProjection.findAggregateId(email)
+                .map(this::findCurrentById)
+                .filter(aggregate -> email.equals(aggregate.getEmail()));
+    }
+
+    private UserAggregate findCurrentById(String id) {
+        UserAggregate cached = userAggregateCache.get(id);
+        if (cached != null && cached.getVersion() >= eventStore.findLatestVersion(id)) {
+            return cached;
+        }
+        if (cached != null) {
+            userAggregateCache.invalidate(id);
+        }
+        return findById(id);
     }
 
+    /**
+     * Records a login attempt. A login event does not depend on the aggregate state,
+     * so on a version conflict it is retried against the freshly reloaded aggregate.
+     */
     public void loginUser(UserAggregate aggregate, boolean isSuccessfulLogin) {
-        UserLoginEvent event = new UserLoginEvent(aggregate.getId(), isSuccessfulLogin);
-        event.setVersion(aggregate.getVersion() + 1);
-        eventStore.save(event);
-        kafkaService.publishEvent(event);
+        long expectedVersion = aggregate.getVersion();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                append(new UserLoginEvent(aggregate.getId(), isSuccessfulLogin), expectedVersion);
+                return;
+            } catch (ConcurrencyConflictException e) {
+                UserAggregate current = findById(aggregate.getId());
+                if (attempt >= MAX_LOGIN_APPEND_ATTEMPTS || current == null) {
+                    throw e;
+                }
+                expectedVersion = current.getVersion();
+            }
+        }
     }
 
     public void createUser(String aggregateId, String email, String password) {
         UserCreatedEvent event = new UserCreatedEvent(aggregateId, email, password);
-        event.setVersion(1);
         event.setPreferredLanguage("en");
-        eventStore.save(event);
-        kafkaService.publishEvent(event);
+        append(event, 0);
+        emailIndexProjection.onUserCreated(aggregateId, email, event.getVersion());
     }
 
     public void createUser(String aggregateId, String email, String password, String provider, String providerId, String firstName, String lastName, String profilePicture, String preferredLanguage) {
         UserCreatedEvent event = new UserCreatedEvent(aggregateId, email, password, provider, providerId, firstName, lastName, profilePicture, preferredLanguage);
-        event.setVersion(1);
-        eventStore.save(event);
-        kafkaService.publishEvent(event);
+        append(event, 0);
+        emailIndexProjection.onUserCreated(aggregateId, email, event.getVersion());
     }
     public void updateUser(String id, String email, String password) {
         UserAggregate aggregate = findById(id);
         if (aggregate != null) {
             UserUpdatedEvent event = new UserUpdatedEvent(id, email, password);
-            event.setVersion(aggregate.getVersion() + 1);
-            eventStore.save(event);
-            kafkaService.publishEvent(event);
+            append(event, aggregate.getVersion());
+            emailIndexProjection.onUserUpdated(id, aggregate.getEmail(), email, event.getVersion());
         }
     }
 
@@ -78,19 +165,107 @@ public class UserAggregateRepository implements AggregateRepository<UserAggregat
         UserAggregate aggregate = findById(id);
         if (aggregate != null) {
             UserUpdatedEvent event = new UserUpdatedEvent(id, email, password, preferredLanguage);
-            event.setVersion(aggregate.getVersion() + 1);
-            eventStore.save(event);
-            kafkaService.publishEvent(event);
+            append(event, aggregate.getVersion());
+            emailIndexProjection.onUserUpdated(id, aggregate.getEmail(), email, event.getVersion());
         }
     }
 
+    /**
+     * Replaces the stored hash of an unchanged password, as long as it is still {@code previousHash}.
+     *
+     * @return whether the new hash was appended
+     */
+    public boolean rehashPassword(String id, String previousHash, String newHash) {
+        UserAggregate aggregate = findById(id);
+        if (aggregate == null || aggregate.isDeleted() || !Objects.equals(previousHash, aggregate.getPassword())) {
+            return false;
+        }
+        UserUpdatedEvent event = new UserUpdatedEvent(id, null, newHash);
+        event.setPasswordRehash(true);
+        append(event, aggregate.getVersion());
+        return true;
+    }
+
     public void deleteUser(String id) {
         UserAggregate aggregate = findById(id);
         if (aggregate != null) {
             UserDeletedEvent event = new UserDeletedEvent(id);
-            event.setVersion(aggregate.getVersion() + 1);
-            eventStore.save(event);
-            kafkaService.publishEvent(event);
+            append(event, aggregate.getVersion());
+            emailIndexProjection.onUserDeleted(id, aggregate.getEmail(), event.getVersion());
+        }
+    }
+
+    /**
+     * Appends a batch of events, for one or many aggregates, with a single bulk insert.
+     * Each event must already carry its version. Appended events are published by the outbox relay.
+     *
+     * @return the outcome of every event, in the order of {@code events}
+     */
+    public List<EventAppendResult> appendEvents(List<UserEvent> events) {
+        Map<String, String> emails = new HashMap<>();
+        for (UserEvent event : events) {
+            if (event.type() == UserEventType.UPDATED || event.type() == UserEventType.DELETED) {
+                emails.computeIfAbsent(event.getAggregateId(), id -> {
+                    UserAggregate aggregate = findById(id);
+                    return aggregate != null ? aggregate.getEmail() : null;
+                });
+            }
+        }
+
+        List<EventAppendResult> results = eventStore.appendAll(events);
+        UserEventHandler emailProjection = emailProjection(emails);
+        for (EventAppendResult result : results) {
+            UserEvent event = result.getEvent();
+            if (!result.isAppended()) {
+                if (result.getStatus() == EventAppendResult.Status.CONFLICT) {
+                    userAggregateCache.invalidate(event.getAggregateId());
+                }
+                continue;
+            }
+            userAggregateCache.onAppend(event);
+            UserEventType.dispatch(event, emailProjection);
+        }
+        return results;
+    }
+
+    /**
+     * Keeps {@code user_email_index} in step with appended events, tracking each aggregate's email in {@code emails}.
+     */
+    private UserEventHandler emailProjection(Map<String, String> emails) {
+        return new UserEventHandler() {
+            @Override
+            public void onCreated(UserCreatedEvent event) {
+                emailIndexProjection.onUserCreated(event.getAggregateId(), event.getEmail(), event.getVersion());
+                emails.put(event.getAggregateId(), event.getEmail());
+            }
+
+            @Override
+            public void onUpdated(UserUpdatedEvent event) {
+                String id = event.getAggregateId();
+                emailIndexProjection.onUserUpdated(id, emails.get(id), event.getEmail(), event.getVersion());
+                if (event.getEmail() != null) {
+                    emails.put(id, event.getEmail());
+                }
+            }
+
+            @Override
+            public void onDeleted(UserDeletedEvent event) {
+                String id = event.getAggregateId();
+                emailIndexProjection.onUserDeleted(id, emails.get(id), event.getVersion());
+            }
+        };
+    }
+
+    /**
+     * Writes the event to the store only; it is published to Kafka by the {@code OutboxRelay}.
+     */
+    private void append(UserEvent event, long expectedVersion) {
+        try {
+            eventStore.append(event, expectedVersion);
+        } catch (ConcurrencyConflictException e) {
+            userAggregateCache.invalidate(event.getAggregateId());
+            throw e;
         }
+        userAggregateCache.onAppend(event);
     }
-} 
\ No newline at end of file
+}
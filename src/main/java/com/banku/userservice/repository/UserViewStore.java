@@ -0,0 +1,7 @@
+package com.banku.userservice.repository;
+
+import com.banku.userservice.projection.UserView;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface UserViewStore extends MongoRepository<UserView, String>, UserViewStoreCustom {
+}
@@ -0,0 +1,14 @@
+package com.banku.userservice.repository;
+
+import com.banku.userservice.projection.UserView;
+
+public interface UserViewStoreCustom {
+
+    /**
+     * Writes a view produced by a rebuild, unless the view stored for the same user is at the same or a
+     * newer version, which happens when the live projector got there first.
+     *
+     * @return whether the view was written
+     */
+    boolean saveReplayed(UserView view);
+}
@@ -0,0 +1,30 @@
+package com.banku.userservice.repository;
+
+import com.banku.userservice.projection.UserView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReplaceOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+@RequiredArgsConstructor
+public class UserViewStoreCustomImpl implements UserViewStoreCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * The upsert only matches an older view; when the stored one is at least as new it tries to insert a
+     * second document with the same id and fails, leaving the newer view in place.
+     */
+    @Override
+    public boolean saveReplayed(UserView view) {
+        Query query = new Query(Criteria.where("_id").is(view.getUserId()).and("version").lt(view.getVersion()));
+        try {
+            mongoTemplate.replace(query, view, ReplaceOptions.replaceOptions().upsert());
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+}
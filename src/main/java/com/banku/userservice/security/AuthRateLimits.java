@@ -0,0 +1,60 @@
+package com.banku.userservice.security;
+
+import com.banku.userservice.exception.TooManyRequestsException;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * <h3>Throttles authentication attempts per client address and endpoint, and per account.</h3>
+ * <p>
+ * The client limits are applied by {@link RateLimitFilter} before the request reaches a controller; the account
+ * limit is checked by {@code AuthService.login} before the password is hashed or the user loaded. Both are built
+ * in {@link CredentialsConfig} from the {@code rate-limit.*} settings; an endpoint without a limiter is not throttled.
+ * </p>
+ */
+public class AuthRateLimits {
+
+    private final Map<String, TokenBucketRateLimiter> clientLimitsByPath;
+    private final TokenBucketRateLimiter accountLimit;
+
+    /**
+     * @param clientLimitsByPath servlet path to the limiter keyed by client address
+     * @param accountLimit       limiter keyed by email, or {@code null} for none
+     */
+    public AuthRateLimits(Map<String, TokenBucketRateLimiter> clientLimitsByPath, TokenBucketRateLimiter accountLimit) {
+        this.clientLimitsByPath = Map.copyOf(clientLimitsByPath);
+        this.accountLimit = accountLimit;
+    }
+
+    public boolean limitsClientsOf(String path) {
+        return clientLimitsByPath.containsKey(path);
+    }
+
+    /**
+     * @throws TooManyRequestsException if {@code clientAddress} used up its attempts on {@code path}
+     */
+    public void checkClient(String path, String clientAddress) {
+        TokenBucketRateLimiter limiter = clientLimitsByPath.get(path);
+        if (limiter != null) {
+            check(limiter, clientAddress, "Too many attempts from this address, retry later");
+        }
+    }
+
+    /**
+     * @throws TooManyRequestsException if the account of {@code email} used up its login attempts
+     */
+    public void checkAccount(String email) {
+        if (accountLimit != null && email != null) {
+            check(accountLimit, email.trim().toLowerCase(Locale.ROOT), "Too many login attempts for this account, retry later");
+        }
+    }
+
+    private static void check(TokenBucketRateLimiter limiter, String key, String message) {
+        Duration retryAfter = limiter.tryAcquire(key);
+        if (!retryAfter.isZero()) {
+            throw new TooManyRequestsException(message, retryAfter);
+        }
+    }
+}
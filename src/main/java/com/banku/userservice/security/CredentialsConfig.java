@@ -0,0 +1,67 @@
+package com.banku.userservice.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Password hashing and authentication throttling, independent of the web stack so the servlet
+ * {@link SecurityConfig} and the reactive variant share them.
+ */
+@Configuration
+public class CredentialsConfig {
+
+    /**
+     * Every password hash, from registration, password changes and login checks, goes through the bounded
+     * {@link PasswordHashingService} pool, with the algorithm and cost chosen by {@link PasswordHashCalibration}.
+     */
+    @Bean
+    public PasswordHashingService passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${password-hashing.threads:0}") int threads,
+            @Value("${password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${password-hashing.timeout:5s}") Duration timeout,
+            @Value("${password-hashing.algorithm:bcrypt}") String algorithm,
+            @Value("${password-hashing.target-time:100ms}") Duration targetTime,
+            @Value("${password-hashing.bcrypt-strength:0}") int bcryptStrength,
+            @Value("${password-hashing.argon2-memory-kib:19456}") int argon2MemoryKib,
+            @Value("${password-hashing.argon2-iterations:0}") int argon2Iterations) {
+        PasswordEncoder encoder = PasswordHashCalibration.delegatingEncoder(
+                algorithm, targetTime, bcryptStrength, argon2MemoryKib, argon2Iterations);
+        return new PasswordHashingService(encoder, meterRegistry, threads, queueCapacity, timeout);
+    }
+
+    /**
+     * Attempts allowed per client address on each authentication endpoint, and per account on login, within
+     * the endpoint's period. A limit of {@code 0} turns it off.
+     */
+    @Bean
+    public AuthRateLimits authRateLimits(
+            MeterRegistry meterRegistry,
+            @Value("${rate-limit.max-keys:100000}") long maxKeys,
+            @Value("${rate-limit.login.per-client:20}") int loginPerClient,
+            @Value("${rate-limit.login.per-account:5}") int loginPerAccount,
+            @Value("${rate-limit.login.period:1m}") Duration loginPeriod,
+            @Value("${rate-limit.register.per-client:5}") int registerPerClient,
+            @Value("${rate-limit.register.period:10m}") Duration registerPeriod) {
+        Map<String, TokenBucketRateLimiter> clientLimits = new HashMap<>();
+        if (loginPerClient > 0) {
+            clientLimits.put("/api/v1/auth/login",
+                    new TokenBucketRateLimiter("login-client", loginPerClient, loginPeriod, maxKeys, meterRegistry));
+        }
+        if (registerPerClient > 0) {
+            clientLimits.put("/api/v1/auth/register",
+                    new TokenBucketRateLimiter("register-client", registerPerClient, registerPeriod, maxKeys, meterRegistry));
+        }
+        TokenBucketRateLimiter accountLimit = loginPerAccount > 0
+                ? new TokenBucketRateLimiter("login-account", loginPerAccount, loginPeriod, maxKeys, meterRegistry)
+                : null;
+        return new AuthRateLimits(clientLimits, accountLimit);
+    }
+}
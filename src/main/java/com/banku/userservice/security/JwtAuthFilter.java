@@ -4,7 +4,7 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -14,17 +14,36 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Authenticates requests carrying a bearer token. With {@code jwt.auth-mode: user-details} (the default) the
+ * principal is the user loaded through the {@link UserDetailsService}; with {@code claims} it is a
+ * {@link TokenPrincipal} built from the verified claims, and deleted users or changed passwords are caught
+ * by the {@link TokenRevocationCheck} in {@link JwtService#verify} instead of a user lookup.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    public enum AuthMode { USER_DETAILS, CLAIMS }
+
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final AuthMode authMode;
+
+    public JwtAuthFilter(
+            JwtService jwtService,
+            UserDetailsService userDetailsService,
+            @Value("${jwt.auth-mode:user-details}") String authMode) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.authMode = AuthMode.valueOf(authMode.trim().replace('-', '_').toUpperCase());
+    }
 
     @Override
     protected void doFilterInternal(
@@ -32,34 +51,38 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String username;
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
-        
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtService.isTokenValid(jwt)) {
-                String userId = jwtService.extractUserId(jwt);
-                
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+        // One signature check and parse for the whole request
+        Optional<VerifiedClaims> claims = jwtService.verify(authHeader.substring(7));
+
+        if (claims.isPresent() && claims.get().getSubject() != null) {
+            UsernamePasswordAuthenticationToken authToken;
+            if (authMode == AuthMode.CLAIMS) {
+                authToken = new UsernamePasswordAuthenticationToken(
+                        new TokenPrincipal(claims.get().getUserId(), claims.get().getSubject()),
+                        null,
+                        Collections.emptyList()
+                );
+            } else {
+                UserDetails userDetails = userDetailsService.loadUserByUsername(claims.get().getSubject());
+                authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
                         userDetails.getAuthorities()
                 );
-                
-                Map<String, Object> details = new HashMap<>();
-                details.put("userId", userId);
-                authToken.setDetails(details);
-                
-                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
+
+            Map<String, Object> details = new HashMap<>();
+            details.put("userId", claims.get().getUserId());
+            authToken.setDetails(details);
+
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
 
         filterChain.doFilter(request, response);
@@ -3,25 +3,109 @@ package com.banku.userservice.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 @Service
 @Slf4j
 public class JwtService {
 
+    /** How long issued tokens are valid. */
+    public static final Duration TOKEN_LIFETIME = Duration.ofHours(24);
+
     @Value("${jwt.secret}")
     private String secretKey;
 
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationCheck revocationCheck;
+    private volatile Verifier verifier;
+
+    @Autowired
+    public JwtService(VerifiedTokenCache verifiedTokenCache, ObjectProvider<TokenRevocationCheck> revocationCheck) {
+        this(verifiedTokenCache, revocationCheck.getIfAvailable(() -> TokenRevocationCheck.NONE));
+    }
+
+    JwtService(VerifiedTokenCache verifiedTokenCache, TokenRevocationCheck revocationCheck) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.revocationCheck = revocationCheck;
+    }
+
+    /**
+     * The signing key and parser are immutable and thread-safe, so they are built once per secret.
+     */
+    private record Verifier(String secret, Key key, JwtParser parser) {
+        static Verifier of(String secret) {
+            Key key = Keys.hmacShaKeyFor(secret.getBytes());
+            return new Verifier(secret, key, Jwts.parserBuilder().setSigningKey(key).build());
+        }
+    }
+
+    private Verifier verifier() {
+        Verifier current = verifier;
+        if (current == null || !current.secret().equals(secretKey)) {
+            current = Verifier.of(secretKey);
+            verifier = current;
+            // Claims verified with the previous key must be verified again
+            verifiedTokenCache.invalidateAll();
+        }
+        return current;
+    }
+
     private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+        return verifier().key();
+    }
+
+    private Claims parseClaims(String token) {
+        return verifier().parser().parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Verifies the signature and expiry of the token and returns its claims. A token already verified by an
+     * earlier request is answered from the {@link VerifiedTokenCache} without checking the signature again;
+     * the revocation check runs either way.
+     *
+     * @return the claims, or empty if the token is malformed, forged, expired or revoked
+     */
+    public Optional<VerifiedClaims> verify(String token) {
+        Verifier current = verifier();
+        VerifiedClaims claims = verifiedTokenCache.get(token, t -> parseVerifiedClaims(current, t));
+        if (claims == null || claims.isExpired(Instant.now())) {
+            return Optional.empty();
+        }
+        if (revocationCheck.isRevoked(claims)) {
+            log.warn("Rejecting revoked token of user {}", claims.getUserId());
+            return Optional.empty();
+        }
+        return Optional.of(claims);
+    }
+
+    private static VerifiedClaims parseVerifiedClaims(Verifier verifier, String token) {
+        try {
+            Claims claims = verifier.parser().parseClaimsJws(token).getBody();
+            return new VerifiedClaims(
+                    claims.getSubject(),
+                    resolveUserId(claims),
+                    toInstant(claims.getIssuedAt()),
+                    toInstant(claims.getExpiration()));
+        } catch (ExpiredJwtException e) {
+            log.warn("Token expired: {}", e.getMessage());
+            return null;
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("Error validating token: {}", e.getMessage());
+            return null;
+        }
     }
 
     public String extractUsername(String token) {
@@ -52,41 +136,38 @@ public class JwtService {
     
     public String extractUserId(String token) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            
-            String userId = claims.get("userId", String.class);
-            if (userId != null) {
-                return userId;
-            }
-            
-            Object extraClaimsObj = claims.get("extraClaims");
-            if (extraClaimsObj instanceof Map) {
-                Map<String, Object> extraClaims = (Map<String, Object>) extraClaimsObj;
-                if (extraClaims.containsKey("userId")) {
-                    userId = (String) extraClaims.get("userId");
-                    return userId;
-                }
-            }
-            
-            log.warn("userId not found in token, using subject as fallback");
-            return claims.getSubject();
+            return resolveUserId(parseClaims(token));
         } catch (Exception e) {
             log.error("Error extracting userId from token", e);
             return null;
         }
     }
 
+    private static String resolveUserId(Claims claims) {
+        String userId = claims.get("userId", String.class);
+        if (userId != null) {
+            return userId;
+        }
+
+        Object extraClaimsObj = claims.get("extraClaims");
+        if (extraClaimsObj instanceof Map) {
+            Map<String, Object> extraClaims = (Map<String, Object>) extraClaimsObj;
+            if (extraClaims.containsKey("userId")) {
+                return (String) extraClaims.get("userId");
+            }
+        }
+
+        log.warn("userId not found in token, using subject as fallback");
+        return claims.getSubject();
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            Claims claims = parseClaims(token);
             return claimsResolver.apply(claims);
         } catch (ExpiredJwtException e) {
             log.warn("Token expired: {}", e.getMessage());
@@ -97,27 +178,11 @@ public class JwtService {
         }
     }
 
+    /**
+     * The parser rejects expired tokens, so one successful parse covers both signature and expiry.
+     */
     public boolean isTokenValid(String token) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            log.error("Error validating token: {}", e.getMessage());
-            return false;
-        }
-    }
-
-    private boolean isTokenExpired(String token) {
-        try {
-            Date expiration = extractClaim(token, Claims::getExpiration);
-            return expiration.before(new Date());
-        } catch (Exception e) {
-            log.error("Error verifying token expiration: {}", e.getMessage());
-            return true;
-        }
+        return verify(token).isPresent();
     }
     
     public String generateToken(String username, Map<String, Object> extraClaims) {
@@ -125,7 +190,7 @@ public class JwtService {
                 .setClaims(extraClaims)
                 .setSubject(username)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24))
+                .setExpiration(new Date(System.currentTimeMillis() + TOKEN_LIFETIME.toMillis()))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
@@ -0,0 +1,104 @@
+package com.banku.userservice.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * <h3>Builds the password encoders with a work factor that fits a target hash time on this machine.</h3>
+ * <p>
+ * New hashes are written as {@code {bcrypt}...} or {@code {argon2}...} by a {@link DelegatingPasswordEncoder},
+ * which verifies both and treats unprefixed hashes as BCrypt. A cost left at {@code 0} is calibrated at startup:
+ * one cheap probe hash is timed (fastest of a few, to leave JIT warm-up out) and extrapolated, BCrypt doubling
+ * its work per strength step and Argon2 growing linearly with its iterations at a fixed memory cost.
+ * </p>
+ */
+@Slf4j
+final class PasswordHashCalibration {
+
+    static final String BCRYPT = "bcrypt";
+    static final String ARGON2 = "argon2";
+
+    static final int MIN_BCRYPT_STRENGTH = 10;
+    static final int MAX_BCRYPT_STRENGTH = 16;
+    static final int MIN_ARGON2_ITERATIONS = 2;
+    static final int MAX_ARGON2_ITERATIONS = 16;
+
+    private static final int BCRYPT_PROBE_STRENGTH = 8;
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    private static final int ARGON2_PARALLELISM = 1;
+    private static final int PROBES = 3;
+    private static final String PROBE_PASSWORD = "calibration-probe";
+
+    private PasswordHashCalibration() {
+    }
+
+    /**
+     * @param algorithm       {@code bcrypt} or {@code argon2}, used for new hashes
+     * @param bcryptStrength  BCrypt log rounds, {@code 0} to calibrate
+     * @param argon2Iterations Argon2 passes, {@code 0} to calibrate
+     */
+    static PasswordEncoder delegatingEncoder(String algorithm, Duration targetTime, int bcryptStrength,
+                                             int argon2MemoryKib, int argon2Iterations) {
+        if (!BCRYPT.equals(algorithm) && !ARGON2.equals(algorithm)) {
+            throw new IllegalArgumentException("Unknown password-hashing.algorithm: " + algorithm);
+        }
+        if (bcryptStrength <= 0 && BCRYPT.equals(algorithm)) {
+            bcryptStrength = bcryptStrength(probeNanos(new BCryptPasswordEncoder(BCRYPT_PROBE_STRENGTH)), targetTime);
+        }
+        if (argon2Iterations <= 0 && ARGON2.equals(algorithm)) {
+            argon2Iterations = argon2Iterations(probeNanos(argon2(argon2MemoryKib, 1)), targetTime);
+        }
+        BCryptPasswordEncoder bcrypt = bcryptStrength > 0 ? new BCryptPasswordEncoder(bcryptStrength) : new BCryptPasswordEncoder();
+        PasswordEncoder argon2 = argon2Iterations > 0
+                ? argon2(argon2MemoryKib, argon2Iterations)
+                : Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8();
+        log.info("Hashing new passwords with {} (bcrypt strength {}, argon2 {} KiB x {} iterations), target {} ms",
+                algorithm, bcryptStrength, argon2MemoryKib, argon2Iterations, targetTime.toMillis());
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, Map.of(BCRYPT, bcrypt, ARGON2, argon2));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    /**
+     * The highest strength whose extrapolated hash time stays within {@code targetTime}.
+     */
+    static int bcryptStrength(long probeNanos, Duration targetTime) {
+        long targetNanos = targetTime.toNanos();
+        for (int strength = MAX_BCRYPT_STRENGTH; strength > MIN_BCRYPT_STRENGTH; strength--) {
+            if (probeNanos << (strength - BCRYPT_PROBE_STRENGTH) <= targetNanos) {
+                return strength;
+            }
+        }
+        return MIN_BCRYPT_STRENGTH;
+    }
+
+    /**
+     * The most iterations whose extrapolated hash time stays within {@code targetTime}, given the time of one.
+     */
+    static int argon2Iterations(long singleIterationNanos, Duration targetTime) {
+        long iterations = targetTime.toNanos() / Math.max(singleIterationNanos, 1);
+        return (int) Math.max(MIN_ARGON2_ITERATIONS, Math.min(MAX_ARGON2_ITERATIONS, iterations));
+    }
+
+    private static Argon2PasswordEncoder argon2(int memoryKib, int iterations) {
+        return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, ARGON2_PARALLELISM, memoryKib, iterations);
+    }
+
+    private static long probeNanos(PasswordEncoder encoder) {
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < PROBES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(PROBE_PASSWORD);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        return fastest;
+    }
+}
@@ -0,0 +1,163 @@
+package com.banku.userservice.security;
+
+import com.banku.userservice.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <h3>Runs password hashing on a dedicated, bounded pool instead of the request threads.</h3>
+ * <p>
+ * Hashing is deliberately CPU-bound, so a burst of logins on servlet threads could occupy all of them and
+ * starve the cheap endpoints. This encoder hands {@code encode} and {@code matches} to
+ * {@code password-hashing.threads} workers (one per core by default) with a queue of
+ * {@code password-hashing.queue-capacity}. A request arriving when both are full, or whose hash does not
+ * complete within {@code password-hashing.timeout}, fails at once with a {@code 503}
+ * {@link PasswordHashingUnavailableException} instead of waiting.
+ * </p>
+ * <p>
+ * Exposes {@code password.hash.queue-wait} and {@code password.hash.time} (tagged by operation),
+ * {@code password.hash.rejected} and {@code password.hash.queued}.
+ * </p>
+ */
+@Slf4j
+public class PasswordHashingService implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Timer queueWait;
+    private final Timer encodeTime;
+    private final Timer matchTime;
+    private final Counter rejected;
+
+    public PasswordHashingService(PasswordEncoder delegate, MeterRegistry registry, int threads, int queueCapacity, Duration timeout) {
+        this.delegate = delegate;
+        this.timeout = timeout;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.queueWait = Timer.builder("password.hash.queue-wait")
+                .description("Time a hash waited for a free password-hashing thread")
+                .register(registry);
+        this.encodeTime = Timer.builder("password.hash.time").tag("operation", "encode").register(registry);
+        this.matchTime = Timer.builder("password.hash.time").tag("operation", "matches").register(registry);
+        this.rejected = Counter.builder("password.hash.rejected").register(registry);
+        Gauge.builder("password.hash.queued", executor, e -> e.getQueue().size())
+                .description("Hashes waiting for a password-hashing thread")
+                .register(registry);
+        log.info("Password hashing on {} threads, queue {}", poolSize, queueCapacity);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return await(submit(() -> delegate.encode(rawPassword), encodeTime));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return await(submit(() -> delegate.matches(rawPassword, encodedPassword), matchTime));
+    }
+
+    /**
+     * {@link #encode} for non-blocking callers: completes on a hashing thread, or with a
+     * {@link PasswordHashingUnavailableException} on timeout.
+     *
+     * @throws PasswordHashingUnavailableException at once when the pool and its queue are full
+     */
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword), encodeTime);
+    }
+
+    /**
+     * {@link #matches} for non-blocking callers, see {@link #encodeAsync}.
+     */
+    public CompletableFuture<Boolean> matchesAsync(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword), matchTime);
+    }
+
+    /**
+     * Only inspects the stored hash, so it runs on the caller.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public PasswordEncoder getDelegate() {
+        return delegate;
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> hash, Timer hashTime) {
+        long submittedAt = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                if (result.isDone()) {
+                    return; // timed out while queued, nobody waits for it anymore
+                }
+                queueWait.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    result.complete(hashTime.recordCallable(hash));
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingUnavailableException("Too many password checks in progress, retry later");
+        }
+        return result.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS).handle((value, error) -> {
+            if (error == null) {
+                return value;
+            }
+            if (error instanceof TimeoutException) {
+                rejected.increment();
+                throw new PasswordHashingUnavailableException("Password check timed out, retry later");
+            }
+            throw error instanceof RuntimeException runtime ? runtime : new CompletionException(error);
+        });
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException("Password check interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,47 @@
+package com.banku.userservice.security;
+
+import com.banku.userservice.exception.TooManyRequestsException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rejects requests to throttled authentication endpoints with a {@code 429} once their client address used up
+ * its attempts, before the body is read. The client address is the remote address of the connection; behind a
+ * proxy, {@code server.forward-headers-strategy} makes it the forwarded one.
+ */
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final AuthRateLimits authRateLimits;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !authRateLimits.limitsClientsOf(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            authRateLimits.checkClient(request.getServletPath(), request.getRemoteAddr());
+        } catch (TooManyRequestsException e) {
+            response.setStatus(e.getHttpStatus().value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            OBJECT_MAPPER.writeValue(response.getOutputStream(), e.toResponse().getBody());
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,100 @@
+package com.banku.userservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * <h3>In-memory token buckets, one per key, that hold {@code capacity} attempts refilled over {@code period}.</h3>
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be full again (the GCRA form of
+ * a token bucket): an attempt adds {@code period / capacity} to it and is allowed while that stays within one
+ * {@code period} of now. Updates are a lock-free compare-and-set, so concurrent attempts on one key never block.
+ * </p>
+ * <p>
+ * At most {@code maxKeys} buckets are kept. A bucket idle for a whole {@code period} is full again, the same as
+ * no bucket, so it is evicted then; under key floods the least recently used buckets go first.
+ * </p>
+ * <p>
+ * Exposes {@code auth.rate-limit.requests} (tagged with {@code limiter} and {@code outcome}) and
+ * {@code auth.rate-limit.keys}.
+ * </p>
+ */
+public class TokenBucketRateLimiter {
+
+    private final String name;
+    private final int capacity;
+    private final long periodNanos;
+    private final long intervalNanos;
+    private final LongSupplier nanoClock;
+    private final Cache<String, AtomicLong> buckets;
+    private final Counter allowed;
+    private final Counter rejected;
+
+    public TokenBucketRateLimiter(String name, int capacity, Duration period, long maxKeys, MeterRegistry registry) {
+        this(name, capacity, period, maxKeys, registry, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(String name, int capacity, Duration period, long maxKeys, MeterRegistry registry, LongSupplier nanoClock) {
+        if (capacity <= 0 || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Rate limit " + name + " needs a positive capacity and period");
+        }
+        this.name = name;
+        this.capacity = capacity;
+        this.periodNanos = period.toNanos();
+        this.intervalNanos = Math.max(periodNanos / capacity, 1);
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(period)
+                .build();
+        this.allowed = Counter.builder("auth.rate-limit.requests").tag("limiter", name).tag("outcome", "allowed").register(registry);
+        this.rejected = Counter.builder("auth.rate-limit.requests").tag("limiter", name).tag("outcome", "rejected").register(registry);
+        Gauge.builder("auth.rate-limit.keys", buckets, Cache::estimatedSize)
+                .description("Keys with a partially used bucket")
+                .tag("limiter", name)
+                .register(registry);
+    }
+
+    /**
+     * Takes one attempt from the bucket of {@code key}.
+     *
+     * @return {@link Duration#ZERO} when allowed, otherwise how long until the next attempt would be
+     */
+    public Duration tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(now));
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + intervalNanos;
+            long excess = next - now - periodNanos;
+            if (excess > 0) {
+                rejected.increment();
+                return Duration.ofNanos(excess);
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                allowed.increment();
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    long size() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
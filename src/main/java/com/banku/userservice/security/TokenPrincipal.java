@@ -0,0 +1,19 @@
+package com.banku.userservice.security;
+
+import lombok.Value;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * The principal of a request authenticated from verified token claims alone ({@code jwt.auth-mode: claims}),
+ * without loading the user.
+ */
+@Value
+public class TokenPrincipal implements AuthenticatedPrincipal {
+    String userId;
+    String email;
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
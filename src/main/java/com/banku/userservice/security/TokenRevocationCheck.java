@@ -0,0 +1,15 @@
+package com.banku.userservice.security;
+
+/**
+ * Decides whether a token that verified is nonetheless no longer accepted, e.g. because its user was deleted.
+ * {@link JwtService} consults it on every request, including when the claims come from the
+ * {@link VerifiedTokenCache}, so implementations must answer from memory.
+ */
+@FunctionalInterface
+public interface TokenRevocationCheck {
+
+    /** Accepts every verified token; used while no other check is configured. */
+    TokenRevocationCheck NONE = claims -> false;
+
+    boolean isRevoked(VerifiedClaims claims);
+}
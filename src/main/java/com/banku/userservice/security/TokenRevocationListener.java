@@ -0,0 +1,84 @@
+package com.banku.userservice.security;
+
+import com.banku.userservice.config.KafkaConfig;
+import com.banku.userservice.event.UserDeletedEvent;
+import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.event.UserEventHandler;
+import com.banku.userservice.event.UserEventType;
+import com.banku.userservice.event.UserUpdatedEvent;
+import com.banku.userservice.event.codec.EventCodecRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * <h3>Feeds the {@link TokenRevocationStore} of this instance from {@code banku.user}.</h3>
+ * <p>
+ * Unlike the projection listeners, every instance must see every deletion and password change, so this
+ * listener assigns itself every partition rather than joining a consumer group, and never commits offsets
+ * (see {@link com.banku.userservice.config.BroadcastListenerSupport}): on assignment it rewinds to {@link JwtService#TOKEN_LIFETIME} ago, so an instance that just started knows
+ * every revocation of a token that could still be presented.
+ * </p>
+ * <p>
+ * The event timestamp comes from the clock of the instance that wrote it. A watermark is never set later
+ * than the moment the event is received here, so a writer whose clock runs ahead cannot revoke tokens
+ * issued after the change.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationListener implements ConsumerSeekAware {
+
+    private final EventCodecRegistry eventCodecRegistry;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final UserEventHandler revocations = new UserEventHandler() {
+        @Override
+        public void onDeleted(UserDeletedEvent event) {
+            revoke(event);
+        }
+
+        @Override
+        public void onUpdated(UserUpdatedEvent event) {
+            if (event.getPassword() != null && !event.isPasswordRehash()) {
+                revoke(event);
+            }
+        }
+    };
+
+    @KafkaListener(id = "tokenRevocationListener",
+            topicPartitions = @org.springframework.kafka.annotation.TopicPartition(topic = KafkaConfig.USER_EVENTS_TOPIC,
+                    partitions = "#{@broadcastListenerSupport.partitions('" + KafkaConfig.USER_EVENTS_TOPIC + "')}"),
+            groupId = "${spring.kafka.consumer.group-id}-revocation",
+            containerPostProcessor = "broadcastListenerSupport", properties = "enable.auto.commit=false",
+            autoStartup = "${jwt.revocation.listener-enabled:true}")
+    public void listen(ConsumerRecord<String, byte[]> record) {
+        try {
+            onEvent(eventCodecRegistry.decode(record.headers(), record.value()));
+        } catch (Exception e) {
+            log.error("Error reading revocation from record {} at {}-{}@{}", record.key(), record.topic(), record.partition(), record.offset(), e);
+        }
+    }
+
+    void onEvent(UserEvent event) {
+        UserEventType.dispatch(event, revocations);
+    }
+
+    private void revoke(UserEvent event) {
+        Instant now = Instant.now();
+        Instant watermark = event.getTimestamp() == null || event.getTimestamp().isAfter(now) ? now : event.getTimestamp();
+        tokenRevocationStore.revokeIssuedBefore(event.getAggregateId(), watermark);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        callback.seekToTimestamp(assignments.keySet(), Instant.now().minus(JwtService.TOKEN_LIFETIME).toEpochMilli());
+    }
+}
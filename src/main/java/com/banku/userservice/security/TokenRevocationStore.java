@@ -0,0 +1,92 @@
+package com.banku.userservice.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <h3>Per-user watermarks: tokens issued before the watermark are no longer accepted.</h3>
+ * <p>
+ * Deleting a user or changing their password raises the watermark to that moment, which revokes every token
+ * handed out until then in one O(1) lookup per request instead of loading the user. Token {@code iat} has
+ * second precision, so watermarks are rounded down to whole seconds: a token issued in the same second as the
+ * revocation, such as the one handed out when logging in again right after a password change, stays valid.
+ * </p>
+ * <p>
+ * Every instance receives the user lifecycle events through the {@link TokenRevocationListener}. Watermarks
+ * are kept as epoch milliseconds in a {@link WatermarkTable} keyed by the user id's UUID bits, and dropped
+ * once older than {@link JwtService#TOKEN_LIFETIME}, when every token they revoke has expired anyway.
+ * </p>
+ */
+@Slf4j
+@Component
+public class TokenRevocationStore implements TokenRevocationCheck {
+
+    private final WatermarkTable watermarks = new WatermarkTable(1024);
+    /** User ids that are not UUIDs, which only tokens predating the userId claim fall back to. */
+    private final Map<String, Long> otherWatermarks = new ConcurrentHashMap<>();
+
+    /**
+     * Revokes the tokens of the user issued before the second of {@code watermark}. Watermarks only move forward.
+     */
+    public void revokeIssuedBefore(String userId, Instant watermark) {
+        long millis = watermark.getEpochSecond() * 1000;
+        UUID uuid = parseUuid(userId);
+        if (uuid != null) {
+            watermarks.putMax(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), millis);
+        } else {
+            otherWatermarks.merge(userId, millis, Math::max);
+        }
+        log.info("Revoked tokens of user {} issued before {}", userId, watermark);
+    }
+
+    @Override
+    public boolean isRevoked(VerifiedClaims claims) {
+        long watermark = watermarkOf(claims.getUserId());
+        return watermark != 0 && (claims.getIssuedAt() == null || claims.getIssuedAt().toEpochMilli() < watermark);
+    }
+
+    /**
+     * Forgets the watermarks older than the token lifetime.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.prune-interval-ms:3600000}")
+    public void prune() {
+        long cutoff = Instant.now().minus(JwtService.TOKEN_LIFETIME).toEpochMilli();
+        int removed = watermarks.removeBelow(cutoff);
+        otherWatermarks.values().removeIf(millis -> millis < cutoff);
+        if (removed > 0) {
+            log.debug("Pruned {} expired revocation watermarks", removed);
+        }
+    }
+
+    public int size() {
+        return watermarks.size() + otherWatermarks.size();
+    }
+
+    private long watermarkOf(String userId) {
+        if (userId == null) {
+            return 0;
+        }
+        UUID uuid = parseUuid(userId);
+        if (uuid != null) {
+            return watermarks.get(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        }
+        return otherWatermarks.getOrDefault(userId, 0L);
+    }
+
+    private static UUID parseUuid(String userId) {
+        if (userId.length() != 36) {
+            return null;
+        }
+        try {
+            return UUID.fromString(userId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.banku.userservice.security;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * The claims of a bearer token whose signature and expiry {@link JwtService#verify} already checked.
+ */
+@Value
+public class VerifiedClaims {
+    /** The email the token was issued to. */
+    String subject;
+    /** The {@code userId} claim, or the subject for tokens issued without one. */
+    String userId;
+    Instant issuedAt;
+    Instant expiresAt;
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
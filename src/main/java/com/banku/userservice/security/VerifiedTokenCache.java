@@ -0,0 +1,124 @@
+package com.banku.userservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * <h3>Bounded cache of verified bearer tokens, so a token reused across requests is verified once.</h3>
+ * <p>
+ * Entries are keyed by the SHA-256 digest of the token, never the token itself, hold its
+ * {@link VerifiedClaims} and expire exactly at the token's {@code exp}. Tokens without an expiry and tokens
+ * that fail verification are not cached. Holds at most {@code jwt.cache.maximum-size} tokens;
+ * {@code jwt.cache.enabled: false} verifies every request.
+ * </p>
+ * <p>
+ * Exposes the Caffeine metrics under {@code cache=verifiedTokens} and {@code jwt.cache.hit-ratio}.
+ * </p>
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private final boolean enabled;
+    private final Cache<TokenDigest, VerifiedClaims> cache;
+
+    public VerifiedTokenCache(
+            @Value("${jwt.cache.enabled:true}") boolean enabled,
+            @Value("${jwt.cache.maximum-size:10000}") long maximumSize) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached claims of the token, or verifies it with {@code verifier} and caches the result.
+     *
+     * @param verifier returns the claims of a valid token, or {@code null}
+     * @return the claims, or {@code null} if the token did not verify
+     */
+    public VerifiedClaims get(String token, Function<String, VerifiedClaims> verifier) {
+        if (!enabled) {
+            return verifier.apply(token);
+        }
+        VerifiedClaims[] withoutExpiry = new VerifiedClaims[1];
+        VerifiedClaims claims = cache.get(TokenDigest.of(token), digest -> {
+            VerifiedClaims verified = verifier.apply(token);
+            if (verified != null && verified.getExpiresAt() == null) {
+                withoutExpiry[0] = verified;
+                return null;
+            }
+            return verified;
+        });
+        return claims != null ? claims : withoutExpiry[0];
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "verifiedTokens");
+        Gauge.builder("jwt.cache.hit-ratio", cache, c -> c.stats().hitRate())
+                .description("Share of bearer token lookups answered without verifying the signature")
+                .register(registry);
+    }
+
+    private record TokenDigest(long a, long b, long c, long d) {
+        static TokenDigest of(String token) {
+            ByteBuffer digest = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new TokenDigest(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<TokenDigest, VerifiedClaims> {
+        @Override
+        public long expireAfterCreate(TokenDigest key, VerifiedClaims claims, long currentTime) {
+            return Math.max(Duration.between(Instant.now(), claims.getExpiresAt()).toNanos(), 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, VerifiedClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, VerifiedClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.banku.userservice.security;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing map from a UUID, as its two longs, to a positive {@code long}, stored in flat primitive arrays:
+ * 24 bytes per entry instead of a {@code String}, an {@code Instant} and a map node. Lookups are lock-free
+ * optimistic reads that only fall back to the read lock when they raced with a write; writes are serialized.
+ * The nil UUID cannot be stored, it marks empty slots.
+ */
+final class WatermarkTable {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private final StampedLock lock = new StampedLock();
+    private volatile Table table;
+
+    WatermarkTable(int expectedSize) {
+        this.table = new Table(capacityFor(expectedSize));
+    }
+
+    /**
+     * @return the value stored for the key, or {@code 0} when there is none
+     */
+    long get(long msb, long lsb) {
+        long stamp = lock.tryOptimisticRead();
+        long value = table.find(msb, lsb);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                value = table.find(msb, lsb);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Stores {@code value} unless the key already holds a greater one.
+     */
+    void putMax(long msb, long lsb, long value) {
+        if ((msb | lsb) == 0 || value <= 0) {
+            throw new IllegalArgumentException("The nil key and non-positive values cannot be stored");
+        }
+        long stamp = lock.writeLock();
+        try {
+            Table current = table;
+            if (current.size + 1 > current.capacity() * LOAD_FACTOR) {
+                current = current.copy(capacityFor(current.size + 1), Long.MIN_VALUE);
+                table = current;
+            }
+            current.putMax(msb, lsb, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Drops every entry whose value is below {@code minimum} and shrinks the table to fit.
+     *
+     * @return the number of entries removed
+     */
+    int removeBelow(long minimum) {
+        long stamp = lock.writeLock();
+        try {
+            Table current = table;
+            Table pruned = current.copy(capacityFor(current.countAtLeast(minimum)), minimum);
+            table = pruned;
+            return current.size - pruned.size;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    int size() {
+        return table.size;
+    }
+
+    private static int capacityFor(int entries) {
+        int needed = (int) Math.ceil(Math.max(entries, 1) / LOAD_FACTOR);
+        return Math.max(16, Integer.highestOneBit(needed - 1) << 1);
+    }
+
+    private static final class Table {
+        /** Two longs per slot: most and least significant bits of the key. */
+        private final long[] keys;
+        private final long[] values;
+        private final int mask;
+        private int size;
+
+        Table(int capacity) {
+            this.keys = new long[capacity * 2];
+            this.values = new long[capacity];
+            this.mask = capacity - 1;
+        }
+
+        int capacity() {
+            return values.length;
+        }
+
+        long find(long msb, long lsb) {
+            int slot = slot(msb, lsb);
+            // Bounded so a read racing with a write can never spin; the caller then retries under the lock
+            for (int probes = 0; probes <= mask; probes++) {
+                long keyMsb = keys[slot * 2];
+                long keyLsb = keys[slot * 2 + 1];
+                if (keyMsb == msb && keyLsb == lsb) {
+                    return values[slot];
+                }
+                if ((keyMsb | keyLsb) == 0) {
+                    return 0;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return 0;
+        }
+
+        void putMax(long msb, long lsb, long value) {
+            int slot = slot(msb, lsb);
+            while (true) {
+                long keyMsb = keys[slot * 2];
+                long keyLsb = keys[slot * 2 + 1];
+                if (keyMsb == msb && keyLsb == lsb) {
+                    values[slot] = Math.max(values[slot], value);
+                    return;
+                }
+                if ((keyMsb | keyLsb) == 0) {
+                    values[slot] = value;
+                    keys[slot * 2 + 1] = lsb;
+                    keys[slot * 2] = msb;
+                    size++;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        int countAtLeast(long minimum) {
+            int count = 0;
+            for (int slot = 0; slot < values.length; slot++) {
+                if (values[slot] >= minimum && (keys[slot * 2] | keys[slot * 2 + 1]) != 0) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        Table copy(int capacity, long minimum) {
+            Table copy = new Table(capacity);
+            for (int slot = 0; slot < values.length; slot++) {
+                long keyMsb = keys[slot * 2];
+                long keyLsb = keys[slot * 2 + 1];
+                if ((keyMsb | keyLsb) != 0 && values[slot] >= minimum) {
+                    copy.putMax(keyMsb, keyLsb, values[slot]);
+                }
+            }
+            return copy;
+        }
+
+        private int slot(long msb, long lsb) {
+            long hash = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
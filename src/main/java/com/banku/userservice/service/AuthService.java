@@ -7,6 +7,7 @@ import com.banku.userservice.controller.dto.OAuthLoginRequest;
 import com.banku.userservice.controller.dto.RegisterRequest;
 import com.banku.userservice.exception.UserNotFoundException;
 import com.banku.userservice.repository.UserAggregateRepository;
+import com.banku.userservice.security.AuthRateLimits;
 import com.banku.userservice.security.JwtService;
 import com.banku.userservice.service.oauth.OAuthProvider;
 import com.banku.userservice.service.oauth.OAuthProviderService;
@@ -35,6 +36,7 @@ public class AuthService {
     private final JwtService jwtService;
     private final UserAggregateRepository aggregateRepository;
     private final OAuthProviderService oAuthProviderService;
+    private final AuthRateLimits authRateLimits;
     @Value("${frontend.redirect.url}")
     private String frontendRedirectUrl;
 
@@ -52,6 +54,9 @@ public class AuthService {
     }
 
     public AuthResponse login(LoginRequest request) {
+        // Throttle the account before any hashing or lookup
+        authRateLimits.checkAccount(request.getEmail());
+
         // Authenticate the user
         try {
             authenticationManager.authenticate(
@@ -81,6 +86,7 @@ public class AuthService {
         String token = generateToken(request.getEmail(), aggregate.getId());
 
         aggregateRepository.loginUser(aggregate, true);
+        userService.upgradePasswordHash(aggregate, request.getPassword());
 
         return new AuthResponse(token, aggregate.getId());
     }
@@ -123,7 +129,6 @@ public class AuthService {
 
         String jwtToken = generateToken(user.getEmail(), user.getId());
 
-        user.setVersion(user.getVersion() + 1);
         aggregateRepository.loginUser(user, true);
         
         return new AuthResponse(jwtToken, user.getId());
@@ -138,7 +143,6 @@ public class AuthService {
 
         String jwtToken = generateToken(user.getEmail(), user.getId());
         
-        user.setVersion(user.getVersion() + 1);
         aggregateRepository.loginUser(user, true);
 
         HttpHeaders headers = new HttpHeaders();
@@ -1,100 +1,107 @@
 package com.banku.userservice.service;
 
+import com.banku.userservice.config.KafkaConfig;
 import com.banku.userservice.event.UserEvent;
-import com.banku.userservice.event.UserLoginEvent;
-import com.banku.userservice.event.UserCreatedEvent;
-import com.banku.userservice.event.UserUpdatedEvent;
-import com.banku.userservice.event.UserDeletedEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.banku.userservice.event.codec.EventCodec;
+import com.banku.userservice.event.codec.EventCodecRegistry;
+import com.banku.userservice.projection.UserViewProjector;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class KafkaService {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    public static final String TOPIC = KafkaConfig.USER_EVENTS_TOPIC;
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final EventCodecRegistry eventCodecRegistry;
+    private final UserViewProjector userViewProjector;
+    private final PublishBackpressure publishBackpressure;
+    private final KeyOrderedProcessor keyOrderedProcessor;
+
+    /**
+     * Sends the event keyed by its aggregate id, encoded with the configured {@code event-codec.publish} format.
+     * The returned future completes once the broker acknowledged it.
+     *
+     * @throws com.banku.userservice.exception.PublishBackpressureException if too many records are in flight
+     */
+    public CompletableFuture<SendResult<String, byte[]>> publishEvent(UserEvent event) {
+        EventCodec codec = eventCodecRegistry.forPublishing();
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(TOPIC, event.getAggregateId(), codec.encode(event));
+        record.headers().add(EventCodec.CONTENT_TYPE_HEADER, codec.contentType().getBytes(StandardCharsets.UTF_8));
 
-    public void publishEvent(UserEvent event) {
+        long startNanos = publishBackpressure.acquire();
         try {
-            String message = objectMapper.writeValueAsString(event);
-            kafkaTemplate.send("banku.user", event.getAggregateId(), message)
+            return kafkaTemplate.send(record)
                     .whenComplete((result, ex) -> {
+                        publishBackpressure.release(startNanos, ex == null);
                         if (ex == null) {
                             log.info("Event published successfully: {}", event.getEventType());
                         } else {
                             log.error("Failed to publish event: {}", event.getEventType(), ex);
                         }
                     });
-        } catch (Exception e) {
-            log.error("Error serializing event: {}", event.getEventType(), e);
-            throw new RuntimeException("Error publishing event", e);
+        } catch (RuntimeException e) {
+            publishBackpressure.release(startNanos, false);
+            throw e;
         }
     }
 
-    @KafkaListener(topics = "banku.user", groupId = "${spring.kafka.consumer.group-id}")
-    public void listenEvents(String message) {
+    /**
+     * Record-at-a-time listener, the default ({@code kafka-consumer.mode: record}).
+     */
+    @KafkaListener(id = "userEventsRecordListener", topics = TOPIC, groupId = "${spring.kafka.consumer.group-id}",
+            autoStartup = "#{'${kafka-consumer.mode:record}' == 'record'}")
+    public void listenEvents(ConsumerRecord<String, byte[]> record) {
         try {
-            JsonNode jsonNode = objectMapper.readTree(message);
-            String className = jsonNode.get("@class").asText();
-            
-            UserEvent event;
-            switch (className) {
-                case "com.banku.userservice.event.UserCreatedEvent":
-                    event = objectMapper.readValue(message, UserCreatedEvent.class);
-                    break;
-                case "com.banku.userservice.event.UserUpdatedEvent":
-                    event = objectMapper.readValue(message, UserUpdatedEvent.class);
-                    break;
-                case "com.banku.userservice.event.UserDeletedEvent":
-                    event = objectMapper.readValue(message, UserDeletedEvent.class);
-                    break;
-                case "com.banku.userservice.event.UserLoginEvent":
-                    event = objectMapper.readValue(message, UserLoginEvent.class);
-                    break;
-                default:
-                    log.error("Unknown event type: {}", className);
-                    return;
-            }
-            
-            log.info("Received event: {} for aggregate: {}", event.getEventType(), event.getAggregateId());
+            UserEvent event = decode(record);
+            log.info("Received event: {} v{} for aggregate: {}", event.getEventType(), event.getVersion(), event.getAggregateId());
             processEvent(event);
         } catch (Exception e) {
-            log.error("Error processing event message: {}", message, e);
+            log.error("Error processing event record {} at {}-{}@{}", record.key(), record.topic(), record.partition(), record.offset(), e);
         }
     }
 
-    private void processEvent(UserEvent event) {
-        if (event instanceof UserCreatedEvent) {
-            handleUserCreated((UserCreatedEvent) event);
-        } else if (event instanceof UserUpdatedEvent) {
-            handleUserUpdated((UserUpdatedEvent) event);
-        } else if (event instanceof UserDeletedEvent) {
-            handleUserDeleted((UserDeletedEvent) event);
-        } else if (event instanceof UserLoginEvent) {
-            handleUserLogin((UserLoginEvent) event);
+    /**
+     * Batch listener ({@code kafka-consumer.mode: batch}): receives a whole poll, with one consumer per partition,
+     * and the offsets of the batch are committed once this method returns. Records that cannot be decoded are
+     * logged and skipped, like in record mode. The decoded events are projected on parallel lanes, ordered per
+     * aggregate, and this method waits for all of them, so the commit never covers an unprocessed record.
+     */
+    @KafkaListener(id = "userEventsBatchListener", topics = TOPIC, groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = KafkaConfig.BATCH_LISTENER_CONTAINER_FACTORY,
+            autoStartup = "#{'${kafka-consumer.mode:record}' == 'batch'}")
+    public void listenEventBatch(List<ConsumerRecord<String, byte[]>> records) {
+        List<UserEvent> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, byte[]> record : records) {
+            try {
+                events.add(decode(record));
+            } catch (Exception e) {
+                log.error("Error decoding event record {} at {}-{}@{}", record.key(), record.topic(), record.partition(), record.offset(), e);
+            }
         }
+        log.debug("Received batch of {} events", events.size());
+        keyOrderedProcessor.process(events, UserEvent::getAggregateId, userViewProjector::projectAll);
     }
 
-    private void handleUserCreated(UserCreatedEvent event) {
-        log.info("Processing user created event for user: {}", event.getAggregateId());
-    }
-
-    private void handleUserUpdated(UserUpdatedEvent event) {
-        log.info("Processing user updated event for user: {}", event.getAggregateId());
+    private UserEvent decode(ConsumerRecord<String, byte[]> record) {
+        return eventCodecRegistry.decode(record.headers(), record.value());
     }
 
-    private void handleUserDeleted(UserDeletedEvent event) {
-        log.info("Processing user deleted event for user: {}", event.getAggregateId());
-    }
-
-    private void handleUserLogin(UserLoginEvent event) {
-        log.info("Processing user login event for user: {}", event.getAggregateId());
+    private void processEvent(UserEvent event) {
+        userViewProjector.project(event);
     }
-} 
\ No newline at end of file
+}
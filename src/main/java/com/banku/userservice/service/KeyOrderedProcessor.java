@@ -0,0 +1,126 @@
+package com.banku.userservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * <h3>Processes a batch of records on parallel lanes while keeping the order of each key.</h3>
+ * <p>
+ * Records are assigned to one of {@code kafka-consumer.processing-threads} lanes by the hash of their key,
+ * so all records of one aggregate land on the same lane in their original order, while different aggregates
+ * are handled concurrently. {@link #process} only returns once every lane finished, which lets the batch
+ * listener commit the offsets of the whole batch knowing no record behind them is still being processed.
+ * </p>
+ * <p>
+ * When a lane fails the other lanes still run to completion, then the first failure is rethrown so the
+ * container redelivers the batch; handlers skip the versions they already applied.
+ * </p>
+ */
+@Slf4j
+@Component
+public class KeyOrderedProcessor implements DisposableBean {
+
+    private final int lanes;
+    private final ExecutorService executor;
+    private final Timer batchTimer;
+
+    public KeyOrderedProcessor(
+            MeterRegistry registry,
+            @Value("${kafka-consumer.processing-threads:0}") int processingThreads) {
+        this.lanes = processingThreads > 0 ? processingThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = lanes > 1
+                ? Executors.newFixedThreadPool(lanes, runnable -> {
+                    Thread thread = new Thread(runnable, "kafka-lane-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+        this.batchTimer = Timer.builder("kafka.consumer.batch.processing")
+                .description("Time to process a consumed batch across all lanes")
+                .tag("lanes", String.valueOf(lanes))
+                .register(registry);
+    }
+
+    /**
+     * Splits {@code records} into lanes by {@code key} and hands each non-empty lane, in record order, to
+     * {@code handler}. Blocks until all lanes are done.
+     */
+    public <T> void process(List<T> records, Function<T, String> key, Consumer<List<T>> handler) {
+        if (records.isEmpty()) {
+            return;
+        }
+        batchTimer.record(() -> {
+            if (executor == null || records.size() == 1) {
+                handler.accept(records);
+                return;
+            }
+            List<List<T>> byLane = split(records, key);
+            List<CompletableFuture<Void>> running = new ArrayList<>(lanes);
+            for (List<T> lane : byLane) {
+                if (!lane.isEmpty()) {
+                    running.add(CompletableFuture.runAsync(() -> handler.accept(lane), executor));
+                }
+            }
+            awaitAll(running);
+        });
+    }
+
+    int lanes() {
+        return lanes;
+    }
+
+    int laneOf(String key) {
+        return key == null ? 0 : Math.floorMod(key.hashCode(), lanes);
+    }
+
+    private <T> List<List<T>> split(List<T> records, Function<T, String> key) {
+        List<List<T>> byLane = new ArrayList<>(lanes);
+        for (int i = 0; i < lanes; i++) {
+            byLane.add(new ArrayList<>());
+        }
+        for (T record : records) {
+            byLane.get(laneOf(key.apply(record))).add(record);
+        }
+        return byLane;
+    }
+
+    private static void awaitAll(List<CompletableFuture<Void>> running) {
+        RuntimeException failure = null;
+        for (CompletableFuture<Void> lane : running) {
+            try {
+                lane.join();
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException cause ? cause : e;
+                } else {
+                    log.warn("Another lane of the batch failed too", e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
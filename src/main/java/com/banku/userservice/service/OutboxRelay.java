@@ -0,0 +1,198 @@
+package com.banku.userservice.service;
+
+import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.repository.EventStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <h3>Publishes the events pending in the {@code user_events} outbox to {@code banku.user}.</h3>
+ * <p>
+ * Every {@code outbox.relay.interval-ms} the relay drains pending events, oldest first, in batches of
+ * {@code outbox.relay.batch-size}, and an event is only marked published once the broker acknowledged it.
+ * </p>
+ * <p>
+ * Ordering: the events of one aggregate are sent one at a time in version order, each only once the broker
+ * acknowledged the previous one, while different aggregates are sent concurrently. When a send fails or is not
+ * acknowledged within {@code outbox.relay.send-timeout}, the later events of that aggregate are not sent at all
+ * and stay pending behind it for the next run. So consumers see the first delivery of every version of an
+ * aggregate in version order, whatever the producer's retry and in-flight settings. Delivery is at least
+ * once: a send that timed out may still land and is then sent again, and consumers must ignore versions
+ * they already applied.
+ * </p>
+ * <p>
+ * Only one instance relays at a time: it holds a lease in {@code outbox_lease} that it renews per batch
+ * and that other instances take over once it has not been renewed for {@code outbox.relay.lease}.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay implements MeterBinder {
+
+    static final String LEASE_COLLECTION = "outbox_lease";
+    private static final String LEASE_ID = "user_events";
+
+    private final EventStore eventStore;
+    private final KafkaService kafkaService;
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration leaseDuration;
+    private final String owner = UUID.randomUUID().toString();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public OutboxRelay(
+            EventStore eventStore,
+            KafkaService kafkaService,
+            MongoTemplate mongoTemplate,
+            @Value("${outbox.relay.batch-size:500}") int batchSize,
+            @Value("${outbox.relay.send-timeout:10s}") Duration sendTimeout,
+            @Value("${outbox.relay.lease:30s}") Duration leaseDuration) {
+        this.eventStore = eventStore;
+        this.kafkaService = kafkaService;
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.leaseDuration = leaseDuration;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:200}")
+    public void relay() {
+        try {
+            List<UserEvent> batch;
+            do {
+                if (!acquireLease()) {
+                    return;
+                }
+                batch = eventStore.findPending(batchSize);
+                if (publish(batch) == 0) {
+                    return;
+                }
+            } while (batch.size() == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Outbox relay run failed", e);
+        }
+    }
+
+    /**
+     * Sends the batch and marks the acknowledged events as published. Sends go out in rounds: round {@code n}
+     * sends the {@code n}-th event of every aggregate whose previous events were all acknowledged, and waits
+     * for those acknowledgements before the next round.
+     *
+     * @return the number of events marked published
+     */
+    int publish(List<UserEvent> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Map<String, List<UserEvent>> byAggregate = new LinkedHashMap<>();
+        batch.forEach(event -> byAggregate.computeIfAbsent(event.getAggregateId(), id -> new ArrayList<>()).add(event));
+        byAggregate.values().forEach(events -> events.sort(Comparator.comparingLong(UserEvent::getVersion)));
+
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        List<String> acknowledged = new ArrayList<>(batch.size());
+        List<List<UserEvent>> active = new ArrayList<>(byAggregate.values());
+        for (int round = 0; !active.isEmpty(); round++) {
+            Map<UserEvent, CompletableFuture<?>> sends = new LinkedHashMap<>();
+            for (List<UserEvent> events : active) {
+                UserEvent event = events.get(round);
+                try {
+                    sends.put(event, kafkaService.publishEvent(event));
+                } catch (RuntimeException e) {
+                    sends.put(event, CompletableFuture.failedFuture(e));
+                }
+            }
+
+            List<List<UserEvent>> next = new ArrayList<>(active.size());
+            for (List<UserEvent> events : active) {
+                UserEvent event = events.get(round);
+                try {
+                    sends.get(event).get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                    acknowledged.add(event.getId());
+                    if (events.size() > round + 1) {
+                        next.add(events);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    next.clear();
+                    break;
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    log.warn("Publishing {} v{} of aggregate {} failed, keeping its later events pending",
+                            event.getEventType(), event.getVersion(), event.getAggregateId(), e);
+                }
+            }
+            active = next;
+        }
+
+        eventStore.markPublished(acknowledged);
+        published.addAndGet(acknowledged.size());
+        return acknowledged.size();
+    }
+
+    /**
+     * Takes or renews the relay lease. The upsert only matches a lease this instance owns or one that
+     * expired; otherwise it tries to insert a second lease document and fails on the id.
+     */
+    boolean acquireLease() {
+        Instant now = Instant.now();
+        Query query = new Query(Criteria.where("_id").is(LEASE_ID)
+                .orOperator(Criteria.where("owner").is(owner), Criteria.where("expiresAt").lt(now)));
+        Update update = new Update()
+                .set("owner", owner)
+                .set("expiresAt", now.plus(leaseDuration));
+        try {
+            mongoTemplate.upsert(query, update, LEASE_COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    double lagSeconds() {
+        return eventStore.oldestPendingSince()
+                .map(since -> Math.max(Duration.between(since, Instant.now()).toMillis(), 0) / 1000.0)
+                .orElse(0.0);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("outbox.pending", eventStore, EventStore::countPending)
+                .description("Events stored but not yet published to Kafka")
+                .register(registry);
+        TimeGauge.builder("outbox.lag", this, TimeUnit.SECONDS, OutboxRelay::lagSeconds)
+                .description("Age of the oldest event waiting to be published")
+                .register(registry);
+        FunctionCounter.builder("outbox.published", published, AtomicLong::get)
+                .register(registry);
+        FunctionCounter.builder("outbox.publish.failures", failed, AtomicLong::get)
+                .register(registry);
+    }
+}
@@ -0,0 +1,92 @@
+package com.banku.userservice.service;
+
+import com.banku.userservice.exception.PublishBackpressureException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h3>Caps the number of Kafka records sent but not yet acknowledged.</h3>
+ * <p>
+ * Without a cap a slow broker makes the producer buffer grow until {@code max.block.ms} silently stalls the
+ * caller. Here each send takes a permit that is returned on acknowledgement or failure. When none is left,
+ * {@code block} mode waits up to {@code kafka-producer.block-timeout} and {@code reject} mode fails at once;
+ * both end in a {@link PublishBackpressureException}.
+ * </p>
+ * <p>
+ * Exposes {@code kafka.publish.in-flight}, {@code kafka.publish.latency} (send to acknowledgement, tagged by
+ * outcome) and {@code kafka.publish.rejected}. Producer batch sizes and record queue times are published by
+ * Spring Boot as {@code kafka.producer.*} client metrics.
+ * </p>
+ */
+@Component
+public class PublishBackpressure {
+
+    public enum Mode { BLOCK, REJECT }
+
+    private final int maxInFlight;
+    private final Mode mode;
+    private final Duration blockTimeout;
+    private final Semaphore permits;
+    private final Timer acknowledged;
+    private final Timer failed;
+    private final Counter rejected;
+
+    public PublishBackpressure(
+            MeterRegistry registry,
+            @Value("${kafka-producer.max-in-flight:10000}") int maxInFlight,
+            @Value("${kafka-producer.backpressure:block}") String mode,
+            @Value("${kafka-producer.block-timeout:5s}") Duration blockTimeout) {
+        this.maxInFlight = maxInFlight;
+        this.mode = Mode.valueOf(mode.trim().toUpperCase());
+        this.blockTimeout = blockTimeout;
+        this.permits = new Semaphore(maxInFlight);
+        this.acknowledged = Timer.builder("kafka.publish.latency").tag("outcome", "acknowledged").register(registry);
+        this.failed = Timer.builder("kafka.publish.latency").tag("outcome", "failed").register(registry);
+        this.rejected = Counter.builder("kafka.publish.rejected").register(registry);
+        Gauge.builder("kafka.publish.in-flight", this, PublishBackpressure::inFlight)
+                .description("Records sent to the producer and not yet acknowledged")
+                .register(registry);
+    }
+
+    /**
+     * Takes a permit for one record.
+     *
+     * @return the start time to pass to {@link #release(long, boolean)}
+     * @throws PublishBackpressureException if no permit could be taken
+     */
+    public long acquire() {
+        boolean acquired;
+        if (mode == Mode.REJECT) {
+            acquired = permits.tryAcquire();
+        } else {
+            try {
+                acquired = permits.tryAcquire(blockTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new PublishBackpressureException(maxInFlight);
+        }
+        return System.nanoTime();
+    }
+
+    public void release(long startNanos, boolean success) {
+        permits.release();
+        (success ? acknowledged : failed).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public int inFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+}
@@ -3,14 +3,20 @@ package com.banku.userservice.service;
 import com.banku.userservice.aggregate.UserAggregate;
 import com.banku.userservice.controller.dto.UpdateUserRequest;
 import com.banku.userservice.controller.dto.UserSelfResponse;
+import com.banku.userservice.exception.ConcurrencyConflictException;
 import com.banku.userservice.exception.DuplicateEmailException;
 import com.banku.userservice.exception.InvalidPasswordException;
+import com.banku.userservice.exception.PasswordHashingUnavailableException;
 import com.banku.userservice.exception.UserNotFoundException;
+import com.banku.userservice.projection.UserView;
 import com.banku.userservice.repository.UserAggregateRepository;
+import com.banku.userservice.repository.UserViewStore;
+import com.banku.userservice.security.TokenRevocationStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
+import java.time.Instant;
 import java.util.Optional;
 
 @Service
@@ -18,7 +24,9 @@ import java.util.Optional;
 @Slf4j
 public class UserService {
     private final UserAggregateRepository userAggregateRepository;
+    private final UserViewStore userViewStore;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationStore tokenRevocationStore;
 
     public UserAggregate register(String email, String password) {
         // Check if email already exists
@@ -34,6 +42,7 @@ public class UserService {
                 email,
                 password != null ? passwordEncoder.encode(password) : null
         );
+        aggregate.setVersion(1);
         
         return aggregate;
     }
@@ -54,6 +63,7 @@ public class UserService {
             userAggregate.getProfilePicture(),
             userAggregate.getPreferredLanguage()
         );
+        userAggregate.setVersion(1);
 
         return userAggregate;
     }
@@ -62,7 +72,19 @@ public class UserService {
         return userAggregateRepository.findByEmail(email);
     }
 
+    /**
+     * Reads the {@code user_view} document, which is kept up to date from the event stream, and only
+     * replays the aggregate when the view has not been projected yet.
+     */
     public UserSelfResponse getSelf(String userId) {
+        Optional<UserView> view = userViewStore.findById(userId);
+        if (view.isPresent()) {
+            if (view.get().isDeleted()) {
+                throw new UserNotFoundException("User not found");
+            }
+            return new UserSelfResponse(view.get());
+        }
+
         UserAggregate aggregate = userAggregateRepository.findById(userId);
         if (aggregate == null || aggregate.isDeleted()) {
             throw new UserNotFoundException("User not found");
@@ -88,16 +110,43 @@ public class UserService {
             request.getNewPassword() != null ? passwordEncoder.encode(request.getNewPassword()) : null,
             request.getPreferredLanguage()
         );
+        if (request.getNewPassword() != null) {
+            tokenRevocationStore.revokeIssuedBefore(userId, Instant.now());
+        }
         
         // Return current user info
         return UserSelfResponse.builder()
             .userId(userId)
             .email(Optional.ofNullable(request.getEmail()).orElse(aggregate.getEmail()))
             .preferredLanguage(Optional.ofNullable(request.getPreferredLanguage()).orElse(aggregate.getPreferredLanguage()))
-            .loginHistory(aggregate.getLoginHistory())
+            .lastLoginAt(aggregate.getLastLoginAt())
+            .lastSuccessfulLoginAt(aggregate.getLastSuccessfulLoginAt())
+            .successfulLogins(aggregate.getSuccessfulLogins())
+            .failedLogins(aggregate.getFailedLogins())
             .build();
     }
 
+    /**
+     * Re-encodes a password that was just verified when its stored hash uses an outdated algorithm or cost.
+     * The upgrade is best effort: if the user changed meanwhile or the hashing pool is saturated it is skipped
+     * and retried on a later login, never failing the login that triggered it.
+     */
+    public void upgradePasswordHash(UserAggregate aggregate, String rawPassword) {
+        String storedHash = aggregate.getPassword();
+        if (storedHash == null || rawPassword == null || !passwordEncoder.upgradeEncoding(storedHash)) {
+            return;
+        }
+        try {
+            if (userAggregateRepository.rehashPassword(aggregate.getId(), storedHash, passwordEncoder.encode(rawPassword))) {
+                log.info("Upgraded password hash of user {}", aggregate.getId());
+            }
+        } catch (ConcurrencyConflictException e) {
+            log.debug("User {} changed during password rehash, keeping the current hash", aggregate.getId());
+        } catch (PasswordHashingUnavailableException e) {
+            log.debug("Password hashing unavailable, keeping the current hash of user {}", aggregate.getId());
+        }
+    }
+
     private void validatePassword(String currentPassword, String newPassword, String storedPassword) {
         // If either currentPassword or newPassword is provided, both must be provided
         if ((currentPassword != null && newPassword == null) || (currentPassword == null && newPassword != null)) {
@@ -125,5 +174,6 @@ public class UserService {
         }
         
         userAggregateRepository.deleteUser(userId);
+        tokenRevocationStore.revokeIssuedBefore(userId, Instant.now());
     }
 } 
\ No newline at end of file
@@ -1,6 +1,12 @@
 package com.banku.userservice.service.oauth;
 
 import com.banku.userservice.aggregate.UserAggregate;
+import com.banku.userservice.exception.InvalidOAuthTokenException;
+import com.banku.userservice.exception.OAuthProviderUnavailableException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -9,10 +15,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 import lombok.extern.slf4j.Slf4j;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Component
 @Slf4j
@@ -21,9 +30,8 @@ public class GoogleOAuthProvider implements OAuthProvider {
     private static final String TOKEN_URL = "https://oauth2.googleapis.com/token";
     private static final String USER_INFO_URL = "https://www.googleapis.com/oauth2/v2/userinfo";
     private static final String AUTH_URL = "https://accounts.google.com/o/oauth2/v2/auth";
-
-    @Value("${spring.security.oauth2.client.registration.google.client-id}")
-    private String clientId;
+    private static final String JWK_SET_URL = "https://www.googleapis.com/oauth2/v3/certs";
+    private static final Set<String> ISSUERS = Set.of("https://accounts.google.com", "accounts.google.com");
 
     @Value("${spring.security.oauth2.client.registration.google.client-secret}")
     private String clientSecret;
@@ -31,26 +39,65 @@ public class GoogleOAuthProvider implements OAuthProvider {
     @Value("${spring.security.oauth2.client.registration.google.redirect-uri}")
     private String redirectUri;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Value("${spring.security.oauth2.client.provider.google.token-uri:" + TOKEN_URL + "}")
+    private String tokenUrl;
+
+    @Value("${spring.security.oauth2.client.provider.google.user-info-uri:" + USER_INFO_URL + "}")
+    private String userInfoUrl;
+
+    @Value("${oauth-id-token.enabled:true}")
+    private boolean verifyIdToken;
+
+    private final String clientId;
+    private final RestTemplate restTemplate;
+    /** Thread-safe and built once; key rotation is handled by its {@link JwksKeyCache} resolver. */
+    private final JwtParser idTokenParser;
+
+    public GoogleOAuthProvider(
+            OAuthHttpClients httpClients,
+            @Value("${spring.security.oauth2.client.registration.google.client-id}") String clientId,
+            @Value("${oauth-id-token.clock-skew:60s}") Duration clockSkew,
+            @Value("${spring.security.oauth2.client.provider.google.jwk-set-uri:" + JWK_SET_URL + "}") String jwkSetUrl,
+            @Value("${oauth-id-token.jwks-default-ttl:1h}") Duration jwksDefaultTtl,
+            @Value("${oauth-id-token.jwks-refresh-ahead:5m}") Duration jwksRefreshAhead,
+            @Value("${oauth-id-token.jwks-min-refresh-interval:30s}") Duration jwksMinRefreshInterval) {
+        this.clientId = clientId;
+        this.restTemplate = httpClients.restTemplate(PROVIDER_NAME);
+        this.idTokenParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new JwksKeyCache(restTemplate, jwkSetUrl, jwksDefaultTtl, jwksRefreshAhead, jwksMinRefreshInterval))
+                .requireAudience(clientId)
+                .setAllowedClockSkewSeconds(clockSkew.toSeconds())
+                .build();
+    }
 
     @Override
     public String getProviderName() {
         return PROVIDER_NAME;
     }
 
+    /**
+     * Exchanges the code, then takes the profile from the returned ID token, verified locally against Google's
+     * cached signing keys. Only falls back to the {@code userinfo} endpoint when no ID token came back or
+     * {@code oauth-id-token.enabled} is off.
+     */
     @Override
     public UserAggregate getUserInfo(String code) {
-        String accessToken = getAccessToken(code);
-        return getUserInfoFromGoogle(accessToken);
+        Map<String, Object> tokens = exchangeCode(code);
+        String idToken = (String) tokens.get("id_token");
+        if (verifyIdToken && idToken != null) {
+            Claims claims = verifyIdToken(idToken);
+            return toUser(claims, claims.getSubject());
+        }
+        return getUserInfoFromGoogle((String) tokens.get("access_token"));
     }
 
     @Override
     public String getAuthorizationUrl() {
-        return String.format("%s?client_id=%s&redirect_uri=%s&response_type=code&scope=email profile",
+        return String.format("%s?client_id=%s&redirect_uri=%s&response_type=code&scope=openid email profile",
                 AUTH_URL, clientId, redirectUri);
     }
 
-    private String getAccessToken(String code) {
+    private Map<String, Object> exchangeCode(String code) {
         MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
         params.add("code", code);
         params.add("client_id", clientId);
@@ -62,9 +109,24 @@ public class GoogleOAuthProvider implements OAuthProvider {
         headers.add("Content-Type", "application/x-www-form-urlencoded");
 
         HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(params, headers);
-        ResponseEntity<Map> response = restTemplate.exchange(TOKEN_URL, HttpMethod.POST, request, Map.class);
+        ResponseEntity<Map> response = exchange(tokenUrl, HttpMethod.POST, request);
+
+        return response.getBody();
+    }
 
-        return (String) response.getBody().get("access_token");
+    private Claims verifyIdToken(String idToken) {
+        Claims claims;
+        try {
+            claims = idTokenParser.parseClaimsJws(idToken).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Rejected Google ID token: {}", e.getMessage());
+            throw new InvalidOAuthTokenException("Invalid Google ID token");
+        }
+        if (!ISSUERS.contains(claims.getIssuer())) {
+            log.warn("Rejected Google ID token from issuer {}", claims.getIssuer());
+            throw new InvalidOAuthTokenException("Invalid Google ID token");
+        }
+        return claims;
     }
 
     private UserAggregate getUserInfoFromGoogle(String accessToken) {
@@ -72,18 +134,34 @@ public class GoogleOAuthProvider implements OAuthProvider {
         headers.add("Authorization", "Bearer " + accessToken);
 
         HttpEntity<String> request = new HttpEntity<>(headers);
-        ResponseEntity<Map> response = restTemplate.exchange(USER_INFO_URL, HttpMethod.GET, request, Map.class);
+        ResponseEntity<Map> response = exchange(userInfoUrl, HttpMethod.GET, request);
 
         Map<String, Object> userInfo = response.getBody();
         
+        return toUser(userInfo, (String) userInfo.get("id"));
+    }
+
+    /**
+     * ID token claims and {@code userinfo} share the profile field names, only the Google account id differs.
+     */
+    private UserAggregate toUser(Map<String, Object> profile, String googleId) {
         return UserAggregate.builder()
-                .email((String) userInfo.get("email"))
-                .firstName((String) userInfo.get("given_name"))
-                .lastName((String) userInfo.get("family_name"))
-                .profilePicture((String) userInfo.get("picture"))
+                .email((String) profile.get("email"))
+                .firstName((String) profile.get("given_name"))
+                .lastName((String) profile.get("family_name"))
+                .profilePicture((String) profile.get("picture"))
                 .provider(PROVIDER_NAME)
-                .providerId((String) userInfo.get("id"))
-                .preferredLanguage(Optional.ofNullable((String) userInfo.get("locale")).orElse("en"))
+                .providerId(googleId)
+                .preferredLanguage(Optional.ofNullable((String) profile.get("locale")).orElse("en"))
                 .build();
     }
+
+    private ResponseEntity<Map> exchange(String url, HttpMethod method, HttpEntity<?> request) {
+        try {
+            return restTemplate.exchange(url, method, request, Map.class);
+        } catch (ResourceAccessException e) {
+            log.warn("Google OAuth call to {} failed: {}", url, e.getMessage());
+            throw new OAuthProviderUnavailableException("Google sign-in is not responding, retry later");
+        }
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,199 @@
+package com.banku.userservice.service.oauth;
+
+import com.banku.userservice.exception.OAuthProviderUnavailableException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <h3>An OAuth provider's JSON Web Key Set, cached and refreshed ahead of expiry.</h3>
+ * <p>
+ * Resolves the RSA key an ID token was signed with by its {@code kid}. The set is kept for the
+ * {@code max-age} the provider sends, or {@code defaultTtl} without one. Once within {@code refreshAhead} of
+ * expiry, a lookup still answers from the cached set and triggers one background refresh, so logins do not
+ * wait for the provider. Only the first lookup, or one after the set fully expired, fetches synchronously.
+ * </p>
+ * <p>
+ * An unknown {@code kid} usually means the provider rotated its keys, so it triggers a synchronous refresh,
+ * at most once per {@code minRefreshInterval} so that tokens with made-up key ids cannot hammer the
+ * provider. When a refresh fails the expired set keeps being used until one succeeds.
+ * </p>
+ */
+@Slf4j
+public class JwksKeyCache extends SigningKeyResolverAdapter {
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    private record KeySet(Map<String, PublicKey> byKid, long fetchedAt, long expiresAt) {
+    }
+
+    private final RestTemplate restTemplate;
+    private final String jwkSetUrl;
+    private final long defaultTtlNanos;
+    private final long refreshAheadNanos;
+    private final long minRefreshIntervalNanos;
+    private final Executor refreshExecutor;
+    private final LongSupplier nanoClock;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final AtomicBoolean refreshingAhead = new AtomicBoolean();
+    private volatile KeySet keySet;
+
+    public JwksKeyCache(RestTemplate restTemplate, String jwkSetUrl, Duration defaultTtl, Duration refreshAhead,
+                        Duration minRefreshInterval) {
+        this(restTemplate, jwkSetUrl, defaultTtl, refreshAhead, minRefreshInterval,
+                task -> Thread.ofVirtual().name("jwks-refresh").start(task), System::nanoTime);
+    }
+
+    JwksKeyCache(RestTemplate restTemplate, String jwkSetUrl, Duration defaultTtl, Duration refreshAhead,
+                 Duration minRefreshInterval, Executor refreshExecutor, LongSupplier nanoClock) {
+        this.restTemplate = restTemplate;
+        this.jwkSetUrl = jwkSetUrl;
+        this.defaultTtlNanos = defaultTtl.toNanos();
+        this.refreshAheadNanos = refreshAhead.toNanos();
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+        this.refreshExecutor = refreshExecutor;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        PublicKey key = key(header.getKeyId());
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown signing key id " + header.getKeyId());
+        }
+        return key;
+    }
+
+    /**
+     * The key with id {@code kid}, or {@code null} if the provider does not publish it.
+     *
+     * @throws OAuthProviderUnavailableException if no key set could be fetched yet
+     */
+    PublicKey key(String kid) {
+        long now = nanoClock.getAsLong();
+        KeySet current = keySet;
+        if (current == null || now - current.expiresAt() >= 0) {
+            current = refresh(current);
+        } else if (now - (current.expiresAt() - refreshAheadNanos) >= 0) {
+            refreshAhead(current);
+        }
+        PublicKey key = kid == null ? null : current.byKid().get(kid);
+        if (key == null && kid != null && now - current.fetchedAt() >= minRefreshIntervalNanos) {
+            current = refresh(current);
+            key = current.byKid().get(kid);
+        }
+        return key;
+    }
+
+    private void refreshAhead(KeySet seen) {
+        if (!refreshingAhead.compareAndSet(false, true)) {
+            return;
+        }
+        refreshExecutor.execute(() -> {
+            try {
+                refresh(seen);
+            } catch (RuntimeException e) {
+                log.warn("Background refresh of {} failed", jwkSetUrl, e);
+            } finally {
+                refreshingAhead.set(false);
+            }
+        });
+    }
+
+    /**
+     * Fetches the key set unless another thread replaced {@code seen} meanwhile. On failure falls back to the
+     * previous set, if any.
+     */
+    private KeySet refresh(KeySet seen) {
+        refreshLock.lock();
+        try {
+            KeySet current = keySet;
+            if (current != seen) {
+                return current;
+            }
+            try {
+                KeySet fetched = fetch();
+                keySet = fetched;
+                log.info("Loaded {} signing keys from {}", fetched.byKid().size(), jwkSetUrl);
+                return fetched;
+            } catch (RestClientException e) {
+                if (current == null) {
+                    throw new OAuthProviderUnavailableException("Sign-in keys could not be loaded, retry later");
+                }
+                log.warn("Could not refresh {}, keeping the previous keys: {}", jwkSetUrl, e.getMessage());
+                return current;
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private KeySet fetch() {
+        ResponseEntity<Map> response = restTemplate.getForEntity(jwkSetUrl, Map.class);
+        long fetchedAt = nanoClock.getAsLong();
+        Map<String, PublicKey> byKid = new HashMap<>();
+        Object keys = response.getBody() == null ? null : response.getBody().get("keys");
+        if (keys instanceof List<?> jwks) {
+            for (Object jwk : jwks) {
+                if (jwk instanceof Map<?, ?> fields && fields.get("kid") instanceof String kid) {
+                    PublicKey key = rsaSigningKey(fields);
+                    if (key != null) {
+                        byKid.put(kid, key);
+                    }
+                }
+            }
+        }
+        return new KeySet(Map.copyOf(byKid), fetchedAt, fetchedAt + ttlNanos(response.getHeaders().getCacheControl()));
+    }
+
+    private long ttlNanos(String cacheControl) {
+        if (cacheControl != null) {
+            Matcher maxAge = MAX_AGE.matcher(cacheControl);
+            if (maxAge.find()) {
+                return Duration.ofSeconds(Long.parseLong(maxAge.group(1))).toNanos();
+            }
+        }
+        return defaultTtlNanos;
+    }
+
+    /**
+     * The RSA signature key described by {@code jwk}, or {@code null} for other or malformed keys.
+     */
+    private PublicKey rsaSigningKey(Map<?, ?> jwk) {
+        if (!"RSA".equals(jwk.get("kty")) || (jwk.get("use") != null && !"sig".equals(jwk.get("use")))
+                || !(jwk.get("n") instanceof String modulus) || !(jwk.get("e") instanceof String exponent)) {
+            return null;
+        }
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            return KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(
+                    new BigInteger(1, decoder.decode(modulus)), new BigInteger(1, decoder.decode(exponent))));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            log.warn("Skipping malformed key {} from {}", jwk.get("kid"), jwkSetUrl);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.banku.userservice.service.oauth;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * <h3>Pooled, time-bounded HTTP clients for the {@link OAuthProvider}s.</h3>
+ * <p>
+ * Each provider gets its own Apache HttpClient connection pool, so a slow provider can only exhaust its own
+ * connections. Keep-alive connections are reused across logins and closed after {@code idle-timeout}. Every
+ * call is bounded three ways: {@code connect-timeout} to open a connection, {@code response-timeout} between
+ * bytes of the response, and {@code pool-timeout} to wait for a free connection once {@code max-connections}
+ * are in use. Any of them failing surfaces as a {@link org.springframework.web.client.ResourceAccessException}.
+ * </p>
+ * <p>
+ * Settings under {@code oauth-http.*} apply to every provider and can be overridden per provider under
+ * {@code oauth-http.<provider>.*}. Metrics: {@code oauth.http.requests} (by {@code provider} and
+ * {@code status}), and {@code oauth.http.pool.leased}, {@code .pending}, {@code .available} and {@code .max}
+ * by {@code provider}.
+ * </p>
+ */
+@Slf4j
+@Component
+public class OAuthHttpClients implements DisposableBean {
+
+    record Settings(Duration connectTimeout, Duration responseTimeout, Duration poolTimeout,
+                    int maxConnections, Duration idleTimeout) {
+    }
+
+    private final MeterRegistry registry;
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final Environment environment;
+    private final Settings defaults;
+    private final Map<String, CloseableHttpClient> clients = new ConcurrentHashMap<>();
+
+    public OAuthHttpClients(
+            MeterRegistry registry,
+            RestTemplateBuilder restTemplateBuilder,
+            Environment environment,
+            @Value("${oauth-http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${oauth-http.response-timeout:5s}") Duration responseTimeout,
+            @Value("${oauth-http.pool-timeout:1s}") Duration poolTimeout,
+            @Value("${oauth-http.max-connections:20}") int maxConnections,
+            @Value("${oauth-http.idle-timeout:30s}") Duration idleTimeout) {
+        this.registry = registry;
+        this.restTemplateBuilder = restTemplateBuilder;
+        this.environment = environment;
+        this.defaults = new Settings(connectTimeout, responseTimeout, poolTimeout, maxConnections, idleTimeout);
+    }
+
+    /**
+     * A {@link RestTemplate} on the pool of {@code provider}, created on first use.
+     */
+    public RestTemplate restTemplate(String provider) {
+        CloseableHttpClient client = clients.computeIfAbsent(provider, this::createClient);
+        return restTemplateBuilder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(client))
+                .additionalInterceptors(timed(provider))
+                .build();
+    }
+
+    Settings settings(String provider) {
+        String prefix = "oauth-http." + provider + ".";
+        return new Settings(
+                environment.getProperty(prefix + "connect-timeout", Duration.class, defaults.connectTimeout()),
+                environment.getProperty(prefix + "response-timeout", Duration.class, defaults.responseTimeout()),
+                environment.getProperty(prefix + "pool-timeout", Duration.class, defaults.poolTimeout()),
+                environment.getProperty(prefix + "max-connections", Integer.class, defaults.maxConnections()),
+                environment.getProperty(prefix + "idle-timeout", Duration.class, defaults.idleTimeout()));
+    }
+
+    private CloseableHttpClient createClient(String provider) {
+        Settings settings = settings(provider);
+        // OAuth calls go to a couple of hosts per provider, so the whole pool may be used by one route
+        PoolingHttpClientConnectionManager pool = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(settings.maxConnections())
+                .setMaxConnPerRoute(settings.maxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(timeout(settings.connectTimeout()))
+                        .setSocketTimeout(timeout(settings.responseTimeout()))
+                        .build())
+                .build();
+        registerPoolGauge("oauth.http.pool.leased", provider, pool, PoolStats::getLeased);
+        registerPoolGauge("oauth.http.pool.pending", provider, pool, PoolStats::getPending);
+        registerPoolGauge("oauth.http.pool.available", provider, pool, PoolStats::getAvailable);
+        registerPoolGauge("oauth.http.pool.max", provider, pool, PoolStats::getMax);
+        log.info("OAuth HTTP client for {}: {} connections, timeouts connect {} response {} pool {}",
+                provider, settings.maxConnections(), settings.connectTimeout(), settings.responseTimeout(), settings.poolTimeout());
+        return HttpClients.custom()
+                .setConnectionManager(pool)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(timeout(settings.poolTimeout()))
+                        .setResponseTimeout(timeout(settings.responseTimeout()))
+                        .build())
+                .evictIdleConnections(TimeValue.ofMilliseconds(settings.idleTimeout().toMillis()))
+                .build();
+    }
+
+    private void registerPoolGauge(String name, String provider, PoolingHttpClientConnectionManager pool,
+                                   ToDoubleFunction<PoolStats> stat) {
+        Gauge.builder(name, pool, p -> stat.applyAsDouble(p.getTotalStats()))
+                .tag("provider", provider)
+                .register(registry);
+    }
+
+    private ClientHttpRequestInterceptor timed(String provider) {
+        return (request, body, execution) -> {
+            Timer.Sample sample = Timer.start(registry);
+            String status = "IO_ERROR";
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                status = String.valueOf(response.getStatusCode().value());
+                return response;
+            } finally {
+                sample.stop(Timer.builder("oauth.http.requests")
+                        .description("Calls to OAuth providers")
+                        .tag("provider", provider)
+                        .tag("status", status)
+                        .register(registry));
+            }
+        };
+    }
+
+    private static Timeout timeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+
+    @Override
+    public void destroy() {
+        clients.values().forEach(client -> client.close(CloseMode.GRACEFUL));
+    }
+}
@@ -0,0 +1,46 @@
+package com.banku.userservice.reactive;
+
+import com.banku.userservice.security.JwtService;
+import com.banku.userservice.security.TokenPrincipal;
+import com.banku.userservice.security.VerifiedClaims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@code JwtAuthFilter} in {@code claims} mode: the bearer token is verified through
+ * {@link JwtService#verify} (cached and checked against revocations, all in memory) and its claims become a
+ * {@link TokenPrincipal} in the reactive security context, without loading the user.
+ */
+@RequiredArgsConstructor
+public class BearerTokenWebFilter implements WebFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtService jwtService;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            return chain.filter(exchange);
+        }
+        return jwtService.verify(header.substring(BEARER_PREFIX.length()))
+                .filter(claims -> claims.getUserId() != null)
+                .map(claims -> chain.filter(exchange)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication(claims))))
+                .orElseGet(() -> chain.filter(exchange));
+    }
+
+    private static UsernamePasswordAuthenticationToken authentication(VerifiedClaims claims) {
+        TokenPrincipal principal = new TokenPrincipal(claims.getUserId(), claims.getSubject());
+        return UsernamePasswordAuthenticationToken.authenticated(principal, null, List.of());
+    }
+}
@@ -0,0 +1,62 @@
+package com.banku.userservice.reactive;
+
+import com.banku.userservice.exception.TooManyRequestsException;
+import com.banku.userservice.security.AuthRateLimits;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Non-blocking counterpart of {@code RateLimitFilter}: rejects throttled authentication endpoints with a
+ * {@code 429} once the client address used up its attempts.
+ */
+@RequiredArgsConstructor
+public class ClientRateLimitWebFilter implements WebFilter {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final AuthRateLimits authRateLimits;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        if (!authRateLimits.limitsClientsOf(path)) {
+            return chain.filter(exchange);
+        }
+        try {
+            authRateLimits.checkClient(path, clientAddress(exchange));
+        } catch (TooManyRequestsException e) {
+            return reject(exchange.getResponse(), e);
+        }
+        return chain.filter(exchange);
+    }
+
+    private static String clientAddress(ServerWebExchange exchange) {
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        if (remote == null) {
+            return "unknown";
+        }
+        return remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+    }
+
+    private static Mono<Void> reject(ServerHttpResponse response, TooManyRequestsException e) {
+        response.setStatusCode(e.getHttpStatus());
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        try {
+            byte[] body = OBJECT_MAPPER.writeValueAsBytes(e.toResponse().getBody());
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        } catch (JsonProcessingException jsonError) {
+            return response.setComplete();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.banku.userservice.reactive;
+
+import com.banku.userservice.controller.dto.LoginRequest;
+import com.banku.userservice.controller.dto.RegisterRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@code /api/v1/auth} endpoints of {@code AuthController} (register, login, refresh) as functional handlers.
+ */
+@RequiredArgsConstructor
+public class ReactiveAuthHandler {
+
+    private final ReactiveUserService userService;
+
+    public Mono<ServerResponse> register(ServerRequest request) {
+        return request.bodyToMono(RegisterRequest.class)
+                .flatMap(userService::register)
+                .flatMap(response -> ServerResponse.ok().bodyValue(response));
+    }
+
+    public Mono<ServerResponse> login(ServerRequest request) {
+        return request.bodyToMono(LoginRequest.class)
+                .flatMap(userService::login)
+                .flatMap(response -> ServerResponse.ok().bodyValue(response));
+    }
+
+    public Mono<ServerResponse> refresh(ServerRequest request) {
+        String token = request.headers().firstHeader(HttpHeaders.AUTHORIZATION);
+        if (token == null) {
+            return ServerResponse.badRequest().build();
+        }
+        return userService.refresh(token)
+                .flatMap(response -> ServerResponse.ok().bodyValue(response));
+    }
+}
@@ -0,0 +1,44 @@
+package com.banku.userservice.reactive;
+
+import com.banku.userservice.security.AuthRateLimits;
+import com.banku.userservice.security.JwtService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+/**
+ * Stateless security of the reactive user API, mirroring {@code SecurityConfig}: authentication endpoints are
+ * open and throttled per client address, everything else needs a valid bearer token.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtService jwtService,
+                                                         AuthRateLimits authRateLimits) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .exceptionHandling(exceptions -> exceptions
+                    .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .authorizeExchange(exchanges -> exchanges
+                    .pathMatchers("/api/v1/auth/login", "/api/v1/auth/register").permitAll()
+                    .anyExchange().authenticated()
+                )
+                .addFilterAt(new ClientRateLimitWebFilter(authRateLimits), SecurityWebFiltersOrder.FIRST)
+                .addFilterAt(new BearerTokenWebFilter(jwtService), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.banku.userservice.reactive;
+
+import com.banku.userservice.exception.ApiException;
+import com.banku.userservice.security.AuthRateLimits;
+import com.banku.userservice.security.JwtService;
+import com.banku.userservice.security.PasswordHashingService;
+import com.banku.userservice.security.TokenRevocationStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Routes of the reactive user API. Only active in a reactive web application, so the servlet application,
+ * which scans this package too when built with {@code -Preactive}, ignores it.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserApiConfig {
+
+    /**
+     * Serves on Reactor Netty's event loop. Declared explicitly because Spring Boot would otherwise pick Tomcat,
+     * which the servlet starter keeps on the classpath.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory reactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public ReactiveUserEventStore reactiveUserEventStore(ReactiveMongoTemplate reactiveMongoTemplate,
+            @Value("${email-index.completion-check-interval:5s}") Duration completionCheckInterval) {
+        return new ReactiveUserEventStore(reactiveMongoTemplate, completionCheckInterval);
+    }
+
+    @Bean
+    public ReactiveUserService reactiveUserService(ReactiveUserEventStore eventStore, PasswordHashingService passwordEncoder,
+                                                   JwtService jwtService, TokenRevocationStore tokenRevocationStore,
+                                                   AuthRateLimits authRateLimits) {
+        return new ReactiveUserService(eventStore, passwordEncoder, jwtService, tokenRevocationStore, authRateLimits);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> userApiRoutes(ReactiveUserService userService) {
+        ReactiveAuthHandler auth = new ReactiveAuthHandler(userService);
+        ReactiveUserHandler users = new ReactiveUserHandler(userService);
+        return RouterFunctions.route()
+                .POST("/api/v1/auth/register", auth::register)
+                .POST("/api/v1/auth/login", auth::login)
+                .POST("/api/v1/auth/refresh", auth::refresh)
+                .GET("/api/v1/users/self", users::getSelf)
+                .PUT("/api/v1/users/self", users::updateUser)
+                .DELETE("/api/v1/users/self", users::deleteUser)
+                .onError(ApiException.class, (error, request) -> toResponse((ApiException) error))
+                .build();
+    }
+
+    /**
+     * Same status, headers and body as {@code GlobalExceptionHandler} gives the servlet API.
+     */
+    static Mono<ServerResponse> toResponse(ApiException error) {
+        ResponseEntity<Map<String, Object>> response = error.toResponse();
+        return ServerResponse.status(response.getStatusCode())
+                .headers(headers -> headers.addAll(response.getHeaders()))
+                .bodyValue(response.getBody());
+    }
+}
@@ -0,0 +1,193 @@
+package com.banku.userservice.reactive;
+
+import com.banku.userservice.aggregate.UserAggregate;
+import com.banku.userservice.aggregate.UserSnapshot;
+import com.banku.userservice.event.UserCreatedEvent;
+import com.banku.userservice.event.UserDeletedEvent;
+import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.event.UserEventHandler;
+import com.banku.userservice.event.UserEventType;
+import com.banku.userservice.event.UserUpdatedEvent;
+import com.banku.userservice.exception.ConcurrencyConflictException;
+import com.banku.userservice.projection.EmailIndexEntry;
+import com.banku.userservice.projection.EmailIndexProjection;
+import com.banku.userservice.projection.RebuildCheckpoint;
+import com.banku.userservice.projection.UserView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <h3>Non-blocking access to {@code user_events} and the collections derived from it.</h3>
+ * <p>
+ * Works on the same documents as {@code UserAggregateRepository}: an aggregate is its latest current-schema
+ * snapshot folded with the events after it, streamed from the cursor in version order; appends insert version
+ * {@code expectedVersion + 1} with the outbox marker and rely on the unique {@code (aggregateId, version)} index
+ * for optimistic concurrency; emails resolve through {@code user_email_index}, or {@code user_events} while that
+ * index is being built. Snapshots are only read here, the
+ * blocking repository keeps writing them.
+ * </p>
+ */
+@RequiredArgsConstructor
+public class ReactiveUserEventStore {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final Duration completionCheckInterval;
+    private volatile boolean emailIndexComplete;
+    private volatile long nextCompletionCheckNanos = System.nanoTime();
+
+    /**
+     * Emits the aggregate, or nothing when it has no events.
+     */
+    public Mono<UserAggregate> findById(String id) {
+        return mongoTemplate.findById(id, UserSnapshot.class)
+                .filter(UserSnapshot::hasCurrentSchema)
+                .map(UserSnapshot::toAggregate)
+                .switchIfEmpty(Mono.fromSupplier(() -> emptyAggregate(id)))
+                .flatMap(start -> events(id, start.getVersion()).reduce(start, (aggregate, event) -> {
+                    aggregate.apply(event);
+                    return aggregate;
+                }))
+                .filter(aggregate -> aggregate.getVersion() > 0);
+    }
+
+    /**
+     * Emits the aggregate currently registered under {@code email}, deleted or not.
+     */
+    public Mono<UserAggregate> findByEmail(String email) {
+        if (email == null) {
+            return Mono.empty();
+        }
+        return mongoTemplate.findById(email, EmailIndexEntry.class)
+                .map(EmailIndexEntry::getAggregateId)
+                .switchIfEmpty(Mono.defer(() -> aggregateIdFromEvents(email)))
+                .flatMap(this::findById)
+                .filter(aggregate -> email.equals(aggregate.getEmail()));
+    }
+
+    /**
+     * Resolves an email missing from {@code user_email_index} with an indexed query on {@code user_events}, as long as
+     * a servlet instance is still building the index.
+     */
+    private Mono<String> aggregateIdFromEvents(String email) {
+        return emailIndexComplete().flatMap(complete -> {
+            if (complete) {
+                return Mono.empty();
+            }
+            Query query = Query.query(Criteria.where("email").is(email))
+                    .with(Sort.by(Sort.Direction.DESC, "timestamp"))
+                    .limit(1);
+            return mongoTemplate.findOne(query, UserEvent.class).map(UserEvent::getAggregateId);
+        });
+    }
+
+    /**
+     * Whether a miss in the index can be trusted. Checked against the store at most once per
+     * {@code email-index.completion-check-interval}, like {@code EmailIndexProjection} does.
+     */
+    private Mono<Boolean> emailIndexComplete() {
+        if (emailIndexComplete) {
+            return Mono.just(true);
+        }
+        long now = System.nanoTime();
+        if (now - nextCompletionCheckNanos < 0) {
+            return Mono.just(false);
+        }
+        nextCompletionCheckNanos = now + completionCheckInterval.toNanos();
+        Query unfinished = Query.query(Criteria.where("projection").is(EmailIndexProjection.NAME).and("completed").is(false));
+        return Mono.zip(
+                        mongoTemplate.exists(unfinished, RebuildCheckpoint.class),
+                        mongoTemplate.exists(new Query(), EmailIndexEntry.class),
+                        mongoTemplate.exists(new Query(), UserEvent.class))
+                .map(state -> !state.getT1() && (state.getT2() || !state.getT3()))
+                .doOnNext(complete -> emailIndexComplete = complete);
+    }
+
+    public Mono<UserView> findView(String id) {
+        return mongoTemplate.findById(id, UserView.class);
+    }
+
+    /**
+     * The events of one aggregate with a version greater than {@code afterVersion}, in version order.
+     */
+    public Flux<UserEvent> events(String aggregateId, long afterVersion) {
+        Query query = Query.query(Criteria.where("aggregateId").is(aggregateId).and("version").gt(afterVersion))
+                .with(Sort.by(Sort.Direction.ASC, "version"));
+        return mongoTemplate.find(query, UserEvent.class);
+    }
+
+    /**
+     * Appends the event as version {@code expectedVersion + 1}, pending publication by the outbox relay, and
+     * keeps the email index in step with it.
+     *
+     * @param previousEmail the aggregate's email before this event, {@code null} for a creation
+     * @return the stored event, or a {@link ConcurrencyConflictException} if that version already exists
+     */
+    public Mono<UserEvent> append(UserEvent event, long expectedVersion, String previousEmail) {
+        event.setVersion(expectedVersion + 1);
+        event.setPendingSince(Instant.now());
+        return mongoTemplate.insert(event)
+                .onErrorMap(DuplicateKeyException.class,
+                        e -> new ConcurrencyConflictException(event.getAggregateId(), expectedVersion, e))
+                .flatMap(stored -> indexEmail(stored, previousEmail).thenReturn(stored));
+    }
+
+    private Mono<Void> indexEmail(UserEvent event, String previousEmail) {
+        List<Mono<Void>> writes = new ArrayList<>(1);
+        UserEventType.dispatch(event, emailIndexing(previousEmail, writes));
+        return Flux.concat(writes).then();
+    }
+
+    /**
+     * Collects in {@code writes} the {@code user_email_index} changes of an event, given the aggregate's email
+     * before it.
+     */
+    private UserEventHandler emailIndexing(String previousEmail, List<Mono<Void>> writes) {
+        return new UserEventHandler() {
+            @Override
+            public void onCreated(UserCreatedEvent event) {
+                writes.add(saveEntry(event.getEmail(), event.getAggregateId(), event.getVersion(), false));
+            }
+
+            @Override
+            public void onUpdated(UserUpdatedEvent event) {
+                String email = event.getEmail();
+                if (email == null || email.equals(previousEmail)) {
+                    return;
+                }
+                Mono<Void> removePrevious = previousEmail == null
+                        ? Mono.empty()
+                        : mongoTemplate.remove(Query.query(Criteria.where("_id").is(previousEmail)), EmailIndexEntry.class).then();
+                writes.add(removePrevious.then(saveEntry(email, event.getAggregateId(), event.getVersion(), false)));
+            }
+
+            @Override
+            public void onDeleted(UserDeletedEvent event) {
+                writes.add(saveEntry(previousEmail, event.getAggregateId(), event.getVersion(), true));
+            }
+        };
+    }
+
+    private Mono<Void> saveEntry(String email, String aggregateId, long version, boolean deleted) {
+        if (email == null) {
+            return Mono.empty();
+        }
+        return mongoTemplate.save(new EmailIndexEntry(email, aggregateId, version, deleted)).then();
+    }
+
+    private static UserAggregate emptyAggregate(String id) {
+        UserAggregate aggregate = new UserAggregate();
+        aggregate.setId(id);
+        return aggregate;
+    }
+}
@@ -0,0 +1,47 @@
+package com.banku.userservice.reactive;
+
+import com.banku.userservice.controller.dto.UpdateUserRequest;
+import com.banku.userservice.exception.UnauthorizedAccessException;
+import com.banku.userservice.security.TokenPrincipal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@code /api/v1/users/self} endpoints of {@code UserController} as functional handlers, for the user of the
+ * bearer token.
+ */
+@RequiredArgsConstructor
+public class ReactiveUserHandler {
+
+    private final ReactiveUserService userService;
+
+    public Mono<ServerResponse> getSelf(ServerRequest request) {
+        return currentUserId()
+                .flatMap(userService::getSelf)
+                .flatMap(response -> ServerResponse.ok().bodyValue(response));
+    }
+
+    public Mono<ServerResponse> updateUser(ServerRequest request) {
+        return currentUserId()
+                .flatMap(userId -> request.bodyToMono(UpdateUserRequest.class)
+                        .flatMap(update -> userService.updateUser(userId, update)))
+                .then(ServerResponse.noContent().build());
+    }
+
+    public Mono<ServerResponse> deleteUser(ServerRequest request) {
+        return currentUserId()
+                .flatMap(userService::deleteUser)
+                .then(ServerResponse.noContent().build());
+    }
+
+    private static Mono<String> currentUserId() {
+        return ReactiveSecurityContextHolder.getContext()
+                .mapNotNull(context -> context.getAuthentication() != null ? context.getAuthentication().getPrincipal() : null)
+                .ofType(TokenPrincipal.class)
+                .map(TokenPrincipal::getUserId)
+                .switchIfEmpty(Mono.error(() -> new UnauthorizedAccessException("User not authenticated")));
+    }
+}
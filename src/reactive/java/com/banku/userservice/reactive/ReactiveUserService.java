@@ -0,0 +1,209 @@
+package com.banku.userservice.reactive;
+
+import com.banku.userservice.aggregate.UserAggregate;
+import com.banku.userservice.controller.dto.AuthResponse;
+import com.banku.userservice.controller.dto.LoginRequest;
+import com.banku.userservice.controller.dto.RegisterRequest;
+import com.banku.userservice.controller.dto.UpdateUserRequest;
+import com.banku.userservice.controller.dto.UserSelfResponse;
+import com.banku.userservice.event.UserCreatedEvent;
+import com.banku.userservice.event.UserDeletedEvent;
+import com.banku.userservice.event.UserLoginEvent;
+import com.banku.userservice.event.UserUpdatedEvent;
+import com.banku.userservice.exception.ConcurrencyConflictException;
+import com.banku.userservice.exception.DuplicateEmailException;
+import com.banku.userservice.exception.InvalidPasswordException;
+import com.banku.userservice.exception.PasswordHashingUnavailableException;
+import com.banku.userservice.exception.UserNotFoundException;
+import com.banku.userservice.security.AuthRateLimits;
+import com.banku.userservice.security.JwtService;
+import com.banku.userservice.security.PasswordHashingService;
+import com.banku.userservice.security.TokenRevocationStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * <h3>The user and authentication use cases of {@code UserService} and {@code AuthService}, without blocking.</h3>
+ * <p>
+ * Reads and appends go through {@link ReactiveUserEventStore}; password hashes run on the
+ * {@link PasswordHashingService} pool and are awaited as futures, so event-loop threads only ever do
+ * token signing and verification, which are short and CPU-bound. Responses and errors are the same as the
+ * servlet API's.
+ * </p>
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ReactiveUserService {
+
+    private static final int MAX_LOGIN_APPEND_ATTEMPTS = 3;
+
+    private final ReactiveUserEventStore eventStore;
+    private final PasswordHashingService passwordEncoder;
+    private final JwtService jwtService;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final AuthRateLimits authRateLimits;
+
+    public Mono<AuthResponse> register(RegisterRequest request) {
+        return eventStore.findByEmail(request.getEmail()).hasElement().flatMap(exists -> {
+            if (exists) {
+                return Mono.error(new DuplicateEmailException("Email already exists"));
+            }
+            String userId = new UserAggregate().getId();
+            return Mono.fromFuture(() -> passwordEncoder.encodeAsync(request.getPassword()))
+                    .flatMap(hash -> {
+                        UserCreatedEvent event = new UserCreatedEvent(userId, request.getEmail(), hash);
+                        event.setPreferredLanguage("en");
+                        return eventStore.append(event, 0, null);
+                    })
+                    .map(event -> new AuthResponse(generateToken(request.getEmail(), userId), userId));
+        });
+    }
+
+    /**
+     * Throttles the account first, then checks the password like the servlet {@code DaoAuthenticationProvider}:
+     * deleted users are locked, and every failure is recorded as an unsuccessful login.
+     */
+    public Mono<AuthResponse> login(LoginRequest request) {
+        return Mono.fromRunnable(() -> authRateLimits.checkAccount(request.getEmail()))
+                .then(eventStore.findByEmail(request.getEmail()))
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException("User not found")))
+                .flatMap(user -> {
+                    if (user.isDeleted()) {
+                        return recordLogin(user, false).then(Mono.error(new UserNotFoundException("User is locked")));
+                    }
+                    if (user.getPassword() == null || request.getPassword() == null) {
+                        return recordLogin(user, false).then(Mono.error(new UserNotFoundException("User not found")));
+                    }
+                    return Mono.fromFuture(() -> passwordEncoder.matchesAsync(request.getPassword(), user.getPassword()))
+                            .flatMap(matches -> matches
+                                    ? recordLogin(user, true)
+                                        .then(upgradePasswordHash(user, request.getPassword()))
+                                        .then(Mono.fromSupplier(() -> new AuthResponse(generateToken(user.getEmail(), user.getId()), user.getId())))
+                                    : recordLogin(user, false).then(Mono.error(new UserNotFoundException("User not found"))));
+                });
+    }
+
+    public Mono<AuthResponse> refresh(String token) {
+        String bearer = token.startsWith("Bearer ") ? token.substring(7) : token;
+        return Mono.fromSupplier(() -> jwtService.extractUsername(bearer))
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException("Invalid token")))
+                .flatMap(username -> eventStore.findByEmail(username)
+                        .switchIfEmpty(Mono.error(() -> new UserNotFoundException("User not found")))
+                        .map(user -> new AuthResponse(generateToken(username, user.getId()), user.getId())));
+    }
+
+    /**
+     * Serves {@code user_view} when it has been projected, the replayed aggregate otherwise.
+     */
+    public Mono<UserSelfResponse> getSelf(String userId) {
+        return eventStore.findView(userId)
+                .flatMap(view -> view.isDeleted()
+                        ? Mono.<UserSelfResponse>error(new UserNotFoundException("User not found"))
+                        : Mono.just(new UserSelfResponse(view)))
+                .switchIfEmpty(Mono.defer(() -> findActive(userId).map(UserSelfResponse::new)));
+    }
+
+    public Mono<Void> updateUser(String userId, UpdateUserRequest request) {
+        String currentPassword = request.getCurrentPassword();
+        String newPassword = request.getNewPassword();
+        if ((currentPassword == null) != (newPassword == null)) {
+            return Mono.error(new InvalidPasswordException("Both current and new passwords must be provided together"));
+        }
+        return findActive(userId).flatMap(user -> {
+            Mono<String> newHash = Mono.empty();
+            if (newPassword != null) {
+                newHash = Mono.fromFuture(() -> passwordEncoder.matchesAsync(currentPassword, user.getPassword()))
+                        .flatMap(matches -> {
+                            if (!matches) {
+                                return Mono.error(new InvalidPasswordException("Invalid current password"));
+                            }
+                            if (currentPassword.equals(newPassword)) {
+                                return Mono.error(new InvalidPasswordException("New password cannot be the same as current password"));
+                            }
+                            return Mono.fromFuture(() -> passwordEncoder.encodeAsync(newPassword));
+                        });
+            }
+            return newHash.map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(hash -> {
+                        UserUpdatedEvent event = new UserUpdatedEvent(userId, request.getEmail(), hash.orElse(null), request.getPreferredLanguage());
+                        event.setCreatedBy(userId);
+                        return eventStore.append(event, user.getVersion(), user.getEmail());
+                    })
+                    .doOnNext(event -> {
+                        if (newPassword != null) {
+                            tokenRevocationStore.revokeIssuedBefore(userId, Instant.now());
+                        }
+                    })
+                    .then();
+        });
+    }
+
+    public Mono<Void> deleteUser(String userId) {
+        return eventStore.findById(userId)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException("User not found")))
+                .flatMap(user -> {
+                    UserDeletedEvent event = new UserDeletedEvent(userId);
+                    event.setCreatedBy(userId);
+                    return eventStore.append(event, user.getVersion(), user.getEmail());
+                })
+                .doOnNext(event -> tokenRevocationStore.revokeIssuedBefore(userId, Instant.now()))
+                .then();
+    }
+
+    private Mono<UserAggregate> findActive(String userId) {
+        return eventStore.findById(userId)
+                .filter(user -> !user.isDeleted())
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException("User not found")));
+    }
+
+    /**
+     * A login event does not depend on the aggregate state, so on a version conflict it is retried against the
+     * reloaded aggregate.
+     */
+    private Mono<Void> recordLogin(UserAggregate user, boolean successful) {
+        return appendLogin(user.getId(), user.getVersion(), successful, 1);
+    }
+
+    private Mono<Void> appendLogin(String userId, long expectedVersion, boolean successful, int attempt) {
+        return eventStore.append(new UserLoginEvent(userId, successful), expectedVersion, null)
+                .then()
+                .onErrorResume(ConcurrencyConflictException.class, e -> attempt >= MAX_LOGIN_APPEND_ATTEMPTS
+                        ? Mono.error(e)
+                        : eventStore.findById(userId)
+                            .switchIfEmpty(Mono.error(e))
+                            .flatMap(current -> appendLogin(userId, current.getVersion(), successful, attempt + 1)));
+    }
+
+    /**
+     * Best effort, like {@code UserService.upgradePasswordHash}: skipped when the user changed meanwhile or the
+     * hashing pool is saturated, and retried on a later login.
+     */
+    private Mono<Void> upgradePasswordHash(UserAggregate user, String rawPassword) {
+        String storedHash = user.getPassword();
+        if (!passwordEncoder.upgradeEncoding(storedHash)) {
+            return Mono.empty();
+        }
+        return Mono.fromFuture(() -> passwordEncoder.encodeAsync(rawPassword))
+                .flatMap(newHash -> eventStore.findById(user.getId())
+                        .filter(current -> !current.isDeleted() && storedHash.equals(current.getPassword()))
+                        .flatMap(current -> {
+                            UserUpdatedEvent event = new UserUpdatedEvent(user.getId(), null, newHash);
+                            event.setPasswordRehash(true);
+                            return eventStore.append(event, current.getVersion(), current.getEmail());
+                        }))
+                .doOnNext(event -> log.info("Upgraded password hash of user {}", user.getId()))
+                .then()
+                .onErrorResume(e -> e instanceof ConcurrencyConflictException || e instanceof PasswordHashingUnavailableException,
+                        e -> Mono.empty());
+    }
+
+    private String generateToken(String email, String userId) {
+        return jwtService.generateToken(email, Map.of("userId", userId));
+    }
+}
@@ -0,0 +1,40 @@
+package com.banku.userservice.reactive;
+
+import com.banku.userservice.config.BroadcastListenerSupport;
+import com.banku.userservice.event.codec.EventCodecRegistry;
+import com.banku.userservice.security.CredentialsConfig;
+import com.banku.userservice.security.JwtService;
+import com.banku.userservice.security.TokenRevocationListener;
+import com.banku.userservice.security.TokenRevocationStore;
+import com.banku.userservice.security.VerifiedTokenCache;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * <h3>Non-blocking variant of the user API on WebFlux and the reactive MongoDB driver.</h3>
+ * <p>
+ * Built with {@code -Preactive} from {@code src/reactive/java} and started in place of
+ * {@code UserServiceApplication}. It shares the aggregate, event and security code of the servlet service and
+ * its {@code user_events}, {@code user_email_index} and {@code user_view} collections, and learns about token
+ * revocations from {@code banku.user} the same way. Appended events are left in the outbox for the
+ * {@code OutboxRelay} of the servlet deployment, which also keeps {@code user_view} and the snapshots up to date.
+ * </p>
+ */
+@SpringBootApplication(exclude = ReactiveUserDetailsServiceAutoConfiguration.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableScheduling
+@Import({CredentialsConfig.class, JwtService.class, VerifiedTokenCache.class, TokenRevocationStore.class,
+        TokenRevocationListener.class, BroadcastListenerSupport.class, EventCodecRegistry.class})
+public class ReactiveUserServiceApplication {
+
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(ReactiveUserServiceApplication.class);
+        application.setWebApplicationType(WebApplicationType.REACTIVE);
+        application.run(args);
+    }
+}
@@ -0,0 +1,188 @@
+package com.banku.userservice.reactive;
+
+import com.banku.userservice.aggregate.UserAggregate;
+import com.banku.userservice.aggregate.UserSnapshot;
+import com.banku.userservice.event.UserCreatedEvent;
+import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.event.UserLoginEvent;
+import com.banku.userservice.event.UserUpdatedEvent;
+import com.banku.userservice.exception.ConcurrencyConflictException;
+import com.banku.userservice.projection.EmailIndexEntry;
+import com.banku.userservice.projection.RebuildCheckpoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveUserEventStoreTest {
+
+    private static final String TEST_ID = "test123";
+    private static final String TEST_EMAIL = "test@example.com";
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    private ReactiveUserEventStore eventStore;
+
+    @BeforeEach
+    void setUp() {
+        eventStore = new ReactiveUserEventStore(mongoTemplate, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void findById_FoldsEventsInOrder() {
+        // Arrange
+        UserCreatedEvent created = new UserCreatedEvent(TEST_ID, TEST_EMAIL, "hash");
+        created.setVersion(1);
+        UserUpdatedEvent updated = new UserUpdatedEvent(TEST_ID, "new@example.com", null);
+        updated.setVersion(2);
+        when(mongoTemplate.findById(TEST_ID, UserSnapshot.class)).thenReturn(Mono.empty());
+        when(mongoTemplate.find(any(Query.class), eq(UserEvent.class))).thenReturn(Flux.just(created, updated));
+
+        // Act & Assert
+        StepVerifier.create(eventStore.findById(TEST_ID))
+            .assertNext(aggregate -> {
+                assertEquals(2, aggregate.getVersion());
+                assertEquals("new@example.com", aggregate.getEmail());
+                assertEquals("hash", aggregate.getPassword());
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void findById_WithoutEvents_IsEmpty() {
+        // Arrange
+        when(mongoTemplate.findById(TEST_ID, UserSnapshot.class)).thenReturn(Mono.empty());
+        when(mongoTemplate.find(any(Query.class), eq(UserEvent.class))).thenReturn(Flux.empty());
+
+        // Act & Assert
+        StepVerifier.create(eventStore.findById(TEST_ID)).verifyComplete();
+    }
+
+    @Test
+    void findByEmail_IgnoresStaleIndexEntry() {
+        // Arrange
+        UserCreatedEvent created = new UserCreatedEvent(TEST_ID, "other@example.com", "hash");
+        created.setVersion(1);
+        when(mongoTemplate.findById(TEST_EMAIL, EmailIndexEntry.class))
+            .thenReturn(Mono.just(new EmailIndexEntry(TEST_EMAIL, TEST_ID, 1, false)));
+        when(mongoTemplate.findById(TEST_ID, UserSnapshot.class)).thenReturn(Mono.empty());
+        when(mongoTemplate.find(any(Query.class), eq(UserEvent.class))).thenReturn(Flux.just(created));
+
+        // Act & Assert
+        StepVerifier.create(eventStore.findByEmail(TEST_EMAIL)).verifyComplete();
+    }
+
+    @Test
+    void findByEmail_WhileIndexIsBeingBuilt_FallsBackToEvents() {
+        // Arrange
+        UserCreatedEvent created = new UserCreatedEvent(TEST_ID, TEST_EMAIL, "hash");
+        created.setVersion(1);
+        when(mongoTemplate.findById(TEST_EMAIL, EmailIndexEntry.class)).thenReturn(Mono.empty());
+        when(mongoTemplate.exists(any(Query.class), eq(RebuildCheckpoint.class))).thenReturn(Mono.just(true));
+        when(mongoTemplate.exists(any(Query.class), eq(EmailIndexEntry.class))).thenReturn(Mono.just(true));
+        when(mongoTemplate.exists(any(Query.class), eq(UserEvent.class))).thenReturn(Mono.just(true));
+        when(mongoTemplate.findOne(any(Query.class), eq(UserEvent.class))).thenReturn(Mono.just(created));
+        when(mongoTemplate.findById(TEST_ID, UserSnapshot.class)).thenReturn(Mono.empty());
+        when(mongoTemplate.find(any(Query.class), eq(UserEvent.class))).thenReturn(Flux.just(created));
+
+        // Act & Assert
+        StepVerifier.create(eventStore.findByEmail(TEST_EMAIL))
+            .assertNext(aggregate -> assertEquals(TEST_ID, aggregate.getId()))
+            .verifyComplete();
+    }
+
+    @Test
+    void findByEmail_WhileIndexIsBeingBuilt_ChecksCompletionAtMostOncePerInterval() {
+        // Arrange
+        when(mongoTemplate.findById(TEST_EMAIL, EmailIndexEntry.class)).thenReturn(Mono.empty());
+        when(mongoTemplate.exists(any(Query.class), eq(RebuildCheckpoint.class))).thenReturn(Mono.just(true));
+        when(mongoTemplate.exists(any(Query.class), eq(EmailIndexEntry.class))).thenReturn(Mono.just(true));
+        when(mongoTemplate.exists(any(Query.class), eq(UserEvent.class))).thenReturn(Mono.just(true));
+        when(mongoTemplate.findOne(any(Query.class), eq(UserEvent.class))).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(eventStore.findByEmail(TEST_EMAIL)).verifyComplete();
+        StepVerifier.create(eventStore.findByEmail(TEST_EMAIL)).verifyComplete();
+        verify(mongoTemplate, times(1)).exists(any(Query.class), eq(RebuildCheckpoint.class));
+        verify(mongoTemplate, times(2)).findOne(any(Query.class), eq(UserEvent.class));
+    }
+
+    @Test
+    void findByEmail_OnceIndexIsBuilt_TrustsMisses() {
+        // Arrange
+        when(mongoTemplate.findById(TEST_EMAIL, EmailIndexEntry.class)).thenReturn(Mono.empty());
+        when(mongoTemplate.exists(any(Query.class), eq(RebuildCheckpoint.class))).thenReturn(Mono.just(false));
+        when(mongoTemplate.exists(any(Query.class), eq(EmailIndexEntry.class))).thenReturn(Mono.just(true));
+        when(mongoTemplate.exists(any(Query.class), eq(UserEvent.class))).thenReturn(Mono.just(true));
+
+        // Act & Assert
+        StepVerifier.create(eventStore.findByEmail(TEST_EMAIL)).verifyComplete();
+        StepVerifier.create(eventStore.findByEmail(TEST_EMAIL)).verifyComplete();
+        verify(mongoTemplate, times(1)).exists(any(Query.class), eq(RebuildCheckpoint.class));
+        verify(mongoTemplate, never()).findOne(any(Query.class), eq(UserEvent.class));
+    }
+
+    @Test
+    void append_SetsNextVersionAndIndexesEmail() {
+        // Arrange
+        UserCreatedEvent created = new UserCreatedEvent(TEST_ID, TEST_EMAIL, "hash");
+        when(mongoTemplate.insert(created)).thenReturn(Mono.just(created));
+        when(mongoTemplate.save(any(EmailIndexEntry.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        // Act & Assert
+        StepVerifier.create(eventStore.append(created, 0, null))
+            .assertNext(stored -> {
+                assertEquals(1, stored.getVersion());
+                assertNotNull(stored.getPendingSince());
+            })
+            .verifyComplete();
+        verify(mongoTemplate).save(argThat((EmailIndexEntry entry) -> TEST_EMAIL.equals(entry.getEmail())));
+    }
+
+    @Test
+    void append_EmailChange_MovesTheIndexEntry() {
+        // Arrange
+        UserUpdatedEvent updated = new UserUpdatedEvent(TEST_ID, "new@example.com", null);
+        when(mongoTemplate.insert(updated)).thenReturn(Mono.just(updated));
+        when(mongoTemplate.remove(any(Query.class), eq(EmailIndexEntry.class))).thenReturn(Mono.empty());
+        when(mongoTemplate.save(any(EmailIndexEntry.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        // Act & Assert
+        StepVerifier.create(eventStore.append(updated, 2, TEST_EMAIL))
+            .expectNext(updated)
+            .verifyComplete();
+        verify(mongoTemplate).remove(argThat((Query query) -> TEST_EMAIL.equals(query.getQueryObject().get("_id"))),
+            eq(EmailIndexEntry.class));
+        verify(mongoTemplate).save(argThat((EmailIndexEntry entry) ->
+            "new@example.com".equals(entry.getEmail()) && entry.getVersion() == 3));
+    }
+
+    @Test
+    void append_ExistingVersion_FailsWithConflict() {
+        // Arrange
+        UserLoginEvent login = new UserLoginEvent(TEST_ID, true);
+        when(mongoTemplate.insert(login)).thenReturn(Mono.error(new DuplicateKeyException("E11000")));
+
+        // Act & Assert
+        StepVerifier.create(eventStore.append(login, 3, null))
+            .expectError(ConcurrencyConflictException.class)
+            .verify();
+        verify(mongoTemplate, never()).save(any());
+    }
+}
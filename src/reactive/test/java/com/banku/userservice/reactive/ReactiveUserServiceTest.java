@@ -0,0 +1,161 @@
+package com.banku.userservice.reactive;
+
+import com.banku.userservice.aggregate.UserAggregate;
+import com.banku.userservice.controller.dto.LoginRequest;
+import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.event.UserLoginEvent;
+import com.banku.userservice.event.UserUpdatedEvent;
+import com.banku.userservice.exception.ConcurrencyConflictException;
+import com.banku.userservice.exception.TooManyRequestsException;
+import com.banku.userservice.exception.UserNotFoundException;
+import com.banku.userservice.security.AuthRateLimits;
+import com.banku.userservice.security.JwtService;
+import com.banku.userservice.security.PasswordHashingService;
+import com.banku.userservice.security.TokenRevocationStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveUserServiceTest {
+
+    private static final String TEST_ID = "test-user-id";
+    private static final String TEST_EMAIL = "test@example.com";
+    private static final String TEST_HASH = "{bcrypt}hash";
+
+    @Mock
+    private ReactiveUserEventStore eventStore;
+
+    @Mock
+    private PasswordHashingService passwordEncoder;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Mock
+    private AuthRateLimits authRateLimits;
+
+    @InjectMocks
+    private ReactiveUserService userService;
+
+    private UserAggregate testUser;
+    private LoginRequest loginRequest;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new UserAggregate();
+        testUser.setId(TEST_ID);
+        testUser.setEmail(TEST_EMAIL);
+        testUser.setPassword(TEST_HASH);
+        testUser.setVersion(1);
+
+        loginRequest = new LoginRequest();
+        loginRequest.setEmail(TEST_EMAIL);
+        loginRequest.setPassword("password123");
+    }
+
+    @Test
+    void login_ValidPassword_ReturnsToken() {
+        // Arrange
+        when(eventStore.findByEmail(TEST_EMAIL)).thenReturn(Mono.just(testUser));
+        when(passwordEncoder.matchesAsync("password123", TEST_HASH)).thenReturn(CompletableFuture.completedFuture(true));
+        when(eventStore.append(any(UserLoginEvent.class), eq(1L), isNull())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(jwtService.generateToken(eq(TEST_EMAIL), anyMap())).thenReturn("token");
+
+        // Act & Assert
+        StepVerifier.create(userService.login(loginRequest))
+            .assertNext(response -> {
+                assertEquals("token", response.getToken());
+                assertEquals(TEST_ID, response.getUserId());
+            })
+            .verifyComplete();
+        verify(eventStore).append(argThat((UserEvent event) -> ((UserLoginEvent) event).getIsSuccessfulLogin()), eq(1L), isNull());
+    }
+
+    @Test
+    void login_WrongPassword_RecordsFailedLogin() {
+        // Arrange
+        when(eventStore.findByEmail(TEST_EMAIL)).thenReturn(Mono.just(testUser));
+        when(passwordEncoder.matchesAsync("password123", TEST_HASH)).thenReturn(CompletableFuture.completedFuture(false));
+        when(eventStore.append(any(UserLoginEvent.class), eq(1L), isNull())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        // Act & Assert
+        StepVerifier.create(userService.login(loginRequest))
+            .expectError(UserNotFoundException.class)
+            .verify();
+        verify(eventStore).append(argThat((UserEvent event) -> !((UserLoginEvent) event).getIsSuccessfulLogin()), eq(1L), isNull());
+        verifyNoInteractions(jwtService);
+    }
+
+    @Test
+    void login_VersionConflict_RetriesAgainstReloadedUser() {
+        // Arrange
+        UserAggregate reloaded = new UserAggregate();
+        reloaded.setId(TEST_ID);
+        reloaded.setVersion(2);
+        when(eventStore.findByEmail(TEST_EMAIL)).thenReturn(Mono.just(testUser));
+        when(passwordEncoder.matchesAsync("password123", TEST_HASH)).thenReturn(CompletableFuture.completedFuture(true));
+        when(eventStore.append(any(UserLoginEvent.class), eq(1L), isNull()))
+            .thenReturn(Mono.error(new ConcurrencyConflictException(TEST_ID, 1L, null)));
+        when(eventStore.findById(TEST_ID)).thenReturn(Mono.just(reloaded));
+        when(eventStore.append(any(UserLoginEvent.class), eq(2L), isNull())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(jwtService.generateToken(eq(TEST_EMAIL), anyMap())).thenReturn("token");
+
+        // Act & Assert
+        StepVerifier.create(userService.login(loginRequest))
+            .expectNextCount(1)
+            .verifyComplete();
+    }
+
+    @Test
+    void login_OutdatedHash_AppendsRehash() {
+        // Arrange
+        when(eventStore.findByEmail(TEST_EMAIL)).thenReturn(Mono.just(testUser));
+        when(passwordEncoder.matchesAsync("password123", TEST_HASH)).thenReturn(CompletableFuture.completedFuture(true));
+        when(passwordEncoder.upgradeEncoding(TEST_HASH)).thenReturn(true);
+        when(passwordEncoder.encodeAsync("password123")).thenReturn(CompletableFuture.completedFuture("{bcrypt}stronger"));
+        when(eventStore.findById(TEST_ID)).thenReturn(Mono.just(testUser));
+        when(eventStore.append(any(UserEvent.class), anyLong(), any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(jwtService.generateToken(eq(TEST_EMAIL), anyMap())).thenReturn("token");
+
+        // Act & Assert
+        StepVerifier.create(userService.login(loginRequest))
+            .expectNextCount(1)
+            .verifyComplete();
+        verify(eventStore).append(argThat((UserEvent event) -> event instanceof UserUpdatedEvent updated
+            && updated.isPasswordRehash() && "{bcrypt}stronger".equals(updated.getPassword())), eq(1L), eq(TEST_EMAIL));
+        verifyNoInteractions(tokenRevocationStore);
+    }
+
+    @Test
+    void login_AccountThrottled_FailsBeforeLoadingUser() {
+        // Arrange
+        doThrow(new TooManyRequestsException("Too many login attempts", Duration.ofSeconds(30)))
+            .when(authRateLimits).checkAccount(TEST_EMAIL);
+        when(eventStore.findByEmail(TEST_EMAIL)).thenReturn(Mono.just(testUser));
+
+        // Act & Assert
+        StepVerifier.create(userService.login(loginRequest))
+            .expectError(TooManyRequestsException.class)
+            .verify();
+        verifyNoInteractions(passwordEncoder);
+    }
+}
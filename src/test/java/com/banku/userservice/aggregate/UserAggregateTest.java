@@ -84,8 +84,10 @@ class UserAggregateTest {
 
         userAggregate.apply(event);
 
-        assertEquals(1, userAggregate.getLoginHistory().size());
-        assertTrue(userAggregate.getLoginHistory().get(0).isSuccessful());
+        assertEquals(1, userAggregate.getSuccessfulLogins());
+        assertEquals(0, userAggregate.getFailedLogins());
+        assertEquals(event.getTimestamp(), userAggregate.getLastLoginAt());
+        assertEquals(event.getTimestamp(), userAggregate.getLastSuccessfulLoginAt());
     }
 
     @Test
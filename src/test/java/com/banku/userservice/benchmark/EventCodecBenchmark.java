@@ -0,0 +1,78 @@
+package com.banku.userservice.benchmark;
+
+import com.banku.userservice.event.UserCreatedEvent;
+import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.event.UserLoginEvent;
+import com.banku.userservice.event.codec.EventCodec;
+import com.banku.userservice.event.codec.JsonEventCodec;
+import com.banku.userservice.event.codec.SmileEventCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of the {@code banku.user} wire formats on representative events.
+ * Payload sizes are printed once per trial.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="EventCodecBenchmark -f 1"}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventCodecBenchmark {
+
+    @Param({"json", "smile"})
+    private String codec;
+
+    @Param({"created", "login"})
+    private String payload;
+
+    private EventCodec eventCodec;
+    private UserEvent event;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        eventCodec = "smile".equals(codec) ? new SmileEventCodec(objectMapper) : new JsonEventCodec(objectMapper);
+        event = "created".equals(payload) ? createdEvent() : loginEvent();
+        encoded = eventCodec.encode(event);
+        System.out.printf("%n%s %s payload: %d bytes%n", codec, payload, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return eventCodec.encode(event);
+    }
+
+    @Benchmark
+    public UserEvent decode() {
+        return eventCodec.decode(encoded);
+    }
+
+    private static UserEvent createdEvent() {
+        UserCreatedEvent event = new UserCreatedEvent("3f2b8c1e-7d4a-4e0b-9a61-2c5d8e7f9a10", "jane.doe@example.com",
+                "$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy", "google", "108273645190283746512",
+                "Jane", "Doe", "https://lh3.googleusercontent.com/a/ACg8ocJ2x9Yk3f0=s96-c", "en");
+        event.setVersion(1);
+        event.setCreatedBy("3f2b8c1e-7d4a-4e0b-9a61-2c5d8e7f9a10");
+        return event;
+    }
+
+    private static UserEvent loginEvent() {
+        UserLoginEvent event = new UserLoginEvent("3f2b8c1e-7d4a-4e0b-9a61-2c5d8e7f9a10", true);
+        event.setVersion(42);
+        event.setCreatedBy("3f2b8c1e-7d4a-4e0b-9a61-2c5d8e7f9a10");
+        return event;
+    }
+}
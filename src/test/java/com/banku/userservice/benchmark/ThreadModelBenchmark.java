@@ -0,0 +1,109 @@
+package com.banku.userservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves a burst of {@code concurrency} simultaneous requests, each blocking {@code ioMillis} on I/O (a Mongo
+ * replay or an OAuth call) around a little CPU work, and measures how long the whole burst takes:
+ * <ul>
+ *     <li>{@code platform}: a pool of 200 platform threads, Tomcat's default {@code server.tomcat.threads.max}</li>
+ *     <li>{@code virtual}: one virtual thread per request, as with {@code spring.threads.virtual.enabled}</li>
+ *     <li>{@code virtual-lock}: the same with the I/O inside a {@link ReentrantLock}, which unmounts while blocked</li>
+ *     <li>{@code virtual-pinned}: the I/O inside a {@code synchronized} block, which pins the carrier thread on
+ *     Java 21 so at most one request per core makes progress</li>
+ * </ul>
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="ThreadModelBenchmark -f 1"}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ThreadModelBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"platform", "virtual", "virtual-lock", "virtual-pinned"})
+    private String model;
+
+    @Param({"1000", "10000"})
+    private int concurrency;
+
+    @Param({"5"})
+    private int ioMillis;
+
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() {
+        executor = "platform".equals(model)
+                ? Executors.newFixedThreadPool(TOMCAT_MAX_THREADS)
+                : Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.close();
+    }
+
+    @Benchmark
+    public void burst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            executor.execute(() -> {
+                try {
+                    request();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    private void request() {
+        Blackhole.consumeCPU(1_000);
+        switch (model) {
+            case "virtual-lock" -> {
+                ReentrantLock lock = new ReentrantLock();
+                lock.lock();
+                try {
+                    blockingIo();
+                } finally {
+                    lock.unlock();
+                }
+            }
+            case "virtual-pinned" -> {
+                Object monitor = new Object();
+                synchronized (monitor) {
+                    blockingIo();
+                }
+            }
+            default -> blockingIo();
+        }
+        Blackhole.consumeCPU(1_000);
+    }
+
+    private void blockingIo() {
+        try {
+            Thread.sleep(ioMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
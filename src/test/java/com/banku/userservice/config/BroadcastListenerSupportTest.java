@@ -0,0 +1,85 @@
+package com.banku.userservice.config;
+
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BroadcastListenerSupportTest {
+
+    @Mock
+    private ConsumerFactory<Object, Object> consumerFactory;
+
+    @Mock
+    private KafkaAdmin kafkaAdmin;
+
+    @InjectMocks
+    private BroadcastListenerSupport support;
+
+    @Test
+    void partitions_ShouldCreateDeclaredTopicsThenListEveryPartitionInOrder() {
+        // Arrange
+        when(kafkaAdmin.describeTopics("banku.user")).thenReturn(Map.of("banku.user", new TopicDescription(
+            "banku.user", false, List.of(partition(1), partition(0)))));
+
+        // Act
+        String[] partitions = support.partitions("banku.user");
+
+        // Assert
+        assertArrayEquals(new String[] {"0", "1"}, partitions);
+        var order = inOrder(kafkaAdmin);
+        order.verify(kafkaAdmin).initialize();
+        order.verify(kafkaAdmin).describeTopics("banku.user");
+    }
+
+    @Test
+    void partitions_WhenTopicHasNoPartitions_ShouldFailInsteadOfAssigningNone() {
+        // Arrange
+        when(kafkaAdmin.describeTopics("banku.user"))
+            .thenReturn(Map.of("banku.user", new TopicDescription("banku.user", false, List.of())));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> support.partitions("banku.user"));
+    }
+
+    @Test
+    void partitions_WhenTopicMissing_ShouldFail() {
+        // Arrange
+        when(kafkaAdmin.describeTopics("banku.user")).thenThrow(new KafkaException("Unknown topic"));
+
+        // Act & Assert
+        assertThrows(KafkaException.class, () -> support.partitions("banku.user"));
+    }
+
+    @Test
+    void postProcess_ShouldNeverCommitOffsets() {
+        // Arrange
+        KafkaMessageListenerContainer<Object, Object> container =
+            new KafkaMessageListenerContainer<>(consumerFactory, new ContainerProperties("banku.user"));
+
+        // Act
+        support.postProcess(container);
+
+        // Assert
+        assertEquals(ContainerProperties.AckMode.MANUAL, container.getContainerProperties().getAckMode());
+    }
+
+    private static TopicPartitionInfo partition(int partition) {
+        return new TopicPartitionInfo(partition, null, List.of(), List.of());
+    }
+}
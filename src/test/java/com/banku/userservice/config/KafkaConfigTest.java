@@ -5,8 +5,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class KafkaConfigTest {
@@ -25,4 +34,22 @@ class KafkaConfigTest {
         assertEquals(2, topic.numPartitions());
         assertEquals(1, (short) topic.replicationFactor());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void batchKafkaListenerContainerFactory_ShouldCommitPerBatchWithOneConsumerPerPartition() {
+        // Arrange
+        ConcurrentKafkaListenerContainerFactoryConfigurer configurer = mock(ConcurrentKafkaListenerContainerFactoryConfigurer.class);
+        ConsumerFactory<Object, Object> consumerFactory = mock(ConsumerFactory.class);
+
+        // Act
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = kafkaConfig.batchKafkaListenerContainerFactory(
+            configurer, consumerFactory, KafkaConfig.USER_EVENTS_PARTITIONS, Duration.ofSeconds(1), 10);
+
+        // Assert
+        verify(configurer).configure(factory, consumerFactory);
+        assertTrue(factory.isBatchListener());
+        assertEquals(ContainerProperties.AckMode.BATCH, factory.getContainerProperties().getAckMode());
+        assertEquals(KafkaConfig.USER_EVENTS_PARTITIONS, ReflectionTestUtils.getField(factory, "concurrency"));
+        assertInstanceOf(DefaultErrorHandler.class, ReflectionTestUtils.getField(factory, "commonErrorHandler"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.banku.userservice.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserEventTypeTest {
+
+    @Test
+    void type_ShouldResolveEveryEventClassToItsOwnConstant() {
+        // Arrange
+        List<UserEvent> samples = List.of(
+                new UserCreatedEvent("id", "test@example.com", "password"),
+                new UserUpdatedEvent("id", "new@example.com", null),
+                new UserDeletedEvent("id"),
+                new UserLoginEvent("id", true));
+
+        // Act & Assert
+        assertEquals(UserEventType.values().length, samples.size());
+        for (UserEvent event : samples) {
+            assertSame(event.getClass(), event.type().getEventClass());
+            assertSame(event.type(), UserEventType.of(event.getClass()));
+            assertEquals(Optional.of(event.type()), UserEventType.ofClassName(event.getClass().getName()));
+        }
+    }
+
+    @Test
+    void dispatch_ShouldCallTheHandlerMethodOfEveryRegisteredType() {
+        // Arrange
+        List<UserEvent> received = new ArrayList<>();
+        UserEventHandler handler = new UserEventHandler() {
+            @Override
+            public void onCreated(UserCreatedEvent event) {
+                received.add(event);
+            }
+
+            @Override
+            public void onUpdated(UserUpdatedEvent event) {
+                received.add(event);
+            }
+
+            @Override
+            public void onDeleted(UserDeletedEvent event) {
+                received.add(event);
+            }
+
+            @Override
+            public void onLogin(UserLoginEvent event) {
+                received.add(event);
+            }
+        };
+
+        List<UserEvent> samples = List.of(
+                new UserCreatedEvent("id", "test@example.com", "password"),
+                new UserUpdatedEvent("id", "new@example.com", null),
+                new UserDeletedEvent("id"),
+                new UserLoginEvent("id", true));
+
+        // Act
+        samples.forEach(event -> UserEventType.dispatch(event, handler));
+
+        // Assert
+        assertEquals(samples, received);
+        assertEquals(Set.of(UserEventType.values()), received.stream().map(UserEvent::type).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void dispatch_ShouldIgnoreTypesTheHandlerDoesNotOverride() {
+        // Act & Assert
+        assertDoesNotThrow(() -> UserEventType.dispatch(new UserLoginEvent("id", true), new UserEventHandler() { }));
+    }
+
+    @Test
+    void ofClassName_ShouldIgnoreUnregisteredClasses() {
+        // Act & Assert
+        assertEquals(Optional.empty(), UserEventType.ofClassName(UserEvent.class.getName()));
+        assertEquals(Optional.empty(), UserEventType.ofClassName("java.lang.Runtime"));
+    }
+
+    @Test
+    void typeIds_ShouldBeUnique() {
+        // Act
+        Set<String> typeIds = Arrays.stream(UserEventType.values())
+                .map(UserEventType::getTypeId)
+                .collect(Collectors.toSet());
+
+        // Assert
+        assertEquals(UserEventType.values().length, typeIds.size());
+    }
+}
@@ -0,0 +1,81 @@
+package com.banku.userservice.event.codec;
+
+import com.banku.userservice.event.UserCreatedEvent;
+import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.event.UserLoginEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCodecTest {
+
+    private JsonEventCodec jsonCodec;
+    private SmileEventCodec smileCodec;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        jsonCodec = new JsonEventCodec(objectMapper);
+        smileCodec = new SmileEventCodec(objectMapper);
+    }
+
+    @Test
+    void smile_ShouldRoundTripEveryField() {
+        UserCreatedEvent event = new UserCreatedEvent("user-1", "test@example.com", "hash", "google", "g-1",
+            "Ada", "Lovelace", "https://example.com/ada.png", "en");
+        event.setVersion(1);
+
+        UserEvent decoded = smileCodec.decode(smileCodec.encode(event));
+
+        UserCreatedEvent created = assertInstanceOf(UserCreatedEvent.class, decoded);
+        assertEquals(event.getId(), created.getId());
+        assertEquals(event.getTimestamp(), created.getTimestamp());
+        assertEquals(1, created.getVersion());
+        assertEquals("google", created.getProvider());
+        assertEquals("Lovelace", created.getLastName());
+        assertNull(created.getPendingSince());
+    }
+
+    @Test
+    void smile_ShouldUseTypeTagInsteadOfClassName() {
+        UserLoginEvent event = new UserLoginEvent("user-1", true);
+
+        byte[] smile = smileCodec.encode(event);
+        byte[] json = jsonCodec.encode(event);
+
+        assertFalse(new String(smile, StandardCharsets.ISO_8859_1).contains(UserLoginEvent.class.getName()));
+        assertTrue(smile.length < json.length);
+    }
+
+    @Test
+    void json_ShouldStayCompatibleWithClassNamePayloads() {
+        UserLoginEvent event = new UserLoginEvent("user-1", false);
+
+        byte[] json = jsonCodec.encode(event);
+
+        assertTrue(new String(json, StandardCharsets.UTF_8).contains("\"@class\":\"" + UserLoginEvent.class.getName() + "\""));
+        assertInstanceOf(UserLoginEvent.class, jsonCodec.decode(json));
+    }
+
+    @Test
+    void json_ShouldRejectClassNamesOutsideTheRegistry() {
+        byte[] json = ("{\"@class\":\"" + UserEvent.class.getName() + "\",\"aggregateId\":\"user-1\"}")
+            .getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(EventCodecException.class, () -> jsonCodec.decode(json));
+    }
+
+    @Test
+    void registry_ShouldDefaultRecordsWithoutHeaderToJson() {
+        EventCodecRegistry registry = new EventCodecRegistry(Jackson2ObjectMapperBuilder.json().build(), "smile");
+
+        assertEquals(SmileEventCodec.CONTENT_TYPE, registry.forPublishing().contentType());
+        assertEquals(JsonEventCodec.CONTENT_TYPE, registry.forContentType(null).contentType());
+        assertThrows(EventCodecException.class, () -> registry.forContentType("application/avro"));
+    }
+}
@@ -0,0 +1,169 @@
+package com.banku.userservice.projection;
+
+import com.banku.userservice.aggregate.UserAggregate;
+import com.banku.userservice.repository.EmailIndexStore;
+import com.banku.userservice.repository.EventStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailIndexProjectionTest {
+
+    @Mock
+    private EmailIndexStore emailIndexStore;
+
+    @Mock
+    private EventStore eventStore;
+
+    @Mock
+    private ProjectionRebuildEngine rebuildEngine;
+
+    @InjectMocks
+    private EmailIndexProjection projection;
+
+    @Captor
+    private ArgumentCaptor<EmailIndexEntry> entryCaptor;
+
+    private static final String TEST_ID = "test123";
+    private static final String TEST_EMAIL = "test@example.com";
+
+    @Test
+    void findAggregateId_ShouldReadIndexEntry() {
+        when(emailIndexStore.findById(TEST_EMAIL))
+            .thenReturn(Optional.of(new EmailIndexEntry(TEST_EMAIL, TEST_ID, 1, false)));
+
+        assertEquals(Optional.of(TEST_ID), projection.findAggregateId(TEST_EMAIL));
+    }
+
+    @Test
+    void findAggregateId_WhileIndexIsBeingBuilt_ShouldFallBackToEvents() {
+        when(emailIndexStore.findById(TEST_EMAIL)).thenReturn(Optional.empty());
+        when(rebuildEngine.hasUnfinishedRebuild(EmailIndexProjection.NAME)).thenReturn(true);
+        when(eventStore.findLastAggregateIdByEmail(TEST_EMAIL)).thenReturn(Optional.of(TEST_ID));
+
+        assertEquals(Optional.of(TEST_ID), projection.findAggregateId(TEST_EMAIL));
+    }
+
+    @Test
+    void findAggregateId_WhileIndexIsBeingBuilt_ShouldNotRecheckCompletionOnEveryMiss() {
+        when(emailIndexStore.findById(any())).thenReturn(Optional.empty());
+        when(rebuildEngine.hasUnfinishedRebuild(EmailIndexProjection.NAME)).thenReturn(true);
+        when(eventStore.findLastAggregateIdByEmail(any())).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 10; i++) {
+            projection.findAggregateId("unknown" + i + "@example.com");
+        }
+
+        verify(rebuildEngine, times(1)).hasUnfinishedRebuild(EmailIndexProjection.NAME);
+        verify(emailIndexStore, never()).count();
+        verify(eventStore, never()).count();
+        verify(eventStore, times(10)).findLastAggregateIdByEmail(any());
+    }
+
+    @Test
+    void findAggregateId_OnceIndexIsComplete_ShouldTrustMisses() {
+        when(emailIndexStore.findById(TEST_EMAIL)).thenReturn(Optional.empty());
+        when(rebuildEngine.hasUnfinishedRebuild(EmailIndexProjection.NAME)).thenReturn(false);
+        when(emailIndexStore.count()).thenReturn(5L);
+
+        assertEquals(Optional.empty(), projection.findAggregateId(TEST_EMAIL));
+        assertEquals(Optional.empty(), projection.findAggregateId(TEST_EMAIL));
+
+        verify(rebuildEngine, times(1)).hasUnfinishedRebuild(EmailIndexProjection.NAME);
+        verify(eventStore, never()).findLastAggregateIdByEmail(any());
+    }
+
+    @Test
+    void onUserUpdated_WhenEmailChanges_ShouldMoveEntry() {
+        projection.onUserUpdated(TEST_ID, TEST_EMAIL, "new@example.com", 2);
+
+        verify(emailIndexStore).deleteById(TEST_EMAIL);
+        verify(emailIndexStore).save(entryCaptor.capture());
+        assertEquals("new@example.com", entryCaptor.getValue().getEmail());
+        assertEquals(TEST_ID, entryCaptor.getValue().getAggregateId());
+        assertEquals(2, entryCaptor.getValue().getVersion());
+    }
+
+    @Test
+    void onUserUpdated_WhenEmailUnchanged_ShouldNotTouchIndex() {
+        projection.onUserUpdated(TEST_ID, TEST_EMAIL, null, 2);
+        projection.onUserUpdated(TEST_ID, TEST_EMAIL, TEST_EMAIL, 3);
+
+        verifyNoInteractions(emailIndexStore);
+    }
+
+    @Test
+    void onUserDeleted_ShouldKeepEntryFlaggedAsDeleted() {
+        projection.onUserDeleted(TEST_ID, TEST_EMAIL, 3);
+
+        verify(emailIndexStore).save(entryCaptor.capture());
+        assertTrue(entryCaptor.getValue().isDeleted());
+    }
+
+    @Test
+    void handle_ShouldSaveEntryFromReplayedAggregate() {
+        UserAggregate aggregate = new UserAggregate();
+        aggregate.setId(TEST_ID);
+        aggregate.setEmail(TEST_EMAIL);
+        aggregate.setVersion(4);
+        aggregate.setDeleted(true);
+
+        projection.beforeReplay();
+        projection.handle(aggregate);
+
+        verify(emailIndexStore).saveReplayed(entryCaptor.capture(), any(Instant.class));
+        assertEquals(TEST_EMAIL, entryCaptor.getValue().getEmail());
+        assertEquals(4, entryCaptor.getValue().getVersion());
+        assertTrue(entryCaptor.getValue().isDeleted());
+        verify(emailIndexStore, never()).save(any());
+    }
+
+    @Test
+    void reset_ShouldKeepTheLiveIndex() {
+        projection.reset();
+
+        verifyNoInteractions(emailIndexStore);
+    }
+
+    @Test
+    void rebuildIfEmpty_WhenPreviousRebuildUnfinished_ShouldResume() {
+        when(rebuildEngine.hasUnfinishedRebuild(EmailIndexProjection.NAME)).thenReturn(true);
+
+        projection.rebuildIfEmpty();
+
+        verify(rebuildEngine).rebuild(projection, true);
+        verify(emailIndexStore, never()).count();
+    }
+
+    @Test
+    void rebuildIfEmpty_WhenIndexEmpty_ShouldRebuildFromScratch() {
+        when(emailIndexStore.count()).thenReturn(0L);
+        when(eventStore.count()).thenReturn(3L);
+
+        projection.rebuildIfEmpty();
+
+        verify(rebuildEngine).rebuild(projection, false);
+    }
+
+    @Test
+    void rebuildIfEmpty_WhenAnotherInstanceIsRebuilding_ShouldLeaveItToThatInstance() {
+        when(emailIndexStore.count()).thenReturn(0L);
+        when(eventStore.count()).thenReturn(3L);
+        when(rebuildEngine.rebuild(projection, false))
+            .thenThrow(new IllegalStateException("Rebuild of projection user_email_index is running on another instance"));
+
+        assertDoesNotThrow(() -> projection.rebuildIfEmpty());
+    }
+}
@@ -0,0 +1,184 @@
+package com.banku.userservice.projection;
+
+import com.banku.userservice.aggregate.UserAggregate;
+import com.banku.userservice.event.UserCreatedEvent;
+import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.event.UserUpdatedEvent;
+import com.banku.userservice.repository.CheckpointStore;
+import com.banku.userservice.repository.EventStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectionRebuildEngineTest {
+
+    @Mock
+    private EventStore eventStore;
+
+    @Mock
+    private CheckpointStore checkpointStore;
+
+    @Mock
+    private RebuildLease rebuildLease;
+
+    private ProjectionRebuildEngine engine;
+    private RecordingHandler handler;
+    private final Map<String, RebuildCheckpoint> savedCheckpoints = new ConcurrentHashMap<>();
+
+    private static final List<UserEvent> EVENTS = List.of(
+        versioned(new UserCreatedEvent("0a", "zero@example.com", "password"), 1),
+        versioned(new UserCreatedEvent("3b", "three@example.com", "password"), 1),
+        versioned(new UserUpdatedEvent("3b", "three-new@example.com", null), 2),
+        versioned(new UserCreatedEvent("3c", "other@example.com", "password"), 1),
+        versioned(new UserCreatedEvent("ff", "last@example.com", "password"), 1));
+
+    @BeforeEach
+    void setUp() {
+        engine = new ProjectionRebuildEngine(eventStore, checkpointStore, rebuildLease, 2, 1);
+        handler = new RecordingHandler();
+        lenient().when(rebuildLease.acquire("test")).thenReturn(true);
+        lenient().when(eventStore.streamAggregateRange(nullable(String.class), nullable(String.class)))
+            .thenAnswer(invocation -> {
+                String from = invocation.getArgument(0);
+                String to = invocation.getArgument(1);
+                return EVENTS.stream().filter(event ->
+                    (from == null || event.getAggregateId().compareTo(from) >= 0)
+                        && (to == null || event.getAggregateId().compareTo(to) < 0));
+            });
+        lenient().when(checkpointStore.save(any(RebuildCheckpoint.class))).thenAnswer(invocation -> {
+            RebuildCheckpoint checkpoint = invocation.getArgument(0);
+            savedCheckpoints.put(checkpoint.getId(), checkpoint);
+            return checkpoint;
+        });
+    }
+
+    @Test
+    void rebuild_ShouldResetAndReplayEveryPartition() {
+        // Arrange
+        when(checkpointStore.findByProjection("test")).thenReturn(List.of());
+
+        // Act
+        RebuildReport report = engine.rebuild(handler, true);
+
+        // Assert
+        assertTrue(handler.reset);
+        assertFalse(report.isResumed());
+        assertEquals(16, report.getPartitions());
+        assertEquals(4, report.getAggregates());
+        assertEquals(5, report.getEvents());
+        assertEquals("three-new@example.com", handler.handled.get("3b").getEmail());
+        assertEquals(2, handler.handled.get("3b").getVersion());
+        assertEquals(16, savedCheckpoints.size());
+        assertTrue(savedCheckpoints.values().stream().allMatch(RebuildCheckpoint::isCompleted));
+        assertEquals("3c", savedCheckpoints.get("test:3").getLastAggregateId());
+        verify(checkpointStore).deleteByProjection("test");
+        verify(rebuildLease).release("test");
+    }
+
+    @Test
+    void rebuild_WhenPreviousRunInterrupted_ShouldResumeAfterCheckpoints() {
+        // Arrange
+        List<RebuildCheckpoint> checkpoints = new ArrayList<>();
+        for (int partition = 0; partition < 16; partition++) {
+            RebuildCheckpoint checkpoint = new RebuildCheckpoint("test", partition);
+            checkpoint.setCompleted(partition != 3);
+            checkpoints.add(checkpoint);
+        }
+        checkpoints.get(3).setLastAggregateId("3b");
+        checkpoints.get(3).setAggregates(1);
+        when(checkpointStore.findByProjection("test")).thenReturn(checkpoints);
+
+        // Act
+        RebuildReport report = engine.rebuild(handler, true);
+
+        // Assert
+        assertFalse(handler.reset);
+        assertTrue(report.isResumed());
+        assertEquals(1, report.getPartitions());
+        assertEquals(Collections.singleton("3c"), handler.handled.keySet());
+        assertEquals(2, savedCheckpoints.get("test:3").getAggregates());
+        assertTrue(savedCheckpoints.get("test:3").isCompleted());
+        verify(eventStore).streamAggregateRange("3b\u0000", "4");
+        verify(checkpointStore, never()).deleteByProjection(any());
+    }
+
+    @Test
+    void rebuild_WhenResumeDisabled_ShouldStartOver() {
+        // Arrange
+        RebuildCheckpoint checkpoint = new RebuildCheckpoint("test", 3);
+        checkpoint.setLastAggregateId("3b");
+        when(checkpointStore.findByProjection("test")).thenReturn(List.of(checkpoint));
+
+        // Act
+        RebuildReport report = engine.rebuild(handler, false);
+
+        // Assert
+        assertTrue(handler.reset);
+        assertEquals(4, report.getAggregates());
+        verify(checkpointStore).deleteByProjection("test");
+    }
+
+    @Test
+    void rebuild_WhenAnotherInstanceHoldsTheLease_ShouldRefuseWithoutTouchingTheProjection() {
+        // Arrange
+        when(rebuildLease.acquire("test")).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> engine.rebuild(handler, false));
+        assertFalse(handler.reset);
+        assertFalse(engine.isRunning("test"));
+        verifyNoInteractions(checkpointStore, eventStore);
+    }
+
+    @Test
+    void rebuild_WhenTheLeaseIsLost_ShouldFailAndRelease() {
+        // Arrange
+        when(checkpointStore.findByProjection("test")).thenReturn(List.of());
+        when(rebuildLease.acquire("test")).thenReturn(true, false);
+
+        // Act & Assert
+        assertThrows(CompletionException.class, () -> engine.rebuild(handler, false));
+        assertTrue(savedCheckpoints.isEmpty());
+        verify(rebuildLease).release("test");
+    }
+
+    private static UserEvent versioned(UserEvent event, long version) {
+        event.setVersion(version);
+        return event;
+    }
+
+    private static class RecordingHandler implements ProjectionHandler {
+        private final Map<String, UserAggregate> handled = new ConcurrentHashMap<>();
+        private volatile boolean reset;
+
+        @Override
+        public String getName() {
+            return "test";
+        }
+
+        @Override
+        public void reset() {
+            reset = true;
+        }
+
+        @Override
+        public void handle(UserAggregate aggregate) {
+            handled.put(aggregate.getId(), aggregate);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.banku.userservice.projection;
+
+import com.banku.userservice.aggregate.UserAggregate;
+import com.banku.userservice.event.UserCreatedEvent;
+import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.event.UserLoginEvent;
+import com.banku.userservice.event.UserUpdatedEvent;
+import com.banku.userservice.repository.EventStore;
+import com.banku.userservice.repository.UserViewStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserViewProjectorTest {
+
+    @Mock
+    private UserViewStore userViewStore;
+
+    @Mock
+    private EventStore eventStore;
+
+    @InjectMocks
+    private UserViewProjector projector;
+
+    @Captor
+    private ArgumentCaptor<UserView> viewCaptor;
+
+    private static final String TEST_ID = "test123";
+    private static final String TEST_EMAIL = "test@example.com";
+
+    @Test
+    void project_WhenCreated_ShouldInsertView() {
+        // Arrange
+        when(userViewStore.findById(TEST_ID)).thenReturn(Optional.empty());
+
+        // Act
+        projector.project(versioned(new UserCreatedEvent(TEST_ID, TEST_EMAIL, "password"), 1));
+
+        // Assert
+        verify(userViewStore).save(viewCaptor.capture());
+        assertEquals(TEST_EMAIL, viewCaptor.getValue().getEmail());
+        assertEquals(1, viewCaptor.getValue().getVersion());
+    }
+
+    @Test
+    void project_WhenLogin_ShouldUpdateCounters() {
+        // Arrange
+        UserView view = new UserView(TEST_ID);
+        view.setVersion(1);
+        when(userViewStore.findById(TEST_ID)).thenReturn(Optional.of(view));
+        UserLoginEvent login = versioned(new UserLoginEvent(TEST_ID, false), 2);
+
+        // Act
+        projector.project(login);
+
+        // Assert
+        verify(userViewStore).save(viewCaptor.capture());
+        UserView saved = viewCaptor.getValue();
+        assertEquals(2, saved.getVersion());
+        assertEquals(1, saved.getFailedLogins());
+        assertEquals(0, saved.getSuccessfulLogins());
+        assertEquals(login.getTimestamp(), saved.getLastLoginAt());
+        assertNull(saved.getLastSuccessfulLoginAt());
+    }
+
+    @Test
+    void project_WhenRedelivered_ShouldIgnoreEvent() {
+        // Arrange
+        UserView view = new UserView(TEST_ID);
+        view.setVersion(3);
+        when(userViewStore.findById(TEST_ID)).thenReturn(Optional.of(view));
+
+        // Act
+        projector.project(versioned(new UserLoginEvent(TEST_ID, true), 3));
+
+        // Assert
+        verify(userViewStore, never()).save(any());
+        verifyNoInteractions(eventStore);
+    }
+
+    @Test
+    void project_WhenVersionGap_ShouldRebuildFromEventStore() {
+        // Arrange
+        when(userViewStore.findById(TEST_ID)).thenReturn(Optional.empty());
+        when(eventStore.streamByAggregateId(TEST_ID, 0)).thenReturn(Stream.of(
+            versioned(new UserCreatedEvent(TEST_ID, TEST_EMAIL, "password"), 1),
+            versioned(new UserLoginEvent(TEST_ID, true), 2),
+            versioned(new UserUpdatedEvent(TEST_ID, "new@example.com", null), 3)));
+
+        // Act
+        projector.project(versioned(new UserUpdatedEvent(TEST_ID, "new@example.com", null), 3));
+
+        // Assert
+        verify(userViewStore).save(viewCaptor.capture());
+        UserView saved = viewCaptor.getValue();
+        assertEquals(3, saved.getVersion());
+        assertEquals("new@example.com", saved.getEmail());
+        assertEquals(1, saved.getSuccessfulLogins());
+    }
+
+    @Test
+    void projectAll_ShouldWriteEachUserOnceAndSkipRedeliveries() {
+        // Arrange
+        UserView view = new UserView(TEST_ID);
+        view.setVersion(1);
+        when(userViewStore.findById(TEST_ID)).thenReturn(Optional.of(view));
+        when(userViewStore.findById("other")).thenReturn(Optional.empty());
+
+        // Act
+        projector.projectAll(List.of(
+            versioned(new UserLoginEvent(TEST_ID, true), 1),
+            versioned(new UserLoginEvent(TEST_ID, true), 2),
+            versioned(new UserCreatedEvent("other", "other@example.com", "password"), 1),
+            versioned(new UserLoginEvent(TEST_ID, false), 3)));
+
+        // Assert
+        verify(userViewStore, times(2)).save(viewCaptor.capture());
+        UserView saved = viewCaptor.getAllValues().get(0);
+        assertEquals(3, saved.getVersion());
+        assertEquals(1, saved.getSuccessfulLogins());
+        assertEquals(1, saved.getFailedLogins());
+        assertEquals("other", viewCaptor.getAllValues().get(1).getUserId());
+        verify(userViewStore, times(1)).findById(TEST_ID);
+    }
+
+    @Test
+    void projectAll_WhenUserFails_ShouldProjectOthersThenFailSoTheRedeliveryCompletesIt() {
+        // Arrange
+        UserView view = new UserView(TEST_ID);
+        view.setVersion(1);
+        when(userViewStore.findById(TEST_ID)).thenReturn(Optional.of(view));
+        when(userViewStore.findById("other"))
+            .thenThrow(new IllegalStateException("Mongo unavailable"))
+            .thenReturn(Optional.empty());
+        List<UserEvent> batch = List.of(
+            versioned(new UserCreatedEvent("other", "other@example.com", "password"), 1),
+            versioned(new UserLoginEvent(TEST_ID, true), 2));
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> projector.projectAll(batch));
+        projector.projectAll(batch);
+
+        // Assert
+        verify(userViewStore, times(2)).save(viewCaptor.capture());
+        assertEquals(TEST_ID, viewCaptor.getAllValues().get(0).getUserId());
+        assertEquals(2, viewCaptor.getAllValues().get(0).getVersion());
+        assertEquals("other", viewCaptor.getAllValues().get(1).getUserId());
+    }
+
+    @Test
+    void handle_ShouldOnlyReplaceAnOlderView() {
+        // Arrange
+        UserAggregate aggregate = new UserAggregate();
+        aggregate.setId(TEST_ID);
+        aggregate.apply(versioned(new UserCreatedEvent(TEST_ID, TEST_EMAIL, "password"), 1));
+        aggregate.apply(versioned(new UserLoginEvent(TEST_ID, true), 2));
+        when(userViewStore.saveReplayed(any())).thenReturn(false);
+
+        // Act
+        projector.handle(aggregate);
+
+        // Assert
+        verify(userViewStore).saveReplayed(viewCaptor.capture());
+        assertEquals(2, viewCaptor.getValue().getVersion());
+        assertEquals(1, viewCaptor.getValue().getSuccessfulLogins());
+        verify(userViewStore, never()).save(any());
+    }
+
+    private static <T extends UserEvent> T versioned(T event, long version) {
+        event.setVersion(version);
+        return event;
+    }
+}
@@ -0,0 +1,55 @@
+package com.banku.userservice.repository;
+
+import com.banku.userservice.projection.EmailIndexEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailIndexStoreCustomImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private EmailIndexStoreCustomImpl emailIndexStore;
+
+    private static final String TEST_ID = "test123";
+    private static final String TEST_EMAIL = "test@example.com";
+
+    @Test
+    void saveReplayed_ShouldOnlyReplaceOlderEntries() {
+        Instant replayStartedAt = Instant.now();
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+
+        assertTrue(emailIndexStore.saveReplayed(new EmailIndexEntry(TEST_EMAIL, TEST_ID, 4, false), replayStartedAt));
+
+        verify(mongoTemplate).upsert(query.capture(), any(Update.class), eq(EmailIndexEntry.class));
+        assertEquals(TEST_EMAIL, query.getValue().getQueryObject().get("_id"));
+        String filter = query.getValue().getQueryObject().toString();
+        assertTrue(filter.contains("indexedAt=Document{{$not=Document{{$gte=" + replayStartedAt));
+        assertTrue(filter.contains("aggregateId=" + TEST_ID + ", version=Document{{$lte=4}}"));
+    }
+
+    @Test
+    void saveReplayed_WhenNewerEntryExists_ShouldKeepIt() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(EmailIndexEntry.class)))
+            .thenThrow(new DuplicateKeyException("E11000"));
+
+        assertFalse(emailIndexStore.saveReplayed(new EmailIndexEntry(TEST_EMAIL, TEST_ID, 4, false), Instant.now()));
+    }
+}
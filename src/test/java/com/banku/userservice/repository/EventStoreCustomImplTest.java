@@ -0,0 +1,196 @@
+package com.banku.userservice.repository;
+
+import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.event.UserLoginEvent;
+import com.banku.userservice.exception.ConcurrencyConflictException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventStoreCustomImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @InjectMocks
+    private EventStoreCustomImpl eventStore;
+
+    private static final String TEST_ID = "test123";
+
+    @Test
+    void append_ShouldInsertNextVersionPendingPublication() {
+        UserLoginEvent event = new UserLoginEvent(TEST_ID, true);
+        when(mongoTemplate.insert(event)).thenReturn(event);
+
+        UserEvent result = eventStore.append(event, 4);
+
+        assertEquals(5, result.getVersion());
+        assertNotNull(result.getPendingSince());
+        verify(mongoTemplate).insert(event);
+    }
+
+    @Test
+    void findLastAggregateIdByEmail_ShouldReturnTheAggregateOfTheLatestEventWithThatEmail() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.getCollectionName(UserEvent.class)).thenReturn("user_events");
+        when(mongoTemplate.findOne(query.capture(), eq(Document.class), eq("user_events")))
+            .thenReturn(new Document("aggregateId", TEST_ID));
+
+        assertEquals(Optional.of(TEST_ID), eventStore.findLastAggregateIdByEmail("test@example.com"));
+        assertEquals("test@example.com", query.getValue().getQueryObject().get("email"));
+        assertEquals(new Document("timestamp", -1), query.getValue().getSortObject());
+        assertEquals(1, query.getValue().getLimit());
+    }
+
+    @Test
+    void findLatestVersion_ShouldReadTheHighestVersionFromTheIndex() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.getCollectionName(UserEvent.class)).thenReturn("user_events");
+        when(mongoTemplate.findOne(query.capture(), eq(Document.class), eq("user_events")))
+            .thenReturn(new Document("version", 7L));
+
+        assertEquals(7, eventStore.findLatestVersion(TEST_ID));
+        assertEquals(TEST_ID, query.getValue().getQueryObject().get("aggregateId"));
+        assertEquals(new Document("version", -1), query.getValue().getSortObject());
+        assertEquals(new Document("version", 1).append("_id", 0), query.getValue().getFieldsObject());
+    }
+
+    @Test
+    void findLatestVersion_WhenNoEvents_ShouldReturnZero() {
+        when(mongoTemplate.getCollectionName(UserEvent.class)).thenReturn("user_events");
+
+        assertEquals(0, eventStore.findLatestVersion(TEST_ID));
+    }
+
+    @Test
+    void append_WhenVersionExists_ShouldThrowConflict() {
+        UserLoginEvent event = new UserLoginEvent(TEST_ID, true);
+        when(mongoTemplate.insert(event)).thenThrow(new DuplicateKeyException("E11000 duplicate key"));
+
+        ConcurrencyConflictException exception = assertThrows(ConcurrencyConflictException.class,
+            () -> eventStore.append(event, 4));
+
+        assertEquals(TEST_ID, exception.getAggregateId());
+        assertEquals(4, exception.getExpectedVersion());
+    }
+
+    @Test
+    void appendAll_ShouldWriteBatchInOneBulkInsert() {
+        List<UserEvent> events = List.of(versioned(new UserLoginEvent(TEST_ID, true), 2), versioned(new UserLoginEvent("other", true), 5));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, UserEvent.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+
+        List<EventAppendResult> results = eventStore.appendAll(events);
+
+        verify(bulkOperations).insert(events);
+        verify(bulkOperations).execute();
+        assertTrue(results.stream().allMatch(EventAppendResult::isAppended));
+    }
+
+    @Test
+    void appendAll_WhenEventConflicts_ShouldReportPerEventOutcome() {
+        List<UserEvent> events = List.of(
+            versioned(new UserLoginEvent("first", true), 2),
+            versioned(new UserLoginEvent(TEST_ID, true), 3),
+            versioned(new UserLoginEvent("last", true), 7));
+        BulkWriteError duplicate = new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 1);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, UserEvent.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenThrow(new BulkOperationException("bulk write failed",
+            new MongoBulkWriteException(BulkWriteResult.acknowledged(1, 0, 0, 0, List.of(), List.of()),
+                List.of(duplicate), null, new ServerAddress(), Set.of())));
+
+        List<EventAppendResult> results = eventStore.appendAll(events);
+
+        assertEquals(EventAppendResult.Status.APPENDED, results.get(0).getStatus());
+        assertEquals(EventAppendResult.Status.CONFLICT, results.get(1).getStatus());
+        assertEquals(EventAppendResult.Status.SKIPPED, results.get(2).getStatus());
+    }
+
+    @Test
+    void streamByAggregateId_ShouldQueryVersionsAfterGivenVersionInOrder() throws Exception {
+        var field = EventStoreCustomImpl.class.getDeclaredField("replayBatchSize");
+        field.setAccessible(true);
+        field.set(eventStore, 250);
+        when(mongoTemplate.stream(any(Query.class), eq(UserEvent.class))).thenReturn(Stream.empty());
+
+        eventStore.streamByAggregateId(TEST_ID, 10);
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(queryCaptor.capture(), eq(UserEvent.class));
+        Query query = queryCaptor.getValue();
+        assertEquals(TEST_ID, query.getQueryObject().get("aggregateId"));
+        assertEquals(10L, query.getQueryObject().get("version", Document.class).get("$gt"));
+        assertEquals(1, query.getSortObject().get("version"));
+        assertEquals(250, query.getMeta().getCursorBatchSize());
+    }
+
+    @Test
+    void streamAggregateRange_ShouldBoundAggregateIds() {
+        when(mongoTemplate.stream(any(Query.class), eq(UserEvent.class))).thenReturn(Stream.empty());
+
+        eventStore.streamAggregateRange("a", "b");
+        eventStore.streamAggregateRange(null, null);
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).stream(queryCaptor.capture(), eq(UserEvent.class));
+        Document range = queryCaptor.getAllValues().get(0).getQueryObject().get("aggregateId", Document.class);
+        assertEquals("a", range.get("$gte"));
+        assertEquals("b", range.get("$lt"));
+        assertEquals(1, queryCaptor.getAllValues().get(0).getSortObject().get("aggregateId"));
+        assertTrue(queryCaptor.getAllValues().get(1).getQueryObject().isEmpty());
+    }
+
+    @Test
+    void markPublished_ShouldUnsetPendingMarker() {
+        eventStore.markPublished(List.of("e1", "e2"));
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(queryCaptor.capture(), updateCaptor.capture(), eq(UserEvent.class));
+        assertEquals(List.of("e1", "e2"), queryCaptor.getValue().getQueryObject().get("_id", Document.class).get("$in"));
+        assertTrue(updateCaptor.getValue().getUpdateObject().get("$unset", Document.class).containsKey("pendingSince"));
+    }
+
+    @Test
+    void markPublished_WhenNothingAcknowledged_ShouldNotWrite() {
+        eventStore.markPublished(List.of());
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private static UserEvent versioned(UserEvent event, long version) {
+        event.setVersion(version);
+        return event;
+    }
+}
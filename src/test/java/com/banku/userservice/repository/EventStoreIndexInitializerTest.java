@@ -0,0 +1,119 @@
+package com.banku.userservice.repository;
+
+import com.banku.userservice.aggregate.UserSnapshot;
+import com.banku.userservice.event.UserEvent;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventStoreIndexInitializerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private EventStoreIndexInitializer initializer;
+
+    private static final List<IndexField> AGGREGATE_VERSION = List.of(
+        IndexField.create("aggregateId", Sort.Direction.ASC),
+        IndexField.create("version", Sort.Direction.ASC));
+
+    @Test
+    void verify_WhenUniqueIndexPresent_ShouldPass() {
+        IndexInfo index = new IndexInfo(AGGREGATE_VERSION, "aggregate_version_idx", true, false, "");
+
+        assertDoesNotThrow(() -> initializer.verify(List.of(index)));
+    }
+
+    @Test
+    void verify_WhenIndexNotUnique_ShouldFail() {
+        IndexInfo index = new IndexInfo(AGGREGATE_VERSION, "aggregate_version_idx", false, false, "");
+
+        assertThrows(IllegalStateException.class, () -> initializer.verify(List.of(index)));
+    }
+
+    @Test
+    void emailIndex_ShouldCoverTheEmailFallbackQueryOnlyForEventsWithAnEmail() {
+        Document index = EventStoreIndexInitializer.emailIndex().getIndexKeys();
+        Document options = EventStoreIndexInitializer.emailIndex().getIndexOptions();
+
+        assertEquals(new Document("email", 1).append("timestamp", -1), index);
+        assertEquals(UserEvent.EMAIL_INDEX, options.get("name"));
+        assertEquals(new Document("email", new Document("$exists", true)), options.get("partialFilterExpression"));
+    }
+
+    @Test
+    void verify_WhenIndexMissing_ShouldFail() {
+        assertThrows(IllegalStateException.class, () -> initializer.verify(List.of()));
+    }
+
+    @Test
+    void resolveDuplicateVersions_WhenNone_ShouldDoNothing() {
+        duplicateVersions();
+
+        assertDoesNotThrow(() -> initializer.resolveDuplicateVersions());
+
+        verify(mongoTemplate, never()).remove(any(Query.class), any(Class.class));
+    }
+
+    @Test
+    void resolveDuplicateVersions_WhenDuplicatesExist_ShouldFailNamingTheAggregates() {
+        duplicateVersions(version("user-1", 3), version("user-1", 4), version("user-2", 1));
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+            () -> initializer.resolveDuplicateVersions());
+
+        assertTrue(failure.getMessage().contains("3 versions of 2 aggregates"));
+        assertTrue(failure.getMessage().contains("[user-1, user-2]"));
+        assertTrue(failure.getMessage().contains("event-store.deduplicate-on-startup"));
+        verify(mongoTemplate, never()).save(any(), any());
+    }
+
+    @Test
+    void resolveDuplicateVersions_WhenEnabled_ShouldMoveTheLaterCopies() {
+        ReflectionTestUtils.setField(initializer, "deduplicateOnStartup", true);
+        duplicateVersions(version("user-1", 3));
+        Document first = new Document("_id", "event-a");
+        Document second = new Document("_id", "event-b");
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("user_events")))
+            .thenReturn(List.of(first, second));
+
+        initializer.resolveDuplicateVersions();
+
+        verify(mongoTemplate).save(second, EventStoreIndexInitializer.DUPLICATES_COLLECTION);
+        verify(mongoTemplate, never()).save(first, EventStoreIndexInitializer.DUPLICATES_COLLECTION);
+        verify(mongoTemplate).remove(argThat((Query query) -> query.getQueryObject().toString().contains("event-b")
+            && !query.getQueryObject().toString().contains("event-a")), eq("user_events"));
+        verify(mongoTemplate).remove(any(Query.class), eq(UserSnapshot.class));
+    }
+
+    private void duplicateVersions(Document... versions) {
+        when(mongoTemplate.getCollectionName(UserEvent.class)).thenReturn("user_events");
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("user_events"), eq(Document.class)))
+            .thenReturn(new AggregationResults<>(List.of(versions), new Document()));
+    }
+
+    private static Document version(String aggregateId, long version) {
+        return new Document("_id", new Document("aggregateId", aggregateId).append("version", version))
+            .append("count", 2);
+    }
+}
@@ -0,0 +1,96 @@
+package com.banku.userservice.repository;
+
+import com.banku.userservice.aggregate.UserAggregate;
+import com.banku.userservice.event.UserCreatedEvent;
+import com.banku.userservice.event.UserDeletedEvent;
+import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.event.UserUpdatedEvent;
+import com.banku.userservice.event.codec.EventCodecRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserAggregateCacheListenerTest {
+
+    private static final String TEST_ID = "test123";
+    private static final String TEST_EMAIL = "test@example.com";
+
+    private EventCodecRegistry eventCodecRegistry;
+    private UserAggregateCache cache;
+    private UserAggregateCacheListener listener;
+
+    @BeforeEach
+    void setUp() {
+        eventCodecRegistry = new EventCodecRegistry(Jackson2ObjectMapperBuilder.json().build(), "json");
+        cache = new UserAggregateCache(100, Duration.ofMinutes(10));
+        listener = new UserAggregateCacheListener(eventCodecRegistry, cache);
+        cache.onAppend(versioned(new UserCreatedEvent(TEST_ID, TEST_EMAIL, "old-hash"), 1));
+    }
+
+    @Test
+    void listen_WhenAnotherInstanceChangedThePassword_ShouldServeTheNewPassword() {
+        // Act
+        listener.listen(record(versioned(new UserUpdatedEvent(TEST_ID, null, "new-hash"), 2)));
+
+        // Assert
+        UserAggregate cached = cache.get(TEST_ID);
+        assertEquals(2, cached.getVersion());
+        assertEquals("new-hash", cached.getPassword());
+    }
+
+    @Test
+    void listen_WhenAnotherInstanceDeletedTheUser_ShouldServeTheDeletion() {
+        // Act
+        listener.listen(record(versioned(new UserDeletedEvent(TEST_ID), 2)));
+
+        // Assert
+        assertTrue(cache.get(TEST_ID).isDeleted());
+    }
+
+    @Test
+    void listen_WhenRecordCannotBeDecoded_ShouldEvictItsAggregate() {
+        // Act
+        listener.listen(new ConsumerRecord<>("banku.user", 0, 0, TEST_ID, "not json".getBytes()));
+
+        // Assert
+        assertNull(cache.get(TEST_ID));
+    }
+
+    @Test
+    void onPartitionsAssigned_ShouldRewindToShortlyBeforeStartup() {
+        // Arrange
+        ConsumerSeekCallback callback = mock(ConsumerSeekCallback.class);
+        TopicPartition partition = new TopicPartition("banku.user", 0);
+
+        // Act
+        listener.onPartitionsAssigned(Map.of(partition, 10L), callback);
+
+        // Assert
+        ArgumentCaptor<Long> timestamp = ArgumentCaptor.forClass(Long.class);
+        verify(callback).seekToTimestamp(eq(Set.of(partition)), timestamp.capture());
+        assertTrue(timestamp.getValue() <= Instant.now().minus(UserAggregateCacheListener.STARTUP_MARGIN).toEpochMilli());
+        assertTrue(timestamp.getValue() > Instant.now().minus(UserAggregateCacheListener.STARTUP_MARGIN.multipliedBy(2)).toEpochMilli());
+    }
+
+    private ConsumerRecord<String, byte[]> record(UserEvent event) {
+        return new ConsumerRecord<>("banku.user", 0, 0, event.getAggregateId(), eventCodecRegistry.forPublishing().encode(event));
+    }
+
+    private static UserEvent versioned(UserEvent event, long version) {
+        event.setVersion(version);
+        return event;
+    }
+}
@@ -0,0 +1,131 @@
+package com.banku.userservice.repository;
+
+import com.banku.userservice.aggregate.UserAggregate;
+import com.banku.userservice.event.UserCreatedEvent;
+import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.event.UserLoginEvent;
+import com.banku.userservice.event.UserUpdatedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserAggregateCacheTest {
+
+    private static final String TEST_ID = "test123";
+    private static final String TEST_EMAIL = "test@example.com";
+
+    private UserAggregateCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserAggregateCache(100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void get_ShouldNeverExposeCachedInstance() {
+        cache.onAppend(versioned(new UserCreatedEvent(TEST_ID, TEST_EMAIL, "password"), 1));
+
+        UserAggregate first = cache.get(TEST_ID);
+        first.setEmail("changed@example.com");
+        first.setSuccessfulLogins(42);
+        UserAggregate second = cache.get(TEST_ID);
+
+        assertNotSame(first, second);
+        assertEquals(TEST_EMAIL, second.getEmail());
+        assertEquals(0, second.getSuccessfulLogins());
+    }
+
+    @Test
+    void onAppend_ShouldFoldConsecutiveEvents() {
+        cache.onAppend(versioned(new UserCreatedEvent(TEST_ID, TEST_EMAIL, "password"), 1));
+        cache.onAppend(versioned(new UserLoginEvent(TEST_ID, true), 2));
+        cache.onAppend(versioned(new UserUpdatedEvent(TEST_ID, "new@example.com", null), 3));
+
+        UserAggregate result = cache.get(TEST_ID);
+
+        assertEquals(3, result.getVersion());
+        assertEquals("new@example.com", result.getEmail());
+        assertEquals(1, result.getSuccessfulLogins());
+    }
+
+    @Test
+    void onAppend_WhenVersionGap_ShouldEvictEntry() {
+        cache.onAppend(versioned(new UserCreatedEvent(TEST_ID, TEST_EMAIL, "password"), 1));
+        cache.onAppend(versioned(new UserLoginEvent(TEST_ID, true), 3));
+
+        assertNull(cache.get(TEST_ID));
+    }
+
+    @Test
+    void onAppend_WhenEventAlreadyApplied_ShouldKeepEntry() {
+        cache.onAppend(versioned(new UserCreatedEvent(TEST_ID, TEST_EMAIL, "password"), 1));
+        cache.onAppend(versioned(new UserLoginEvent(TEST_ID, true), 2));
+        cache.onAppend(versioned(new UserLoginEvent(TEST_ID, true), 2));
+
+        assertEquals(1, cache.get(TEST_ID).getSuccessfulLogins());
+    }
+
+    @Test
+    void onAppend_WhenNotCached_ShouldIgnoreNonCreationEvents() {
+        cache.onAppend(versioned(new UserLoginEvent(TEST_ID, true), 5));
+
+        assertNull(cache.get(TEST_ID));
+    }
+
+    @Test
+    void onExternalAppend_ShouldFoldEventsOfOtherInstancesIntoCachedEntry() {
+        cache.onAppend(versioned(new UserCreatedEvent(TEST_ID, TEST_EMAIL, "password"), 1));
+
+        cache.onExternalAppend(versioned(new UserUpdatedEvent(TEST_ID, null, "new-password"), 2));
+
+        assertEquals(2, cache.get(TEST_ID).getVersion());
+        assertEquals("new-password", cache.get(TEST_ID).getPassword());
+    }
+
+    @Test
+    void onExternalAppend_WhenVersionGap_ShouldEvictEntry() {
+        cache.onAppend(versioned(new UserCreatedEvent(TEST_ID, TEST_EMAIL, "password"), 1));
+
+        cache.onExternalAppend(versioned(new UserUpdatedEvent(TEST_ID, null, "new-password"), 3));
+
+        assertNull(cache.get(TEST_ID));
+    }
+
+    @Test
+    void onExternalAppend_WhenEventAlreadyApplied_ShouldKeepEntry() {
+        cache.onAppend(versioned(new UserCreatedEvent(TEST_ID, TEST_EMAIL, "password"), 1));
+        cache.onAppend(versioned(new UserLoginEvent(TEST_ID, true), 2));
+
+        cache.onExternalAppend(versioned(new UserLoginEvent(TEST_ID, true), 2));
+
+        assertEquals(1, cache.get(TEST_ID).getSuccessfulLogins());
+    }
+
+    @Test
+    void onExternalAppend_WhenNotCached_ShouldNotAddEntry() {
+        cache.onExternalAppend(versioned(new UserCreatedEvent(TEST_ID, TEST_EMAIL, "password"), 1));
+
+        assertNull(cache.get(TEST_ID));
+    }
+
+    @Test
+    void stats_ShouldRecordHitsAndMisses() {
+        UserAggregate aggregate = new UserAggregate();
+        aggregate.setId(TEST_ID);
+        cache.put(aggregate);
+
+        cache.get(TEST_ID);
+        cache.get("missing");
+
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    private static UserEvent versioned(UserEvent event, long version) {
+        event.setVersion(version);
+        return event;
+    }
+}
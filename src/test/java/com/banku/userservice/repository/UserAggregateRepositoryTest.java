@@ -1,11 +1,14 @@
 package com.banku.userservice.repository;
 
 import com.banku.userservice.aggregate.UserAggregate;
+import com.banku.userservice.aggregate.UserSnapshot;
 import com.banku.userservice.event.UserEvent;
 import com.banku.userservice.event.UserCreatedEvent;
 import com.banku.userservice.event.UserDeletedEvent;
+import com.banku.userservice.event.UserLoginEvent;
 import com.banku.userservice.event.UserUpdatedEvent;
-import com.banku.userservice.service.KafkaService;
+import com.banku.userservice.exception.ConcurrencyConflictException;
+import com.banku.userservice.projection.EmailIndexProjection;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,10 +18,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,7 +32,13 @@ class UserAggregateRepositoryTest {
     private EventStore eventStore;
 
     @Mock
-    private KafkaService kafkaService;
+    private EmailIndexProjection emailIndexProjection;
+
+    @Mock
+    private SnapshotStore snapshotStore;
+
+    @Mock
+    private UserAggregateCache userAggregateCache;
 
     @InjectMocks
     private UserAggregateRepository repository;
@@ -38,6 +46,9 @@ class UserAggregateRepositoryTest {
     @Captor
     private ArgumentCaptor<UserEvent> eventCaptor;
 
+    @Captor
+    private ArgumentCaptor<UserSnapshot> snapshotCaptor;
+
     private static final String TEST_ID = "test123";
     private static final String TEST_EMAIL = "test@example.com";
     private static final String TEST_PASSWORD = "password123";
@@ -51,13 +62,19 @@ class UserAggregateRepositoryTest {
         testCreatedEvent = new UserCreatedEvent(TEST_ID, TEST_EMAIL, TEST_PASSWORD);
         testUpdatedEvent = new UserUpdatedEvent(TEST_ID, TEST_EMAIL, TEST_PASSWORD);
         testDeletedEvent = new UserDeletedEvent(TEST_ID);
+
+        lenient().when(eventStore.append(any(UserEvent.class), anyLong())).thenAnswer(invocation -> {
+            UserEvent event = invocation.getArgument(0);
+            event.setVersion(invocation.<Long>getArgument(1) + 1);
+            return event;
+        });
     }
 
     @Test
     void findById_WhenEventsExist_ShouldReturnAggregate() {
         // Arrange
-        when(eventStore.findByAggregateIdOrderByVersionAsc(TEST_ID))
-            .thenReturn(Arrays.asList(testCreatedEvent));
+        when(eventStore.streamByAggregateId(TEST_ID, 0L))
+            .thenAnswer(invocation -> Stream.of(testCreatedEvent));
 
         // Act
         UserAggregate result = repository.findById(TEST_ID);
@@ -67,13 +84,29 @@ class UserAggregateRepositoryTest {
         assertEquals(TEST_ID, result.getId());
         assertEquals(TEST_EMAIL, result.getEmail());
         assertEquals(TEST_PASSWORD, result.getPassword());
+        verify(userAggregateCache).put(result);
+    }
+
+    @Test
+    void findById_WhenCached_ShouldNotReadEventStore() {
+        // Arrange
+        UserAggregate cached = new UserAggregate();
+        cached.setId(TEST_ID);
+        when(userAggregateCache.get(TEST_ID)).thenReturn(cached);
+
+        // Act
+        UserAggregate result = repository.findById(TEST_ID);
+
+        // Assert
+        assertSame(cached, result);
+        verifyNoInteractions(eventStore, snapshotStore);
     }
 
     @Test
     void findById_WhenNoEvents_ShouldReturnNull() {
         // Arrange
-        when(eventStore.findByAggregateIdOrderByVersionAsc(TEST_ID))
-            .thenReturn(Collections.emptyList());
+        when(eventStore.streamByAggregateId(TEST_ID, 0L))
+            .thenAnswer(invocation -> Stream.empty());
 
         // Act
         UserAggregate result = repository.findById(TEST_ID);
@@ -82,12 +115,88 @@ class UserAggregateRepositoryTest {
         assertNull(result);
     }
 
+    @Test
+    void findById_WhenSnapshotExists_ShouldReplayOnlyTail() {
+        // Arrange
+        UserAggregate state = new UserAggregate();
+        state.setId(TEST_ID);
+        state.apply(versioned(testCreatedEvent, 1));
+        UserLoginEvent loginEvent = new UserLoginEvent(TEST_ID, true);
+        when(snapshotStore.findById(TEST_ID)).thenReturn(Optional.of(UserSnapshot.of(state)));
+        when(eventStore.streamByAggregateId(TEST_ID, 1L))
+            .thenAnswer(invocation -> Stream.of(versioned(loginEvent, 2)));
+
+        // Act
+        UserAggregate result = repository.findById(TEST_ID);
+
+        // Assert
+        assertEquals(TEST_ID, result.getId());
+        assertEquals(TEST_EMAIL, result.getEmail());
+        assertEquals(2, result.getVersion());
+        assertEquals(1, result.getSuccessfulLogins());
+        assertEquals(loginEvent.getTimestamp(), result.getLastLoginAt());
+        verify(eventStore, never()).streamByAggregateId(TEST_ID, 0L);
+    }
+
+    @Test
+    void findById_ShouldCloseEventStream() {
+        // Arrange
+        boolean[] closed = {false};
+        when(eventStore.streamByAggregateId(TEST_ID, 0L))
+            .thenReturn(Stream.<UserEvent>of(versioned(testCreatedEvent, 1)).onClose(() -> closed[0] = true));
+
+        // Act
+        repository.findById(TEST_ID);
+
+        // Assert
+        assertTrue(closed[0]);
+    }
+
+    @Test
+    void findById_WhenSnapshotSchemaIsStale_ShouldRebuildFromEvents() {
+        // Arrange
+        UserSnapshot staleSnapshot = new UserSnapshot();
+        staleSnapshot.setAggregateId(TEST_ID);
+        staleSnapshot.setSchemaVersion(UserSnapshot.SCHEMA_VERSION - 1);
+        staleSnapshot.setVersion(1);
+        staleSnapshot.setEmail("stale@example.com");
+        when(snapshotStore.findById(TEST_ID)).thenReturn(Optional.of(staleSnapshot));
+        when(eventStore.streamByAggregateId(TEST_ID, 0L))
+            .thenAnswer(invocation -> Stream.of(versioned(testCreatedEvent, 1)));
+
+        // Act
+        UserAggregate result = repository.findById(TEST_ID);
+
+        // Assert
+        assertEquals(TEST_EMAIL, result.getEmail());
+        verify(snapshotStore).save(snapshotCaptor.capture());
+        assertEquals(UserSnapshot.SCHEMA_VERSION, snapshotCaptor.getValue().getSchemaVersion());
+    }
+
+    @Test
+    void findById_WhenTailReachesFrequency_ShouldWriteSnapshot() throws Exception {
+        // Arrange
+        var field = UserAggregateRepository.class.getDeclaredField("snapshotFrequency");
+        field.setAccessible(true);
+        field.set(repository, 2);
+        when(eventStore.streamByAggregateId(TEST_ID, 0L))
+            .thenAnswer(invocation -> Stream.of(versioned(testCreatedEvent, 1), versioned(new UserLoginEvent(TEST_ID, true), 2)));
+
+        // Act
+        repository.findById(TEST_ID);
+
+        // Assert
+        verify(snapshotStore).save(snapshotCaptor.capture());
+        assertEquals(TEST_ID, snapshotCaptor.getValue().getAggregateId());
+        assertEquals(2, snapshotCaptor.getValue().getVersion());
+    }
+
     @Test
     void findByEmail_WhenUserExists_ShouldReturnUser() {
         // Arrange
-        when(eventStore.findAll()).thenReturn(Arrays.asList(testCreatedEvent));
-        when(eventStore.findByAggregateIdOrderByVersionAsc(TEST_ID))
-            .thenReturn(Arrays.asList(testCreatedEvent));
+        when(emailIndexProjection.findAggregateId(TEST_EMAIL)).thenReturn(Optional.of(TEST_ID));
+        when(eventStore.streamByAggregateId(TEST_ID, 0L))
+            .thenAnswer(invocation -> Stream.of(testCreatedEvent));
 
         // Act
         Optional<UserAggregate> result = repository.findByEmail(TEST_EMAIL);
@@ -95,56 +204,238 @@ class UserAggregateRepositoryTest {
         // Assert
         assertTrue(result.isPresent());
         assertEquals(TEST_EMAIL, result.get().getEmail());
+        verify(eventStore, never()).findAll();
+    }
+
+    @Test
+    void findByEmail_WhenCachedAggregateIsCurrent_ShouldNotReplay() {
+        // Arrange
+        UserAggregate cached = new UserAggregate();
+        cached.setId(TEST_ID);
+        cached.apply(versioned(testCreatedEvent, 1));
+        when(emailIndexProjection.findAggregateId(TEST_EMAIL)).thenReturn(Optional.of(TEST_ID));
+        when(userAggregateCache.get(TEST_ID)).thenReturn(cached);
+        when(eventStore.findLatestVersion(TEST_ID)).thenReturn(1L);
+
+        // Act
+        Optional<UserAggregate> result = repository.findByEmail(TEST_EMAIL);
+
+        // Assert
+        assertSame(cached, result.orElseThrow());
+        verify(eventStore, never()).streamByAggregateId(any(), anyLong());
     }
 
     @Test
-    void createUser_ShouldSaveEventAndPublishToKafka() {
+    void findByEmail_WhenAnotherInstanceChangedThePassword_ShouldReloadInsteadOfUsingCache() {
+        // Arrange: this instance cached version 1, another instance appended version 2
+        UserAggregate cached = new UserAggregate();
+        cached.setId(TEST_ID);
+        cached.apply(versioned(testCreatedEvent, 1));
+        UserEvent passwordChange = versioned(new UserUpdatedEvent(TEST_ID, null, "new-hash"), 2);
+        when(emailIndexProjection.findAggregateId(TEST_EMAIL)).thenReturn(Optional.of(TEST_ID));
+        when(userAggregateCache.get(TEST_ID)).thenReturn(cached, (UserAggregate) null);
+        when(eventStore.findLatestVersion(TEST_ID)).thenReturn(2L);
+        when(eventStore.streamByAggregateId(TEST_ID, 0L))
+            .thenAnswer(invocation -> Stream.of(versioned(testCreatedEvent, 1), passwordChange));
+
+        // Act
+        UserAggregate result = repository.findByEmail(TEST_EMAIL).orElseThrow();
+
+        // Assert
+        assertEquals(2, result.getVersion());
+        assertEquals("new-hash", result.getPassword());
+        verify(userAggregateCache).invalidate(TEST_ID);
+        verify(userAggregateCache).put(result);
+    }
+
+    @Test
+    void findByEmail_WhenEmailNotIndexed_ShouldReturnEmpty() {
+        // Arrange
+        when(emailIndexProjection.findAggregateId(TEST_EMAIL)).thenReturn(Optional.empty());
+
+        // Act
+        Optional<UserAggregate> result = repository.findByEmail(TEST_EMAIL);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(eventStore);
+    }
+
+    @Test
+    void findByEmail_WhenIndexIsStale_ShouldReturnEmpty() {
+        // Arrange
+        when(emailIndexProjection.findAggregateId("old@example.com")).thenReturn(Optional.of(TEST_ID));
+        when(eventStore.streamByAggregateId(TEST_ID, 0L))
+            .thenAnswer(invocation -> Stream.of(testCreatedEvent));
+
+        // Act
+        Optional<UserAggregate> result = repository.findByEmail("old@example.com");
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void createUser_ShouldAppendEvent() {
         // Act
         repository.createUser(TEST_ID, TEST_EMAIL, TEST_PASSWORD);
 
         // Assert
-        verify(eventStore).save(eventCaptor.capture());
-        verify(kafkaService).publishEvent(eventCaptor.getValue());
+        verify(eventStore).append(eventCaptor.capture(), eq(0L));
         
         UserEvent capturedEvent = eventCaptor.getValue();
         assertTrue(capturedEvent instanceof UserCreatedEvent);
         assertEquals(TEST_ID, capturedEvent.getAggregateId());
         assertEquals(1, capturedEvent.getVersion());
+        verify(emailIndexProjection).onUserCreated(TEST_ID, TEST_EMAIL, 1);
+        verify(userAggregateCache).onAppend(capturedEvent);
     }
 
     @Test
-    void updateUser_WhenUserExists_ShouldSaveEventAndPublishToKafka() {
+    void updateUser_WhenUserExists_ShouldAppendEvent() {
         // Arrange
-        when(eventStore.findByAggregateIdOrderByVersionAsc(TEST_ID))
-            .thenReturn(Arrays.asList(testCreatedEvent));
+        when(eventStore.streamByAggregateId(TEST_ID, 0L))
+            .thenAnswer(invocation -> Stream.of(versioned(testCreatedEvent, 1)));
 
         // Act
-        repository.updateUser(TEST_ID, TEST_EMAIL, TEST_PASSWORD);
+        repository.updateUser(TEST_ID, "new@example.com", TEST_PASSWORD);
 
         // Assert
-        verify(eventStore).save(eventCaptor.capture());
-        verify(kafkaService).publishEvent(eventCaptor.getValue());
+        verify(eventStore).append(eventCaptor.capture(), eq(1L));
         
         UserEvent capturedEvent = eventCaptor.getValue();
         assertTrue(capturedEvent instanceof UserUpdatedEvent);
+        assertEquals(2, capturedEvent.getVersion());
         assertEquals(TEST_ID, capturedEvent.getAggregateId());
+        verify(emailIndexProjection).onUserUpdated(TEST_ID, TEST_EMAIL, "new@example.com", capturedEvent.getVersion());
+    }
+
+    @Test
+    void rehashPassword_WhenHashIsUnchanged_ShouldAppendRehashEvent() {
+        // Arrange
+        when(eventStore.streamByAggregateId(TEST_ID, 0L))
+            .thenAnswer(invocation -> Stream.of(versioned(testCreatedEvent, 1)));
+
+        // Act
+        boolean rehashed = repository.rehashPassword(TEST_ID, TEST_PASSWORD, "{bcrypt}stronger");
+
+        // Assert
+        assertTrue(rehashed);
+        verify(eventStore).append(eventCaptor.capture(), eq(1L));
+        UserUpdatedEvent event = (UserUpdatedEvent) eventCaptor.getValue();
+        assertEquals("{bcrypt}stronger", event.getPassword());
+        assertNull(event.getEmail());
+        assertTrue(event.isPasswordRehash());
+        verifyNoInteractions(emailIndexProjection);
+    }
+
+    @Test
+    void rehashPassword_WhenPasswordChangedMeanwhile_ShouldNotAppend() {
+        // Arrange
+        when(eventStore.streamByAggregateId(TEST_ID, 0L))
+            .thenAnswer(invocation -> Stream.of(versioned(testCreatedEvent, 1)));
+
+        // Act
+        boolean rehashed = repository.rehashPassword(TEST_ID, "previous-hash", "{bcrypt}stronger");
+
+        // Assert
+        assertFalse(rehashed);
+        verify(eventStore, never()).append(any(UserEvent.class), anyLong());
     }
 
     @Test
-    void deleteUser_WhenUserExists_ShouldSaveEventAndPublishToKafka() {
+    void deleteUser_WhenUserExists_ShouldAppendEvent() {
         // Arrange
-        when(eventStore.findByAggregateIdOrderByVersionAsc(TEST_ID))
-            .thenReturn(Arrays.asList(testCreatedEvent));
+        when(eventStore.streamByAggregateId(TEST_ID, 0L))
+            .thenAnswer(invocation -> Stream.of(versioned(testCreatedEvent, 1)));
 
         // Act
         repository.deleteUser(TEST_ID);
 
         // Assert
-        verify(eventStore).save(eventCaptor.capture());
-        verify(kafkaService).publishEvent(eventCaptor.getValue());
+        verify(eventStore).append(eventCaptor.capture(), eq(1L));
         
         UserEvent capturedEvent = eventCaptor.getValue();
         assertTrue(capturedEvent instanceof UserDeletedEvent);
         assertEquals(TEST_ID, capturedEvent.getAggregateId());
+        verify(emailIndexProjection).onUserDeleted(TEST_ID, TEST_EMAIL, capturedEvent.getVersion());
+    }
+
+    @Test
+    void updateUser_WhenVersionConflict_ShouldInvalidateCacheAndRethrow() {
+        // Arrange
+        when(eventStore.streamByAggregateId(TEST_ID, 0L))
+            .thenAnswer(invocation -> Stream.of(versioned(testCreatedEvent, 1)));
+        when(eventStore.append(any(UserEvent.class), eq(1L)))
+            .thenThrow(new ConcurrencyConflictException(TEST_ID, 1L, null));
+
+        // Act & Assert
+        assertThrows(ConcurrencyConflictException.class, () -> repository.updateUser(TEST_ID, TEST_EMAIL, TEST_PASSWORD));
+        verify(userAggregateCache).invalidate(TEST_ID);
+        verifyNoInteractions(emailIndexProjection);
+    }
+
+    @Test
+    void loginUser_WhenVersionConflict_ShouldRetryWithReloadedVersion() {
+        // Arrange
+        UserAggregate stale = new UserAggregate();
+        stale.setId(TEST_ID);
+        stale.setVersion(1);
+        when(eventStore.append(any(UserEvent.class), eq(1L)))
+            .thenThrow(new ConcurrencyConflictException(TEST_ID, 1L, null));
+        when(eventStore.streamByAggregateId(TEST_ID, 0L))
+            .thenAnswer(invocation -> Stream.of(versioned(testCreatedEvent, 1), versioned(new UserLoginEvent(TEST_ID, true), 2)));
+
+        // Act
+        repository.loginUser(stale, false);
+
+        // Assert
+        verify(eventStore).append(eventCaptor.capture(), eq(2L));
+        assertTrue(eventCaptor.getValue() instanceof UserLoginEvent);
+        assertEquals(3, eventCaptor.getValue().getVersion());
+    }
+
+    @Test
+    void appendEvents_ShouldUpdateCacheAndProjectionForAppendedEvents() {
+        // Arrange
+        UserEvent created = versioned(new UserCreatedEvent("new-user", "new@example.com", TEST_PASSWORD), 1);
+        UserEvent login = versioned(new UserLoginEvent(TEST_ID, true), 2);
+        UserEvent conflicting = versioned(new UserLoginEvent("other", true), 4);
+        List<UserEvent> events = List.of(created, login, conflicting);
+        when(eventStore.appendAll(events)).thenReturn(List.of(
+            new EventAppendResult(created, EventAppendResult.Status.APPENDED, null),
+            new EventAppendResult(login, EventAppendResult.Status.APPENDED, null),
+            new EventAppendResult(conflicting, EventAppendResult.Status.CONFLICT, "duplicate key")));
+
+        // Act
+        List<EventAppendResult> results = repository.appendEvents(events);
+
+        // Assert
+        assertEquals(3, results.size());
+        verify(userAggregateCache).onAppend(created);
+        verify(userAggregateCache).onAppend(login);
+        verify(userAggregateCache).invalidate("other");
+        verify(emailIndexProjection).onUserCreated("new-user", "new@example.com", 1);
+    }
+
+    @Test
+    void appendEvents_WhenEmailChanges_ShouldMoveEmailIndexEntry() {
+        // Arrange
+        when(eventStore.streamByAggregateId(TEST_ID, 0L))
+            .thenAnswer(invocation -> Stream.of(versioned(testCreatedEvent, 1)));
+        UserEvent updated = versioned(new UserUpdatedEvent(TEST_ID, "new@example.com", null), 2);
+        when(eventStore.appendAll(List.of(updated)))
+            .thenReturn(List.of(new EventAppendResult(updated, EventAppendResult.Status.APPENDED, null)));
+
+        // Act
+        repository.appendEvents(List.of(updated));
+
+        // Assert
+        verify(emailIndexProjection).onUserUpdated(TEST_ID, TEST_EMAIL, "new@example.com", 2);
+    }
+
+    private static UserEvent versioned(UserEvent event, long version) {
+        event.setVersion(version);
+        return event;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,55 @@
+package com.banku.userservice.repository;
+
+import com.banku.userservice.projection.UserView;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReplaceOptions;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserViewStoreCustomImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private UserViewStoreCustomImpl userViewStore;
+
+    private static final String TEST_ID = "test123";
+
+    @Test
+    void saveReplayed_ShouldOnlyReplaceOlderViews() {
+        UserView view = new UserView(TEST_ID);
+        view.setVersion(4);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<ReplaceOptions> options = ArgumentCaptor.forClass(ReplaceOptions.class);
+
+        assertTrue(userViewStore.saveReplayed(view));
+
+        verify(mongoTemplate).replace(query.capture(), same(view), options.capture());
+        assertEquals(TEST_ID, query.getValue().getQueryObject().get("_id"));
+        assertTrue(query.getValue().getQueryObject().toString().contains("version=Document{{$lt=4}}"));
+        assertTrue(options.getValue().isUpsert());
+    }
+
+    @Test
+    void saveReplayed_WhenNewerViewExists_ShouldKeepIt() {
+        UserView view = new UserView(TEST_ID);
+        view.setVersion(4);
+        when(mongoTemplate.replace(any(Query.class), same(view), any(ReplaceOptions.class)))
+            .thenThrow(new DuplicateKeyException("E11000"));
+
+        assertFalse(userViewStore.saveReplayed(view));
+    }
+}
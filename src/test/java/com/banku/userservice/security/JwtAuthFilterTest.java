@@ -7,17 +7,20 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,31 +44,55 @@ class JwtAuthFilterTest {
     @Mock
     private UserDetails userDetails;
 
-    @InjectMocks
     private JwtAuthFilter jwtAuthFilter;
 
     private static final String TEST_TOKEN = "test.jwt.token";
     private static final String TEST_USERNAME = "test@example.com";
+    private static final String TEST_USER_ID = "test-user-id";
+    private static final VerifiedClaims TEST_CLAIMS = new VerifiedClaims(
+            TEST_USERNAME, TEST_USER_ID, Instant.now(), Instant.now().plusSeconds(3600));
 
     @BeforeEach
     void setUp() {
         SecurityContextHolder.clearContext();
+        jwtAuthFilter = new JwtAuthFilter(jwtService, authenticationService, "user-details");
     }
 
     @Test
     void doFilterInternal_WhenValidToken_ShouldSetAuthentication() throws ServletException, IOException {
         // Arrange
         when(request.getHeader("Authorization")).thenReturn("Bearer " + TEST_TOKEN);
-        when(jwtService.extractUsername(TEST_TOKEN)).thenReturn(TEST_USERNAME);
+        when(jwtService.verify(TEST_TOKEN)).thenReturn(Optional.of(TEST_CLAIMS));
         when(authenticationService.loadUserByUsername(TEST_USERNAME)).thenReturn(userDetails);
-        when(jwtService.isTokenValid(eq(TEST_TOKEN))).thenReturn(true);
 
         // Act
         jwtAuthFilter.doFilterInternal(request, response, filterChain);
 
         // Assert
         verify(filterChain).doFilter(request, response);
+        verify(jwtService, times(1)).verify(TEST_TOKEN);
+        verifyNoMoreInteractions(jwtService);
         assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(Map.of("userId", TEST_USER_ID), SecurityContextHolder.getContext().getAuthentication().getDetails());
+    }
+
+    @Test
+    void doFilterInternal_InClaimsMode_ShouldAuthenticateWithoutLoadingTheUser() throws ServletException, IOException {
+        // Arrange
+        jwtAuthFilter = new JwtAuthFilter(jwtService, authenticationService, "claims");
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + TEST_TOKEN);
+        when(jwtService.verify(TEST_TOKEN)).thenReturn(Optional.of(TEST_CLAIMS));
+
+        // Act
+        jwtAuthFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(authenticationService);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(new TokenPrincipal(TEST_USER_ID, TEST_USERNAME), authentication.getPrincipal());
+        assertEquals(TEST_USERNAME, authentication.getName());
+        assertEquals(TEST_USER_ID, JwtService.extractUserId());
     }
 
     @Test
@@ -85,15 +112,14 @@ class JwtAuthFilterTest {
     void doFilterInternal_WhenInvalidToken_ShouldContinueChain() throws ServletException, IOException {
         // Arrange
         when(request.getHeader("Authorization")).thenReturn("Bearer " + TEST_TOKEN);
-        when(jwtService.extractUsername(TEST_TOKEN)).thenReturn(TEST_USERNAME);
-        when(authenticationService.loadUserByUsername(TEST_USERNAME)).thenReturn(userDetails);
-        when(jwtService.isTokenValid(eq(TEST_TOKEN))).thenReturn(false);
+        when(jwtService.verify(TEST_TOKEN)).thenReturn(Optional.empty());
 
         // Act
         jwtAuthFilter.doFilterInternal(request, response, filterChain);
 
         // Assert
         verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(authenticationService);
         assertNull(SecurityContextHolder.getContext().getAuthentication());
     }
 
@@ -8,7 +8,6 @@ import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
@@ -16,9 +15,14 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.security.Key;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -26,8 +30,9 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class JwtServiceTest {
 
-    @InjectMocks
     private JwtService jwtService;
+    private VerifiedTokenCache verifiedTokenCache;
+    private Set<String> revokedUserIds;
 
     private String testSecretKey;
     private String testUsername;
@@ -40,6 +45,9 @@ class JwtServiceTest {
         testUsername = "test@example.com";
         testUserId = "test-user-id";
         signingKey = Keys.hmacShaKeyFor(testSecretKey.getBytes());
+        verifiedTokenCache = new VerifiedTokenCache(true, 100);
+        revokedUserIds = new HashSet<>();
+        jwtService = new JwtService(verifiedTokenCache, claims -> revokedUserIds.contains(claims.getUserId()));
         
         // Set the secret key through reflection since it's a @Value field
         try {
@@ -123,6 +131,72 @@ class JwtServiceTest {
         assertFalse(isValid);
     }
 
+    @Test
+    void testVerify() {
+        String token = generateTestToken(testUsername, testUserId);
+
+        Optional<VerifiedClaims> claims = jwtService.verify(token);
+
+        assertTrue(claims.isPresent());
+        assertEquals(testUsername, claims.get().getSubject());
+        assertEquals(testUserId, claims.get().getUserId());
+        assertNotNull(claims.get().getIssuedAt());
+        assertTrue(claims.get().getExpiresAt().isAfter(Instant.now()));
+        assertFalse(claims.get().isExpired(Instant.now()));
+    }
+
+    @Test
+    void testVerify_ExpiredToken() {
+        String expiredToken = generateExpiredToken(testUsername, testUserId);
+
+        assertTrue(jwtService.verify(expiredToken).isEmpty());
+    }
+
+    @Test
+    void testVerify_TamperedToken() {
+        String token = generateTestToken(testUsername, testUserId);
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("{\"sub\":\"attacker@example.com\",\"userId\":\"other\"}").getBytes());
+
+        assertTrue(jwtService.verify(parts[0] + "." + forgedPayload + "." + parts[2]).isEmpty());
+    }
+
+    @Test
+    void testVerify_UsesNewKeyWhenSecretChanges() throws Exception {
+        String token = generateTestToken(testUsername, testUserId);
+        assertTrue(jwtService.verify(token).isPresent());
+
+        var field = JwtService.class.getDeclaredField("secretKey");
+        field.setAccessible(true);
+        field.set(jwtService, "anotherSecretKey1234567890123456789012345678");
+
+        assertTrue(jwtService.verify(token).isEmpty());
+    }
+
+    @Test
+    void testVerify_RepeatedTokenIsServedFromCache() {
+        String token = generateTestToken(testUsername, testUserId);
+
+        Optional<VerifiedClaims> first = jwtService.verify(token);
+        Optional<VerifiedClaims> second = jwtService.verify(token);
+
+        assertEquals(first, second);
+        assertEquals(1, verifiedTokenCache.stats().missCount());
+        assertEquals(1, verifiedTokenCache.stats().hitCount());
+    }
+
+    @Test
+    void testVerify_RevokedTokenIsRejectedEvenWhenCached() {
+        String token = generateTestToken(testUsername, testUserId);
+        assertTrue(jwtService.verify(token).isPresent());
+
+        revokedUserIds.add(testUserId);
+
+        assertTrue(jwtService.verify(token).isEmpty());
+        assertFalse(jwtService.isTokenValid(token));
+    }
+
     @Test
     void testGenerateToken() {
         Map<String, Object> extraClaims = new HashMap<>();
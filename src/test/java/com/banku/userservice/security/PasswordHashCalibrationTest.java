@@ -0,0 +1,78 @@
+package com.banku.userservice.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashCalibrationTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void bcryptStrength_ShouldPickTheHighestStrengthWithinTarget() {
+        // 4 ms at strength 8: 64 ms at 12, 128 ms at 13
+        assertEquals(12, PasswordHashCalibration.bcryptStrength(4 * MILLIS, Duration.ofMillis(100)));
+        assertEquals(13, PasswordHashCalibration.bcryptStrength(4 * MILLIS, Duration.ofMillis(128)));
+    }
+
+    @Test
+    void bcryptStrength_ShouldStayWithinBounds() {
+        assertEquals(PasswordHashCalibration.MIN_BCRYPT_STRENGTH,
+                PasswordHashCalibration.bcryptStrength(50 * MILLIS, Duration.ofMillis(100)));
+        assertEquals(PasswordHashCalibration.MAX_BCRYPT_STRENGTH,
+                PasswordHashCalibration.bcryptStrength(MILLIS / 10, Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void argon2Iterations_ShouldScaleLinearlyWithinBounds() {
+        assertEquals(5, PasswordHashCalibration.argon2Iterations(20 * MILLIS, Duration.ofMillis(100)));
+        assertEquals(PasswordHashCalibration.MIN_ARGON2_ITERATIONS,
+                PasswordHashCalibration.argon2Iterations(200 * MILLIS, Duration.ofMillis(100)));
+        assertEquals(PasswordHashCalibration.MAX_ARGON2_ITERATIONS,
+                PasswordHashCalibration.argon2Iterations(MILLIS, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void delegatingEncoder_ShouldVerifyLegacyHashesAndAskToUpgradeThem() {
+        // Arrange
+        PasswordEncoder encoder = PasswordHashCalibration.delegatingEncoder("bcrypt", Duration.ofMillis(100), 10, 1024, 2);
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+
+        // Act
+        String encoded = encoder.encode("secret");
+
+        // Assert
+        assertTrue(encoded.startsWith("{bcrypt}$2a$10$"));
+        assertTrue(encoder.matches("secret", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+        assertFalse(encoder.upgradeEncoding(encoded));
+    }
+
+    @Test
+    void delegatingEncoder_ShouldUpgradeBcryptHashesWhenSwitchingToArgon2() {
+        // Arrange
+        PasswordEncoder bcrypt = PasswordHashCalibration.delegatingEncoder("bcrypt", Duration.ofMillis(100), 10, 1024, 2);
+        PasswordEncoder argon2 = PasswordHashCalibration.delegatingEncoder("argon2", Duration.ofMillis(100), 10, 1024, 2);
+        String bcryptHash = bcrypt.encode("secret");
+
+        // Act
+        String argon2Hash = argon2.encode("secret");
+
+        // Assert
+        assertTrue(argon2Hash.startsWith("{argon2}"));
+        assertTrue(argon2.matches("secret", bcryptHash));
+        assertTrue(argon2.upgradeEncoding(bcryptHash));
+        assertFalse(argon2.upgradeEncoding(argon2Hash));
+        assertTrue(bcrypt.matches("secret", argon2Hash));
+    }
+
+    @Test
+    void delegatingEncoder_ShouldRejectUnknownAlgorithms() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PasswordHashCalibration.delegatingEncoder("md5", Duration.ofMillis(100), 10, 1024, 2));
+    }
+}
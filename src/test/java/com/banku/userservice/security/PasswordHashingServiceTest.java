@@ -0,0 +1,141 @@
+package com.banku.userservice.security;
+
+import com.banku.userservice.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.destroy();
+    }
+
+    @Test
+    void encodeAndMatches_ShouldRunOnThePoolAndRecordTimes() {
+        // Arrange
+        service = new PasswordHashingService(new ReversingEncoder(), registry, 2, 4, Duration.ofSeconds(5));
+
+        // Act
+        String encoded = service.encode("secret");
+        boolean matches = service.matches("secret", encoded);
+
+        // Assert
+        assertEquals("terces", encoded);
+        assertTrue(matches);
+        assertFalse(service.matches("other", encoded));
+        assertEquals(1, registry.get("password.hash.time").tag("operation", "encode").timer().count());
+        assertEquals(2, registry.get("password.hash.time").tag("operation", "matches").timer().count());
+        assertEquals(3, registry.get("password.hash.queue-wait").timer().count());
+    }
+
+    @Test
+    void encode_ShouldRejectAtOnceWhenPoolAndQueueAreFull() throws Exception {
+        // Arrange
+        service = new PasswordHashingService(new BlockingEncoder(), registry, 1, 1, Duration.ofSeconds(5));
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> service.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> service.encode("second"));
+        waitForQueued(1);
+
+        // Act & Assert
+        assertThrows(PasswordHashingUnavailableException.class, () -> service.encode("third"));
+        assertEquals(1, registry.get("password.hash.rejected").counter().count());
+        release.countDown();
+        assertEquals("first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void matches_ShouldFailWhenTheHashTakesLongerThanTheTimeout() {
+        // Arrange
+        service = new PasswordHashingService(new BlockingEncoder(), registry, 1, 1, Duration.ofMillis(50));
+
+        // Act & Assert
+        assertThrows(PasswordHashingUnavailableException.class, () -> service.matches("secret", "secret"));
+    }
+
+    @Test
+    void matchesAsync_ShouldCompleteOnThePoolOrFailOnTimeout() throws Exception {
+        // Arrange
+        service = new PasswordHashingService(new BlockingEncoder(), registry, 1, 1, Duration.ofMillis(50));
+
+        // Act
+        CompletableFuture<Boolean> result = service.matchesAsync("secret", "secret");
+
+        // Assert
+        assertFalse(result.isDone());
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(PasswordHashingUnavailableException.class, failure.getCause());
+        release.countDown();
+        assertTrue(service.matchesAsync("secret", "secret").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void upgradeEncoding_ShouldBeAnsweredByTheDelegate() {
+        // Arrange
+        service = new PasswordHashingService(new ReversingEncoder(), registry, 1, 1, Duration.ofSeconds(5));
+
+        // Act & Assert
+        assertTrue(service.upgradeEncoding("old"));
+        assertFalse(service.upgradeEncoding("new"));
+    }
+
+    private void waitForQueued(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("password.hash.queued").gauge().value() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static class ReversingEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return new StringBuilder(rawPassword).reverse().toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return "old".equals(encodedPassword);
+        }
+    }
+
+    private class BlockingEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.banku.userservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RateLimitFilterTest {
+
+    private static final String LOGIN = "/api/v1/auth/login";
+
+    private RateLimitFilter filter;
+    private FilterChain filterChain;
+
+    @BeforeEach
+    void setUp() {
+        TokenBucketRateLimiter loginLimit = new TokenBucketRateLimiter(
+                "login-client", 2, Duration.ofMinutes(1), 100, new SimpleMeterRegistry());
+        filter = new RateLimitFilter(new AuthRateLimits(Map.of(LOGIN, loginLimit), null));
+        filterChain = mock(FilterChain.class);
+    }
+
+    @Test
+    void doFilter_ShouldRejectAClientOverItsLimitWith429() throws Exception {
+        // Arrange
+        filter.doFilter(request(LOGIN, "1.2.3.4"), new MockHttpServletResponse(), filterChain);
+        filter.doFilter(request(LOGIN, "1.2.3.4"), new MockHttpServletResponse(), filterChain);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request(LOGIN, "1.2.3.4"), response, filterChain);
+
+        // Assert
+        assertEquals(429, response.getStatus());
+        assertEquals("30", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("Too Many Requests"));
+        verify(filterChain, times(2)).doFilter(any(), any());
+    }
+
+    @Test
+    void doFilter_ShouldCountEachClientSeparately() throws Exception {
+        // Arrange
+        filter.doFilter(request(LOGIN, "1.2.3.4"), new MockHttpServletResponse(), filterChain);
+        filter.doFilter(request(LOGIN, "1.2.3.4"), new MockHttpServletResponse(), filterChain);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request(LOGIN, "5.6.7.8"), response, filterChain);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        verify(filterChain, times(3)).doFilter(any(), any());
+    }
+
+    @Test
+    void doFilter_ShouldNotThrottleOtherEndpoints() throws Exception {
+        // Act
+        for (int i = 0; i < 5; i++) {
+            filter.doFilter(request("/api/v1/users/self", "1.2.3.4"), new MockHttpServletResponse(), filterChain);
+        }
+
+        // Assert
+        verify(filterChain, times(5)).doFilter(any(), any());
+    }
+
+    private static MockHttpServletRequest request(String path, String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setServletPath(path);
+        request.setRemoteAddr(remoteAddress);
+        return request;
+    }
+}
@@ -0,0 +1,119 @@
+package com.banku.userservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private long now = 1_000_000_000L;
+
+    private TokenBucketRateLimiter limiter(int capacity, Duration period, long maxKeys) {
+        return new TokenBucketRateLimiter("test", capacity, period, maxKeys, registry, () -> now);
+    }
+
+    @Test
+    void tryAcquire_ShouldAllowABurstOfCapacityThenReject() {
+        // Arrange
+        TokenBucketRateLimiter limiter = limiter(3, Duration.ofSeconds(3), 100);
+
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Duration.ZERO, limiter.tryAcquire("1.2.3.4"));
+        }
+        assertEquals(Duration.ofSeconds(1), limiter.tryAcquire("1.2.3.4"));
+        assertEquals(Duration.ZERO, limiter.tryAcquire("5.6.7.8"));
+        assertEquals(4, registry.get("auth.rate-limit.requests").tag("outcome", "allowed").counter().count());
+        assertEquals(1, registry.get("auth.rate-limit.requests").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillOneAttemptPerInterval() {
+        // Arrange
+        TokenBucketRateLimiter limiter = limiter(3, Duration.ofSeconds(3), 100);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("key");
+        }
+
+        // Act
+        now += Duration.ofMillis(1500).toNanos();
+
+        // Assert
+        assertEquals(Duration.ZERO, limiter.tryAcquire("key"));
+        assertEquals(Duration.ofMillis(500), limiter.tryAcquire("key"));
+    }
+
+    @Test
+    void tryAcquire_ShouldNotLetRejectedAttemptsDelayTheRefill() {
+        // Arrange
+        TokenBucketRateLimiter limiter = limiter(1, Duration.ofSeconds(1), 100);
+        limiter.tryAcquire("key");
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("key");
+        }
+
+        // Act
+        now += Duration.ofSeconds(1).toNanos();
+
+        // Assert
+        assertEquals(Duration.ZERO, limiter.tryAcquire("key"));
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepAtMostMaxKeys() {
+        // Arrange
+        TokenBucketRateLimiter limiter = limiter(5, Duration.ofMinutes(1), 10);
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire("10.0.0." + i);
+        }
+
+        // Assert
+        assertTrue(limiter.size() <= 10);
+    }
+
+    @Test
+    void tryAcquire_ShouldAllowExactlyCapacityUnderContention() throws InterruptedException {
+        // Arrange
+        TokenBucketRateLimiter limiter = limiter(50, Duration.ofHours(1), 100);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (limiter.tryAcquire("shared").isZero()) {
+                    allowed.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(50, allowed.get());
+    }
+
+    @Test
+    void constructor_ShouldRejectNonPositiveLimits() {
+        assertThrows(IllegalArgumentException.class, () -> limiter(0, Duration.ofMinutes(1), 10));
+        assertThrows(IllegalArgumentException.class, () -> limiter(1, Duration.ZERO, 10));
+    }
+}
@@ -0,0 +1,127 @@
+package com.banku.userservice.security;
+
+import com.banku.userservice.event.UserCreatedEvent;
+import com.banku.userservice.event.UserDeletedEvent;
+import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.event.UserUpdatedEvent;
+import com.banku.userservice.event.codec.EventCodecRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationListenerTest {
+
+    private static final String USER_ID = "3f2b8c1e-7d4a-4e0b-9a61-2c5d8e7f9a10";
+
+    @Mock
+    private TokenRevocationStore tokenRevocationStore;
+
+    private EventCodecRegistry eventCodecRegistry;
+    private TokenRevocationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        eventCodecRegistry = new EventCodecRegistry(Jackson2ObjectMapperBuilder.json().build(), "json");
+        listener = new TokenRevocationListener(eventCodecRegistry, tokenRevocationStore);
+    }
+
+    @Test
+    void listen_ShouldRevokeTokensOfDeletedUsersAtTheEventTime() {
+        // Arrange
+        UserDeletedEvent event = new UserDeletedEvent(USER_ID);
+
+        // Act
+        listener.listen(record(event));
+
+        // Assert
+        verify(tokenRevocationStore).revokeIssuedBefore(USER_ID, event.getTimestamp());
+    }
+
+    @Test
+    void onEvent_ShouldRevokeOnPasswordChangesOnly() {
+        // Act
+        listener.onEvent(new UserUpdatedEvent(USER_ID, "new@example.com", null, "en"));
+        listener.onEvent(new UserCreatedEvent(USER_ID, "test@example.com", "hash"));
+        UserUpdatedEvent passwordChange = new UserUpdatedEvent(USER_ID, null, "new-hash");
+        listener.onEvent(passwordChange);
+
+        // Assert
+        verify(tokenRevocationStore, times(1)).revokeIssuedBefore(any(), any());
+        verify(tokenRevocationStore).revokeIssuedBefore(USER_ID, passwordChange.getTimestamp());
+    }
+
+    @Test
+    void onEvent_ShouldNotSetTheWatermarkLaterThanReceipt() {
+        // Arrange
+        UserDeletedEvent event = new UserDeletedEvent(USER_ID);
+        event.setTimestamp(Instant.now().plusSeconds(300));
+
+        // Act
+        listener.onEvent(event);
+
+        // Assert
+        ArgumentCaptor<Instant> watermark = ArgumentCaptor.forClass(Instant.class);
+        verify(tokenRevocationStore).revokeIssuedBefore(eq(USER_ID), watermark.capture());
+        assertFalse(watermark.getValue().isAfter(Instant.now()));
+    }
+
+    @Test
+    void onEvent_ShouldKeepTokensWhenOnlyThePasswordHashIsUpgraded() {
+        // Arrange
+        UserUpdatedEvent rehash = new UserUpdatedEvent(USER_ID, null, "{bcrypt}stronger");
+        rehash.setPasswordRehash(true);
+
+        // Act
+        listener.onEvent(rehash);
+
+        // Assert
+        verifyNoInteractions(tokenRevocationStore);
+    }
+
+    @Test
+    void listen_ShouldSkipRecordsThatCannotBeDecoded() {
+        // Act
+        listener.listen(new ConsumerRecord<>("banku.user", 0, 0, USER_ID, "not json".getBytes()));
+
+        // Assert
+        verifyNoInteractions(tokenRevocationStore);
+    }
+
+    @Test
+    void onPartitionsAssigned_ShouldRewindOneTokenLifetime() {
+        // Arrange
+        ConsumerSeekCallback callback = mock(ConsumerSeekCallback.class);
+        TopicPartition partition = new TopicPartition("banku.user", 0);
+        long before = Instant.now().minus(JwtService.TOKEN_LIFETIME).toEpochMilli();
+
+        // Act
+        listener.onPartitionsAssigned(Map.of(partition, 10L), callback);
+
+        // Assert
+        ArgumentCaptor<Long> timestamp = ArgumentCaptor.forClass(Long.class);
+        verify(callback).seekToTimestamp(eq(Set.of(partition)), timestamp.capture());
+        assertTrue(timestamp.getValue() >= before);
+        assertTrue(timestamp.getValue() <= Instant.now().minus(JwtService.TOKEN_LIFETIME).toEpochMilli());
+    }
+
+    private ConsumerRecord<String, byte[]> record(UserEvent event) {
+        return new ConsumerRecord<>("banku.user", 0, 0, event.getAggregateId(), eventCodecRegistry.forPublishing().encode(event));
+    }
+}
@@ -0,0 +1,86 @@
+package com.banku.userservice.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationStoreTest {
+
+    private static final String USER_ID = "test-user-id";
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00.500Z");
+
+    private final TokenRevocationStore store = new TokenRevocationStore();
+
+    @Test
+    void isRevoked_ShouldRejectTokensIssuedBeforeTheWatermark() {
+        // Arrange
+        store.revokeIssuedBefore(USER_ID, NOW);
+
+        // Act & Assert
+        assertTrue(store.isRevoked(claimsIssuedAt(USER_ID, NOW.minusSeconds(60))));
+        assertTrue(store.isRevoked(claimsIssuedAt(USER_ID, Instant.parse("2025-01-01T11:59:59Z"))));
+        assertFalse(store.isRevoked(claimsIssuedAt(USER_ID, NOW.plusSeconds(1))));
+        assertFalse(store.isRevoked(claimsIssuedAt("other-user", NOW.minusSeconds(60))));
+    }
+
+    @Test
+    void isRevoked_ShouldAcceptTokenIssuedRightAfterAPasswordChange() {
+        // Arrange: the password changes, then the user logs in again within the same second
+        store.revokeIssuedBefore(USER_ID, NOW);
+        Instant reLogin = Instant.ofEpochSecond(NOW.plusMillis(200).getEpochSecond());
+
+        // Act & Assert
+        assertFalse(store.isRevoked(claimsIssuedAt(USER_ID, reLogin)));
+        assertTrue(store.isRevoked(claimsIssuedAt(USER_ID, reLogin.minusSeconds(1))));
+    }
+
+    @Test
+    void revokeIssuedBefore_ShouldNeverMoveTheWatermarkBack() {
+        // Arrange
+        store.revokeIssuedBefore(USER_ID, NOW);
+
+        // Act
+        store.revokeIssuedBefore(USER_ID, NOW.minusSeconds(3600));
+
+        // Assert
+        assertTrue(store.isRevoked(claimsIssuedAt(USER_ID, NOW.minusSeconds(60))));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void isRevoked_ShouldLookUpUuidUserIds() {
+        // Arrange
+        String userId = UUID.randomUUID().toString();
+        store.revokeIssuedBefore(userId, NOW);
+
+        // Act & Assert
+        assertTrue(store.isRevoked(claimsIssuedAt(userId, NOW.minusSeconds(60))));
+        assertFalse(store.isRevoked(claimsIssuedAt(userId, NOW.plusSeconds(1))));
+        assertFalse(store.isRevoked(claimsIssuedAt(UUID.randomUUID().toString(), NOW.minusSeconds(60))));
+    }
+
+    @Test
+    void prune_ShouldForgetWatermarksOlderThanTheTokenLifetime() {
+        // Arrange
+        Instant now = Instant.now();
+        String expired = UUID.randomUUID().toString();
+        String recent = UUID.randomUUID().toString();
+        store.revokeIssuedBefore(expired, now.minus(JwtService.TOKEN_LIFETIME).minusSeconds(60));
+        store.revokeIssuedBefore(recent, now);
+        store.revokeIssuedBefore(USER_ID, now.minus(JwtService.TOKEN_LIFETIME).minusSeconds(60));
+
+        // Act
+        store.prune();
+
+        // Assert
+        assertEquals(1, store.size());
+        assertTrue(store.isRevoked(claimsIssuedAt(recent, now.minusSeconds(60))));
+    }
+
+    private static VerifiedClaims claimsIssuedAt(String userId, Instant issuedAt) {
+        return new VerifiedClaims("test@example.com", userId, issuedAt, issuedAt.plusSeconds(86400));
+    }
+}
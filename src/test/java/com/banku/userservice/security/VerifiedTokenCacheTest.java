@@ -0,0 +1,108 @@
+package com.banku.userservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    @Test
+    void get_ShouldVerifyATokenOnlyOnce() {
+        // Arrange
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100);
+        VerifiedClaims claims = claimsExpiringAt(Instant.now().plusSeconds(3600));
+
+        // Act
+        VerifiedClaims first = cache.get(TOKEN, counting(claims));
+        VerifiedClaims second = cache.get(TOKEN, counting(claims));
+
+        // Assert
+        assertSame(claims, first);
+        assertSame(claims, second);
+        assertEquals(1, verifications.get());
+        assertEquals(0.5, cache.stats().hitRate());
+    }
+
+    @Test
+    void get_ShouldNotCacheTokensThatFailedOrHaveNoExpiry() {
+        // Arrange
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100);
+        VerifiedClaims withoutExpiry = claimsExpiringAt(null);
+
+        // Act
+        assertNull(cache.get(TOKEN, counting(null)));
+        assertNull(cache.get(TOKEN, counting(null)));
+        assertSame(withoutExpiry, cache.get("other", counting(withoutExpiry)));
+        assertSame(withoutExpiry, cache.get("other", counting(withoutExpiry)));
+
+        // Assert
+        assertEquals(4, verifications.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_ShouldDropEntriesAtTheTokenExpiry() {
+        // Arrange
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100);
+        VerifiedClaims expired = claimsExpiringAt(Instant.now().minusSeconds(1));
+
+        // Act
+        cache.get(TOKEN, counting(expired));
+        cache.get(TOKEN, counting(expired));
+
+        // Assert
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void get_ShouldAlwaysVerifyWhenDisabled() {
+        // Arrange
+        VerifiedTokenCache cache = new VerifiedTokenCache(false, 100);
+        VerifiedClaims claims = claimsExpiringAt(Instant.now().plusSeconds(3600));
+
+        // Act
+        cache.get(TOKEN, counting(claims));
+        cache.get(TOKEN, counting(claims));
+
+        // Assert
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void bindTo_ShouldExposeHitRatio() {
+        // Arrange
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        VerifiedClaims claims = claimsExpiringAt(Instant.now().plusSeconds(3600));
+
+        // Act
+        cache.get(TOKEN, counting(claims));
+        cache.get(TOKEN, counting(claims));
+        cache.get(TOKEN, counting(claims));
+
+        // Assert
+        assertEquals(2.0 / 3, registry.get("jwt.cache.hit-ratio").gauge().value(), 1e-9);
+        assertEquals(2.0, registry.get("cache.gets").tag("cache", "verifiedTokens").tag("result", "hit").functionCounter().count());
+    }
+
+    private Function<String, VerifiedClaims> counting(VerifiedClaims result) {
+        return token -> {
+            verifications.incrementAndGet();
+            return result;
+        };
+    }
+
+    private static VerifiedClaims claimsExpiringAt(Instant expiresAt) {
+        return new VerifiedClaims("test@example.com", "test-user-id", Instant.now(), expiresAt);
+    }
+}
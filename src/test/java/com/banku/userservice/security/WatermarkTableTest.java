@@ -0,0 +1,100 @@
+package com.banku.userservice.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WatermarkTableTest {
+
+    @Test
+    void putMax_ShouldKeepEveryEntryAcrossResizes() {
+        // Arrange
+        WatermarkTable table = new WatermarkTable(1);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(UUID.randomUUID());
+        }
+
+        // Act
+        for (int i = 0; i < ids.size(); i++) {
+            table.putMax(ids.get(i).getMostSignificantBits(), ids.get(i).getLeastSignificantBits(), i + 1);
+        }
+
+        // Assert
+        assertEquals(ids.size(), table.size());
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(i + 1, table.get(ids.get(i).getMostSignificantBits(), ids.get(i).getLeastSignificantBits()));
+        }
+        assertEquals(0, table.get(1, 2));
+    }
+
+    @Test
+    void putMax_ShouldOnlyRaiseValues() {
+        // Arrange
+        WatermarkTable table = new WatermarkTable(16);
+        table.putMax(1, 2, 100);
+
+        // Act
+        table.putMax(1, 2, 50);
+        table.putMax(1, 3, 70);
+
+        // Assert
+        assertEquals(100, table.get(1, 2));
+        assertEquals(70, table.get(1, 3));
+        assertEquals(2, table.size());
+        assertThrows(IllegalArgumentException.class, () -> table.putMax(0, 0, 1));
+    }
+
+    @Test
+    void removeBelow_ShouldDropOlderEntriesOnly() {
+        // Arrange
+        WatermarkTable table = new WatermarkTable(16);
+        for (int i = 1; i <= 100; i++) {
+            table.putMax(i, i, i);
+        }
+
+        // Act
+        int removed = table.removeBelow(61);
+
+        // Assert
+        assertEquals(60, removed);
+        assertEquals(40, table.size());
+        assertEquals(0, table.get(60, 60));
+        assertEquals(61, table.get(61, 61));
+        assertEquals(100, table.get(100, 100));
+    }
+
+    @Test
+    void get_ShouldSeeStoredEntriesWhileAnotherThreadWrites() throws InterruptedException {
+        // Arrange
+        WatermarkTable table = new WatermarkTable(16);
+        table.putMax(-1, -1, 42);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger wrongReads = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            while (writing.get()) {
+                if (table.get(-1, -1) != 42) {
+                    wrongReads.incrementAndGet();
+                }
+            }
+        });
+
+        // Act
+        reader.start();
+        for (int i = 1; i <= 20_000; i++) {
+            table.putMax(i, -i, i);
+        }
+        writing.set(false);
+        reader.join();
+
+        // Assert
+        assertEquals(0, wrongReads.get());
+        assertEquals(20_001, table.size());
+    }
+}
@@ -5,8 +5,10 @@ import com.banku.userservice.controller.dto.AuthResponse;
 import com.banku.userservice.controller.dto.LoginRequest;
 import com.banku.userservice.controller.dto.OAuthLoginRequest;
 import com.banku.userservice.controller.dto.RegisterRequest;
+import com.banku.userservice.exception.TooManyRequestsException;
 import com.banku.userservice.exception.UserNotFoundException;
 import com.banku.userservice.repository.UserAggregateRepository;
+import com.banku.userservice.security.AuthRateLimits;
 import com.banku.userservice.security.JwtService;
 import com.banku.userservice.service.oauth.OAuthProvider;
 import com.banku.userservice.service.oauth.OAuthProviderService;
@@ -23,6 +25,7 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -50,6 +53,9 @@ class AuthServiceTest {
     @Mock
     private OAuthProviderService oAuthProviderService;
 
+    @Mock
+    private AuthRateLimits authRateLimits;
+
     @InjectMocks
     private AuthService authService;
 
@@ -103,6 +109,20 @@ class AuthServiceTest {
         assertEquals(testToken, response.getToken());
         assertEquals(testUserId, response.getUserId());
         verify(aggregateRepository).loginUser(testUser, true);
+        verify(userService).upgradePasswordHash(testUser, testPassword);
+    }
+
+    @Test
+    void testLogin_AccountThrottled() {
+        LoginRequest request = new LoginRequest();
+        request.setEmail(testEmail);
+        request.setPassword(testPassword);
+        doThrow(new TooManyRequestsException("Too many login attempts", Duration.ofSeconds(30)))
+            .when(authRateLimits).checkAccount(testEmail);
+
+        assertThrows(TooManyRequestsException.class, () -> authService.login(request));
+
+        verifyNoInteractions(authenticationManager, userService, aggregateRepository);
     }
 
     @Test
@@ -1,37 +1,58 @@
 package com.banku.userservice.service;
 
 import com.banku.userservice.event.UserCreatedEvent;
-import com.banku.userservice.event.UserUpdatedEvent;
-import com.banku.userservice.event.UserLoginEvent;
 import com.banku.userservice.event.UserDeletedEvent;
+import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.event.UserLoginEvent;
+import com.banku.userservice.event.UserUpdatedEvent;
+import com.banku.userservice.event.codec.EventCodec;
+import com.banku.userservice.event.codec.EventCodecRegistry;
+import com.banku.userservice.event.codec.JsonEventCodec;
+import com.banku.userservice.event.codec.SmileEventCodec;
+import com.banku.userservice.exception.PublishBackpressureException;
+import com.banku.userservice.projection.UserViewProjector;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
-import java.util.concurrent.CompletableFuture;
-
 @ExtendWith(MockitoExtension.class)
 class KafkaServiceTest {
 
     @Mock
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
 
     @Mock
-    private ObjectMapper objectMapper;
+    private UserViewProjector userViewProjector;
+
+    @Captor
+    private ArgumentCaptor<ProducerRecord<String, byte[]>> recordCaptor;
 
-    @InjectMocks
+    @Captor
+    private ArgumentCaptor<UserEvent> eventCaptor;
+
+    private ObjectMapper objectMapper;
+    private PublishBackpressure publishBackpressure;
     private KafkaService kafkaService;
 
     private String testAggregateId;
@@ -43,156 +64,201 @@ class KafkaServiceTest {
         testAggregateId = "test-user-id";
         testEmail = "test@example.com";
         testPassword = "password123";
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        publishBackpressure = new PublishBackpressure(new SimpleMeterRegistry(), 1, "reject", Duration.ZERO);
+        kafkaService = new KafkaService(kafkaTemplate, new EventCodecRegistry(objectMapper, "json"), userViewProjector, publishBackpressure,
+            new KeyOrderedProcessor(new SimpleMeterRegistry(), 1));
     }
 
     @Test
-    void testPublishUserCreatedEvent() throws Exception {
+    void testPublishUserCreatedEvent() {
         UserCreatedEvent event = new UserCreatedEvent(testAggregateId, testEmail, testPassword);
-        String jsonMessage = "{\"@class\":\"com.banku.userservice.event.UserCreatedEvent\",\"aggregateId\":\"" + testAggregateId + "\"}";
-        CompletableFuture<SendResult<String, String>> future = new CompletableFuture<>();
 
-        when(objectMapper.writeValueAsString(event)).thenReturn(jsonMessage);
-        when(kafkaTemplate.send(eq("banku.user"), eq(testAggregateId), eq(jsonMessage))).thenReturn(future);
+        UserEvent published = publishAndDecode(event);
 
-        kafkaService.publishEvent(event);
-
-        verify(kafkaTemplate).send(eq("banku.user"), eq(testAggregateId), eq(jsonMessage));
+        assertInstanceOf(UserCreatedEvent.class, published);
+        assertEquals(testEmail, ((UserCreatedEvent) published).getEmail());
     }
 
     @Test
-    void testPublishUserUpdatedEvent() throws Exception {
+    void testPublishUserUpdatedEvent() {
         UserUpdatedEvent event = new UserUpdatedEvent(testAggregateId, testEmail, testPassword);
-        String jsonMessage = "{\"@class\":\"com.banku.userservice.event.UserUpdatedEvent\",\"aggregateId\":\"" + testAggregateId + "\"}";
-        CompletableFuture<SendResult<String, String>> future = new CompletableFuture<>();
 
-        when(objectMapper.writeValueAsString(event)).thenReturn(jsonMessage);
-        when(kafkaTemplate.send(eq("banku.user"), eq(testAggregateId), eq(jsonMessage))).thenReturn(future);
+        assertInstanceOf(UserUpdatedEvent.class, publishAndDecode(event));
+    }
 
-        kafkaService.publishEvent(event);
+    @Test
+    void testPublishUserLoginEvent() {
+        UserLoginEvent event = new UserLoginEvent(testAggregateId, true);
 
-        verify(kafkaTemplate).send(eq("banku.user"), eq(testAggregateId), eq(jsonMessage));
+        UserEvent published = publishAndDecode(event);
+
+        assertInstanceOf(UserLoginEvent.class, published);
+        assertTrue(((UserLoginEvent) published).getIsSuccessfulLogin());
     }
 
     @Test
-    void testPublishUserLoginEvent() throws Exception {
-        UserLoginEvent event = new UserLoginEvent(testAggregateId, true);
-        String jsonMessage = "{\"@class\":\"com.banku.userservice.event.UserLoginEvent\",\"aggregateId\":\"" + testAggregateId + "\"}";
-        CompletableFuture<SendResult<String, String>> future = new CompletableFuture<>();
+    void testPublishUserDeletedEvent() {
+        UserDeletedEvent event = new UserDeletedEvent(testAggregateId);
 
-        when(objectMapper.writeValueAsString(event)).thenReturn(jsonMessage);
-        when(kafkaTemplate.send(eq("banku.user"), eq(testAggregateId), eq(jsonMessage))).thenReturn(future);
+        assertInstanceOf(UserDeletedEvent.class, publishAndDecode(event));
+    }
 
-        kafkaService.publishEvent(event);
+    @Test
+    void testPublishWithSmileCodec() {
+        kafkaService = new KafkaService(kafkaTemplate, new EventCodecRegistry(objectMapper, "smile"), userViewProjector, publishBackpressure,
+            new KeyOrderedProcessor(new SimpleMeterRegistry(), 1));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(new CompletableFuture<SendResult<String, byte[]>>());
 
-        verify(kafkaTemplate).send(eq("banku.user"), eq(testAggregateId), eq(jsonMessage));
+        kafkaService.publishEvent(new UserLoginEvent(testAggregateId, false));
+
+        verify(kafkaTemplate).send(recordCaptor.capture());
+        assertEquals(SmileEventCodec.CONTENT_TYPE, contentType(recordCaptor.getValue()));
     }
 
     @Test
-    void testPublishUserDeletedEvent() throws Exception {
-        UserDeletedEvent event = new UserDeletedEvent(testAggregateId);
-        String jsonMessage = "{\"@class\":\"com.banku.userservice.event.UserDeletedEvent\",\"aggregateId\":\"" + testAggregateId + "\"}";
-        CompletableFuture<SendResult<String, String>> future = new CompletableFuture<>();
+    void testPublish_ShouldHoldPermitUntilAcknowledged() {
+        CompletableFuture<SendResult<String, byte[]>> future = new CompletableFuture<>();
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(future);
 
-        when(objectMapper.writeValueAsString(event)).thenReturn(jsonMessage);
-        when(kafkaTemplate.send(eq("banku.user"), eq(testAggregateId), eq(jsonMessage))).thenReturn(future);
+        kafkaService.publishEvent(new UserLoginEvent(testAggregateId, true));
 
-        kafkaService.publishEvent(event);
+        assertEquals(1, publishBackpressure.inFlight());
+        assertThrows(PublishBackpressureException.class,
+            () -> kafkaService.publishEvent(new UserLoginEvent(testAggregateId, true)));
+        future.complete(null);
+        assertEquals(0, publishBackpressure.inFlight());
+    }
 
-        verify(kafkaTemplate).send(eq("banku.user"), eq(testAggregateId), eq(jsonMessage));
+    @Test
+    void testPublish_WhenSendThrows_ShouldReleasePermit() {
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenThrow(new IllegalStateException("producer closed"));
+
+        assertThrows(IllegalStateException.class, () -> kafkaService.publishEvent(new UserDeletedEvent(testAggregateId)));
+        assertEquals(0, publishBackpressure.inFlight());
     }
 
     @Test
     void testListenEvents_UserCreated() throws Exception {
-        String message = "{\"@class\":\"com.banku.userservice.event.UserCreatedEvent\",\"aggregateId\":\"" + testAggregateId + "\"}";
-        JsonNode jsonNode = mock(JsonNode.class);
-        UserCreatedEvent event = new UserCreatedEvent(testAggregateId, testEmail, testPassword);
+        kafkaService.listenEvents(jsonRecord(new UserCreatedEvent(testAggregateId, testEmail, testPassword)));
 
-        when(objectMapper.readTree(message)).thenReturn(jsonNode);
-        when(jsonNode.get("@class")).thenReturn(jsonNode);
-        when(jsonNode.asText()).thenReturn("com.banku.userservice.event.UserCreatedEvent");
-        when(objectMapper.readValue(message, UserCreatedEvent.class)).thenReturn(event);
+        verify(userViewProjector).project(eventCaptor.capture());
+        assertInstanceOf(UserCreatedEvent.class, eventCaptor.getValue());
+        assertEquals(testAggregateId, eventCaptor.getValue().getAggregateId());
+    }
 
-        kafkaService.listenEvents(message);
+    @Test
+    void testListenEvents_UserUpdated() throws Exception {
+        kafkaService.listenEvents(jsonRecord(new UserUpdatedEvent(testAggregateId, testEmail, testPassword)));
 
-        verify(objectMapper).readTree(message);
-        verify(objectMapper).readValue(message, UserCreatedEvent.class);
+        verify(userViewProjector).project(eventCaptor.capture());
+        assertInstanceOf(UserUpdatedEvent.class, eventCaptor.getValue());
     }
 
     @Test
-    void testListenEvents_UserUpdated() throws Exception {
-        String message = "{\"@class\":\"com.banku.userservice.event.UserUpdatedEvent\",\"aggregateId\":\"" + testAggregateId + "\"}";
-        JsonNode jsonNode = mock(JsonNode.class);
-        UserUpdatedEvent event = new UserUpdatedEvent(testAggregateId, testEmail, testPassword);
+    void testListenEvents_UserLogin() throws Exception {
+        kafkaService.listenEvents(jsonRecord(new UserLoginEvent(testAggregateId, true)));
 
-        when(objectMapper.readTree(message)).thenReturn(jsonNode);
-        when(jsonNode.get("@class")).thenReturn(jsonNode);
-        when(jsonNode.asText()).thenReturn("com.banku.userservice.event.UserUpdatedEvent");
-        when(objectMapper.readValue(message, UserUpdatedEvent.class)).thenReturn(event);
+        verify(userViewProjector).project(eventCaptor.capture());
+        assertInstanceOf(UserLoginEvent.class, eventCaptor.getValue());
+    }
 
-        kafkaService.listenEvents(message);
+    @Test
+    void testListenEvents_UserDeleted() throws Exception {
+        kafkaService.listenEvents(jsonRecord(new UserDeletedEvent(testAggregateId)));
 
-        verify(objectMapper).readTree(message);
-        verify(objectMapper).readValue(message, UserUpdatedEvent.class);
+        verify(userViewProjector).project(eventCaptor.capture());
+        assertInstanceOf(UserDeletedEvent.class, eventCaptor.getValue());
     }
 
     @Test
-    void testListenEvents_UserLogin() throws Exception {
-        String message = "{\"@class\":\"com.banku.userservice.event.UserLoginEvent\",\"aggregateId\":\"" + testAggregateId + "\"}";
-        JsonNode jsonNode = mock(JsonNode.class);
+    void testListenEvents_SmileRecord() {
         UserLoginEvent event = new UserLoginEvent(testAggregateId, true);
+        event.setVersion(7);
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>(KafkaService.TOPIC, 0, 0, testAggregateId,
+            new SmileEventCodec(objectMapper).encode(event));
+        record.headers().add(EventCodec.CONTENT_TYPE_HEADER, SmileEventCodec.CONTENT_TYPE.getBytes(StandardCharsets.UTF_8));
 
-        when(objectMapper.readTree(message)).thenReturn(jsonNode);
-        when(jsonNode.get("@class")).thenReturn(jsonNode);
-        when(jsonNode.asText()).thenReturn("com.banku.userservice.event.UserLoginEvent");
-        when(objectMapper.readValue(message, UserLoginEvent.class)).thenReturn(event);
+        kafkaService.listenEvents(record);
+
+        verify(userViewProjector).project(eventCaptor.capture());
+        assertInstanceOf(UserLoginEvent.class, eventCaptor.getValue());
+        assertEquals(7, eventCaptor.getValue().getVersion());
+    }
+
+    @Test
+    void testListenEvents_UnknownEventType() {
+        String message = "{\"@class\":\"com.banku.userservice.event.UnknownEvent\",\"aggregateId\":\"" + testAggregateId + "\"}";
 
-        kafkaService.listenEvents(message);
+        kafkaService.listenEvents(record(message.getBytes(StandardCharsets.UTF_8)));
 
-        verify(objectMapper).readTree(message);
-        verify(objectMapper).readValue(message, UserLoginEvent.class);
+        verifyNoInteractions(userViewProjector);
     }
 
     @Test
-    void testListenEvents_UserDeleted() throws Exception {
-        String message = "{\"@class\":\"com.banku.userservice.event.UserDeletedEvent\",\"aggregateId\":\"" + testAggregateId + "\"}";
-        JsonNode jsonNode = mock(JsonNode.class);
-        UserDeletedEvent event = new UserDeletedEvent(testAggregateId);
+    void testListenEvents_UnsupportedContentType() throws Exception {
+        ConsumerRecord<String, byte[]> record = jsonRecord(new UserDeletedEvent(testAggregateId));
+        record.headers().add(EventCodec.CONTENT_TYPE_HEADER, "application/avro".getBytes(StandardCharsets.UTF_8));
 
-        when(objectMapper.readTree(message)).thenReturn(jsonNode);
-        when(jsonNode.get("@class")).thenReturn(jsonNode);
-        when(jsonNode.asText()).thenReturn("com.banku.userservice.event.UserDeletedEvent");
-        when(objectMapper.readValue(message, UserDeletedEvent.class)).thenReturn(event);
+        kafkaService.listenEvents(record);
+
+        verifyNoInteractions(userViewProjector);
+    }
 
-        kafkaService.listenEvents(message);
+    @Test
+    void testListenEvents_InvalidJson() {
+        kafkaService.listenEvents(record("invalid json".getBytes(StandardCharsets.UTF_8)));
 
-        verify(objectMapper).readTree(message);
-        verify(objectMapper).readValue(message, UserDeletedEvent.class);
+        verifyNoInteractions(userViewProjector);
     }
 
     @Test
-    void testListenEvents_UnknownEventType() throws Exception {
-        String message = "{\"@class\":\"com.banku.userservice.event.UnknownEvent\",\"aggregateId\":\"" + testAggregateId + "\"}";
-        JsonNode jsonNode = mock(JsonNode.class);
+    void testListenEventBatch_ShouldDecodeOnceAndProjectTogetherSkippingBadRecords() throws Exception {
+        UserCreatedEvent created = new UserCreatedEvent(testAggregateId, testEmail, testPassword);
+        UserLoginEvent login = new UserLoginEvent(testAggregateId, true);
+
+        kafkaService.listenEventBatch(List.of(
+            jsonRecord(created),
+            record("invalid json".getBytes(StandardCharsets.UTF_8)),
+            jsonRecord(login)));
+
+        ArgumentCaptor<List<UserEvent>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(userViewProjector).projectAll(batchCaptor.capture());
+        assertEquals(2, batchCaptor.getValue().size());
+        assertInstanceOf(UserCreatedEvent.class, batchCaptor.getValue().get(0));
+        assertInstanceOf(UserLoginEvent.class, batchCaptor.getValue().get(1));
+    }
 
-        when(objectMapper.readTree(message)).thenReturn(jsonNode);
-        when(jsonNode.get("@class")).thenReturn(jsonNode);
-        when(jsonNode.asText()).thenReturn("com.banku.userservice.event.UnknownEvent");
+    @Test
+    void testListenEventBatch_WhenProjectionFails_ShouldThrowSoTheBatchIsNotCommitted() throws Exception {
+        doThrow(new IllegalStateException("Mongo unavailable")).when(userViewProjector).projectAll(anyList());
 
-        kafkaService.listenEvents(message);
+        assertThrows(IllegalStateException.class, () -> kafkaService.listenEventBatch(List.of(
+            jsonRecord(new UserLoginEvent(testAggregateId, true)))));
+    }
+
+    private UserEvent publishAndDecode(UserEvent event) {
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(new CompletableFuture<SendResult<String, byte[]>>());
+
+        kafkaService.publishEvent(event);
 
-        verify(objectMapper).readTree(message);
-        verify(objectMapper, never()).readValue(anyString(), any(Class.class));
+        verify(kafkaTemplate).send(recordCaptor.capture());
+        ProducerRecord<String, byte[]> record = recordCaptor.getValue();
+        assertEquals(KafkaService.TOPIC, record.topic());
+        assertEquals(testAggregateId, record.key());
+        assertEquals(JsonEventCodec.CONTENT_TYPE, contentType(record));
+        return new JsonEventCodec(objectMapper).decode(record.value());
     }
 
-    @Test
-    void testListenEvents_InvalidJson() throws Exception {
-        String message = "invalid json";
-        
-        when(objectMapper.readTree(message)).thenThrow(new RuntimeException("Invalid JSON"));
+    private ConsumerRecord<String, byte[]> jsonRecord(UserEvent event) throws Exception {
+        return record(objectMapper.writeValueAsBytes(event));
+    }
 
-        kafkaService.listenEvents(message);
+    private ConsumerRecord<String, byte[]> record(byte[] payload) {
+        return new ConsumerRecord<>(KafkaService.TOPIC, 0, 0, testAggregateId, payload);
+    }
 
-        verify(objectMapper).readTree(message);
-        verify(objectMapper, never()).readValue(anyString(), any(Class.class));
+    private static String contentType(ProducerRecord<String, byte[]> record) {
+        return new String(record.headers().lastHeader(EventCodec.CONTENT_TYPE_HEADER).value(), StandardCharsets.UTF_8);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,120 @@
+package com.banku.userservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyOrderedProcessorTest {
+
+    private static final Function<String, String> KEY = record -> record.substring(0, record.indexOf(':'));
+
+    private KeyOrderedProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        processor = new KeyOrderedProcessor(new SimpleMeterRegistry(), 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        processor.destroy();
+    }
+
+    @Test
+    void process_ShouldKeepTheOrderOfEachKey() {
+        // Arrange
+        List<String> records = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            records.add("user-" + (i % 7) + ":" + i);
+        }
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+
+        // Act
+        processor.process(records, KEY, lane -> lane.forEach(record -> seen
+                .computeIfAbsent(KEY.apply(record), key -> Collections.synchronizedList(new ArrayList<>()))
+                .add(Integer.parseInt(record.substring(record.indexOf(':') + 1)))));
+
+        // Assert
+        assertEquals(7, seen.size());
+        seen.values().forEach(sequence -> {
+            assertEquals(sequence.stream().sorted().toList(), sequence);
+        });
+        assertEquals(200, seen.values().stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void process_ShouldRunDifferentKeysConcurrently() {
+        // Arrange
+        String first = "a:1";
+        String second = findKeyOnOtherLane("a") + ":1";
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        // Act
+        processor.process(List.of(first, second), KEY, lane -> {
+            bothStarted.countDown();
+            try {
+                assertTrue(bothStarted.await(5, TimeUnit.SECONDS), "lanes did not run in parallel");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // Assert
+        assertEquals(0, bothStarted.getCount());
+    }
+
+    @Test
+    void process_ShouldFinishOtherLanesBeforeRethrowingAFailure() {
+        // Arrange
+        String failing = "a:1";
+        String healthy = findKeyOnOtherLane("a") + ":1";
+        AtomicInteger processed = new AtomicInteger();
+
+        // Act & Assert
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () ->
+                processor.process(List.of(failing, healthy), KEY, lane -> {
+                    if (lane.contains(failing)) {
+                        throw new IllegalStateException("boom");
+                    }
+                    processed.incrementAndGet();
+                }));
+        assertEquals("boom", thrown.getMessage());
+        assertEquals(1, processed.get());
+    }
+
+    @Test
+    void process_ShouldRunInlineWithASingleLane() {
+        // Arrange
+        KeyOrderedProcessor inline = new KeyOrderedProcessor(new SimpleMeterRegistry(), 1);
+        Thread caller = Thread.currentThread();
+        List<Thread> threads = new ArrayList<>();
+
+        // Act
+        inline.process(List.of("a:1", "b:2"), KEY, lane -> threads.add(Thread.currentThread()));
+
+        // Assert
+        assertEquals(List.of(caller), threads);
+    }
+
+    private String findKeyOnOtherLane(String key) {
+        int lane = processor.laneOf(key);
+        for (int i = 0; ; i++) {
+            if (processor.laneOf("k" + i) != lane) {
+                return "k" + i;
+            }
+        }
+    }
+}
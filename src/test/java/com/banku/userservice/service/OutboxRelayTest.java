@@ -0,0 +1,147 @@
+package com.banku.userservice.service;
+
+import com.banku.userservice.event.UserEvent;
+import com.banku.userservice.event.UserLoginEvent;
+import com.banku.userservice.repository.EventStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private EventStore eventStore;
+
+    @Mock
+    private KafkaService kafkaService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(eventStore, kafkaService, mongoTemplate, 3, Duration.ofSeconds(1), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void publish_ShouldSendEachAggregateInVersionOrderAndMarkAcknowledged() {
+        // Arrange
+        UserEvent second = event("a", 2);
+        UserEvent first = event("a", 1);
+        UserEvent other = event("b", 1);
+        when(kafkaService.publishEvent(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        int published = relay.publish(new ArrayList<>(List.of(second, other, first)));
+
+        // Assert
+        assertEquals(3, published);
+        InOrder inOrder = inOrder(kafkaService);
+        inOrder.verify(kafkaService).publishEvent(first);
+        inOrder.verify(kafkaService).publishEvent(second);
+        verify(eventStore).markPublished(List.of(first.getId(), other.getId(), second.getId()));
+    }
+
+    @Test
+    void publish_ShouldOnlySendNextEventOfAggregateOnceThePreviousWasAcknowledged() {
+        // Arrange
+        UserEvent first = event("a", 1);
+        UserEvent second = event("a", 2);
+        CompletableFuture<Object> firstAck = CompletableFuture.supplyAsync(() -> null,
+            CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS));
+        when(kafkaService.publishEvent(first)).thenAnswer(invocation -> firstAck);
+        when(kafkaService.publishEvent(second)).thenAnswer(invocation -> {
+            assertTrue(firstAck.isDone());
+            return CompletableFuture.completedFuture(null);
+        });
+
+        // Act
+        int published = relay.publish(new ArrayList<>(List.of(second, first)));
+
+        // Assert
+        assertEquals(2, published);
+    }
+
+    @Test
+    void publish_WhenSendFails_ShouldNotSendLaterEventsOfAggregate() {
+        // Arrange
+        UserEvent first = event("a", 1);
+        UserEvent second = event("a", 2);
+        UserEvent other = event("b", 1);
+        when(kafkaService.publishEvent(first)).thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+        when(kafkaService.publishEvent(other)).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        int published = relay.publish(new ArrayList<>(List.of(first, second, other)));
+
+        // Assert
+        assertEquals(1, published);
+        verify(kafkaService, never()).publishEvent(second);
+        verify(eventStore).markPublished(List.of(other.getId()));
+    }
+
+    @Test
+    void relay_ShouldDrainFullBatchesUntilBacklogIsEmpty() {
+        // Arrange
+        List<UserEvent> full = List.of(event("a", 1), event("b", 1), event("c", 1));
+        List<UserEvent> rest = List.of(event("d", 1));
+        when(eventStore.findPending(3)).thenReturn(full, rest);
+        when(kafkaService.publishEvent(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        relay.relay();
+
+        // Assert
+        verify(eventStore, times(2)).findPending(3);
+        verify(kafkaService, times(4)).publishEvent(any());
+    }
+
+    @Test
+    void relay_WhenLeaseHeldByAnotherInstance_ShouldNotPublish() {
+        // Arrange
+        when(mongoTemplate.upsert(any(Query.class), any(UpdateDefinition.class), eq(OutboxRelay.LEASE_COLLECTION)))
+            .thenThrow(new DuplicateKeyException("E11000 duplicate key"));
+
+        // Act
+        relay.relay();
+
+        // Assert
+        verifyNoInteractions(eventStore, kafkaService);
+    }
+
+    @Test
+    void lagSeconds_ShouldMeasureOldestPendingEvent() {
+        when(eventStore.oldestPendingSince()).thenReturn(Optional.of(Instant.now().minusSeconds(5)));
+
+        assertTrue(relay.lagSeconds() >= 5);
+    }
+
+    private static UserEvent event(String aggregateId, long version) {
+        UserEvent event = new UserLoginEvent(aggregateId, true);
+        event.setVersion(version);
+        return event;
+    }
+}
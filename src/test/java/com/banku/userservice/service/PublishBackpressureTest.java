@@ -0,0 +1,50 @@
+package com.banku.userservice.service;
+
+import com.banku.userservice.exception.PublishBackpressureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublishBackpressureTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void acquire_InRejectMode_ShouldFailImmediatelyWhenFull() {
+        PublishBackpressure backpressure = new PublishBackpressure(registry, 2, "reject", Duration.ofSeconds(10));
+        backpressure.acquire();
+        backpressure.acquire();
+
+        PublishBackpressureException exception = assertThrows(PublishBackpressureException.class, backpressure::acquire);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getHttpStatus());
+        assertEquals(1.0, registry.get("kafka.publish.rejected").counter().count());
+        assertEquals(2.0, registry.get("kafka.publish.in-flight").gauge().value());
+    }
+
+    @Test
+    void acquire_InBlockMode_ShouldWaitForReleasedPermit() throws Exception {
+        PublishBackpressure backpressure = new PublishBackpressure(registry, 1, "block", Duration.ofSeconds(5));
+        long start = backpressure.acquire();
+        Thread releaser = new Thread(() -> backpressure.release(start, true));
+
+        releaser.start();
+        backpressure.acquire();
+        releaser.join();
+
+        assertEquals(1, backpressure.inFlight());
+        assertEquals(1, registry.get("kafka.publish.latency").tag("outcome", "acknowledged").timer().count());
+    }
+
+    @Test
+    void acquire_InBlockMode_ShouldFailAfterTimeout() {
+        PublishBackpressure backpressure = new PublishBackpressure(registry, 1, "block", Duration.ofMillis(20));
+        backpressure.acquire();
+
+        assertThrows(PublishBackpressureException.class, backpressure::acquire);
+    }
+}
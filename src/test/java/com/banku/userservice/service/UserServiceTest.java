@@ -3,10 +3,15 @@ package com.banku.userservice.service;
 import com.banku.userservice.aggregate.UserAggregate;
 import com.banku.userservice.controller.dto.UpdateUserRequest;
 import com.banku.userservice.controller.dto.UserSelfResponse;
+import com.banku.userservice.exception.ConcurrencyConflictException;
 import com.banku.userservice.exception.DuplicateEmailException;
 import com.banku.userservice.exception.InvalidPasswordException;
+import com.banku.userservice.exception.PasswordHashingUnavailableException;
 import com.banku.userservice.exception.UserNotFoundException;
+import com.banku.userservice.projection.UserView;
 import com.banku.userservice.repository.UserAggregateRepository;
+import com.banku.userservice.repository.UserViewStore;
+import com.banku.userservice.security.TokenRevocationStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,11 +20,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Instant;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,9 +35,15 @@ class UserServiceTest {
     @Mock
     private UserAggregateRepository userAggregateRepository;
 
+    @Mock
+    private UserViewStore userViewStore;
+
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private TokenRevocationStore tokenRevocationStore;
+
     @InjectMocks
     private UserService userService;
 
@@ -117,6 +130,30 @@ class UserServiceTest {
         assertEquals(testEmail, result.getEmail());
     }
 
+    @Test
+    void testGetSelf_FromUserView() {
+        UserView view = new UserView(testUserId);
+        view.setEmail(testEmail);
+        view.setPreferredLanguage("es");
+        when(userViewStore.findById(testUserId)).thenReturn(Optional.of(view));
+
+        UserSelfResponse result = userService.getSelf(testUserId);
+
+        assertEquals(testUserId, result.getUserId());
+        assertEquals(testEmail, result.getEmail());
+        assertEquals("es", result.getPreferredLanguage());
+        verify(userAggregateRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void testGetSelf_DeletedUserView() {
+        UserView view = new UserView(testUserId);
+        view.setDeleted(true);
+        when(userViewStore.findById(testUserId)).thenReturn(Optional.of(view));
+
+        assertThrows(UserNotFoundException.class, () -> userService.getSelf(testUserId));
+    }
+
     @Test
     void testGetSelf_UserNotFound() {
         when(userAggregateRepository.findById(testUserId)).thenReturn(null);
@@ -162,6 +199,48 @@ class UserServiceTest {
         });
     }
 
+    @Test
+    void testUpgradePasswordHash_OutdatedHash() {
+        when(passwordEncoder.upgradeEncoding(testPassword)).thenReturn(true);
+        when(passwordEncoder.encode(testPassword)).thenReturn("{bcrypt}stronger");
+        when(userAggregateRepository.rehashPassword(testUserId, testPassword, "{bcrypt}stronger")).thenReturn(true);
+
+        userService.upgradePasswordHash(testUser, testPassword);
+
+        verify(userAggregateRepository).rehashPassword(testUserId, testPassword, "{bcrypt}stronger");
+        verifyNoInteractions(tokenRevocationStore);
+    }
+
+    @Test
+    void testUpgradePasswordHash_CurrentHash() {
+        when(passwordEncoder.upgradeEncoding(testPassword)).thenReturn(false);
+
+        userService.upgradePasswordHash(testUser, testPassword);
+
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userAggregateRepository, never()).rehashPassword(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void testUpgradePasswordHash_ConcurrentChange() {
+        when(passwordEncoder.upgradeEncoding(testPassword)).thenReturn(true);
+        when(passwordEncoder.encode(testPassword)).thenReturn("{bcrypt}stronger");
+        when(userAggregateRepository.rehashPassword(testUserId, testPassword, "{bcrypt}stronger"))
+            .thenThrow(new ConcurrencyConflictException(testUserId, 1L, null));
+
+        assertDoesNotThrow(() -> userService.upgradePasswordHash(testUser, testPassword));
+    }
+
+    @Test
+    void testUpgradePasswordHash_HashingPoolSaturated() {
+        when(passwordEncoder.upgradeEncoding(testPassword)).thenReturn(true);
+        when(passwordEncoder.encode(testPassword))
+            .thenThrow(new PasswordHashingUnavailableException("Password hashing is saturated"));
+
+        assertDoesNotThrow(() -> userService.upgradePasswordHash(testUser, testPassword));
+        verify(userAggregateRepository, never()).rehashPassword(anyString(), anyString(), anyString());
+    }
+
     @Test
     void testDeleteUser() {
         when(userAggregateRepository.findById(testUserId)).thenReturn(testUser);
@@ -169,6 +248,7 @@ class UserServiceTest {
         userService.deleteUser(testUserId);
         
         verify(userAggregateRepository).deleteUser(testUserId);
+        verify(tokenRevocationStore).revokeIssuedBefore(eq(testUserId), any(Instant.class));
     }
 
     @Test
@@ -0,0 +1,159 @@
+package com.banku.userservice.service.oauth;
+
+import com.banku.userservice.aggregate.UserAggregate;
+import com.banku.userservice.exception.InvalidOAuthTokenException;
+import com.banku.userservice.exception.OAuthProviderUnavailableException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GoogleOAuthProviderTest {
+
+    private final AtomicReference<String> tokenRequest = new AtomicReference<>();
+    private final AtomicReference<String> userInfoAuthorization = new AtomicReference<>();
+    private final AtomicReference<String> tokenResponse = new AtomicReference<>("{\"access_token\":\"access-123\"}");
+    private final AtomicInteger userInfoCalls = new AtomicInteger();
+    private KeyPair signingKey;
+    private HttpServer server;
+    private OAuthHttpClients httpClients;
+    private GoogleOAuthProvider provider;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        signingKey = JwksKeyCacheTest.rsaKeyPair();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/token", exchange -> {
+            tokenRequest.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            respond(exchange, tokenResponse.get());
+        });
+        server.createContext("/userinfo", exchange -> {
+            userInfoCalls.incrementAndGet();
+            userInfoAuthorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+            respond(exchange, "{\"id\":\"g-42\",\"email\":\"test@example.com\",\"given_name\":\"Ada\",\"family_name\":\"Lovelace\"}");
+        });
+        server.createContext("/certs", exchange -> respond(exchange, JwksKeyCacheTest.jwkSet("k1", signingKey)));
+        server.start();
+
+        httpClients = new OAuthHttpClients(new SimpleMeterRegistry(), new RestTemplateBuilder(), new MockEnvironment(),
+                Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(1), 2, Duration.ofSeconds(30));
+        provider = new GoogleOAuthProvider(httpClients, "client", Duration.ofSeconds(60),
+                "http://localhost:" + server.getAddress().getPort() + "/certs",
+                Duration.ofHours(1), Duration.ofMinutes(5), Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(provider, "verifyIdToken", true);
+        ReflectionTestUtils.setField(provider, "clientSecret", "secret");
+        ReflectionTestUtils.setField(provider, "redirectUri", "http://localhost/callback");
+        ReflectionTestUtils.setField(provider, "tokenUrl", "http://localhost:" + server.getAddress().getPort() + "/token");
+        ReflectionTestUtils.setField(provider, "userInfoUrl", "http://localhost:" + server.getAddress().getPort() + "/userinfo");
+    }
+
+    @AfterEach
+    void tearDown() {
+        httpClients.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    void getUserInfo_ShouldExchangeTheCodeAndMapTheProfile() {
+        // Act
+        UserAggregate user = provider.getUserInfo("auth-code");
+
+        // Assert
+        assertTrue(tokenRequest.get().contains("code=auth-code"));
+        assertTrue(tokenRequest.get().contains("grant_type=authorization_code"));
+        assertEquals("Bearer access-123", userInfoAuthorization.get());
+        assertEquals("test@example.com", user.getEmail());
+        assertEquals("Ada", user.getFirstName());
+        assertEquals("google", user.getProvider());
+        assertEquals("g-42", user.getProviderId());
+        assertEquals("en", user.getPreferredLanguage());
+    }
+
+    @Test
+    void getUserInfo_ShouldTakeTheProfileFromTheVerifiedIdToken() {
+        // Arrange
+        tokenResponse.set("{\"access_token\":\"access-123\",\"id_token\":\"" + idToken("client", "https://accounts.google.com") + "\"}");
+
+        // Act
+        UserAggregate user = provider.getUserInfo("auth-code");
+
+        // Assert
+        assertEquals(0, userInfoCalls.get());
+        assertEquals("test@example.com", user.getEmail());
+        assertEquals("Ada", user.getFirstName());
+        assertEquals("Lovelace", user.getLastName());
+        assertEquals("g-42", user.getProviderId());
+        assertEquals("es", user.getPreferredLanguage());
+    }
+
+    @Test
+    void getUserInfo_ShouldRejectAnIdTokenForAnotherClient() {
+        // Arrange
+        tokenResponse.set("{\"access_token\":\"access-123\",\"id_token\":\"" + idToken("other-client", "https://accounts.google.com") + "\"}");
+
+        // Act & Assert
+        assertThrows(InvalidOAuthTokenException.class, () -> provider.getUserInfo("auth-code"));
+        assertEquals(0, userInfoCalls.get());
+    }
+
+    @Test
+    void getUserInfo_ShouldRejectAnIdTokenFromAnotherIssuer() {
+        // Arrange
+        tokenResponse.set("{\"access_token\":\"access-123\",\"id_token\":\"" + idToken("client", "https://evil.example.com") + "\"}");
+
+        // Act & Assert
+        assertThrows(InvalidOAuthTokenException.class, () -> provider.getUserInfo("auth-code"));
+    }
+
+    @Test
+    void getUserInfo_ShouldFailWith503WhenGoogleIsUnreachable() {
+        // Arrange
+        server.stop(0);
+
+        // Act & Assert
+        assertThrows(OAuthProviderUnavailableException.class, () -> provider.getUserInfo("auth-code"));
+    }
+
+    private String idToken(String audience, String issuer) {
+        return Jwts.builder()
+                .setHeaderParam("kid", "k1")
+                .setIssuer(issuer)
+                .setAudience(audience)
+                .setSubject("g-42")
+                .claim("email", "test@example.com")
+                .claim("given_name", "Ada")
+                .claim("family_name", "Lovelace")
+                .claim("locale", "es")
+                .setIssuedAt(new Date())
+                .setExpiration(Date.from(Instant.now().plusSeconds(3600)))
+                .signWith(signingKey.getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,144 @@
+package com.banku.userservice.service.oauth;
+
+import com.banku.userservice.exception.OAuthProviderUnavailableException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwksKeyCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final AtomicReference<String> jwks = new AtomicReference<>();
+    private final AtomicReference<String> cacheControl = new AtomicReference<>("public, max-age=600");
+    private final AtomicInteger status = new AtomicInteger(200);
+    private HttpServer server;
+    private JwksKeyCache cache;
+    private KeyPair first;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        first = rsaKeyPair();
+        jwks.set(jwkSet("k1", first));
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/certs", exchange -> {
+            fetches.incrementAndGet();
+            byte[] body = jwks.get().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("Cache-Control", cacheControl.get());
+            exchange.sendResponseHeaders(status.get(), body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        cache = new JwksKeyCache(new RestTemplate(), "http://localhost:" + server.getAddress().getPort() + "/certs",
+                Duration.ofHours(1), Duration.ofMinutes(1), Duration.ofSeconds(30), Runnable::run, now::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void key_ShouldFetchOnceAndAnswerFromTheCache() {
+        // Act
+        assertEquals(first.getPublic(), cache.key("k1"));
+        assertEquals(first.getPublic(), cache.key("k1"));
+        assertNull(cache.key("unknown"));
+
+        // Assert
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void key_ShouldRefreshAheadOfTheMaxAgeWhileServingCachedKeys() throws Exception {
+        // Arrange
+        cache.key("k1");
+        KeyPair rotated = rsaKeyPair();
+        jwks.set(jwkSet("k2", rotated));
+
+        // Act & Assert
+        now.set(Duration.ofSeconds(500).toNanos());
+        assertEquals(first.getPublic(), cache.key("k1"));
+        assertEquals(1, fetches.get());
+        now.set(Duration.ofSeconds(545).toNanos());
+        assertEquals(first.getPublic(), cache.key("k1"));
+        assertEquals(2, fetches.get());
+        assertEquals(rotated.getPublic(), cache.key("k2"));
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void key_UnknownKeyId_ShouldRefetchAtMostOncePerInterval() throws Exception {
+        // Arrange
+        cache.key("k1");
+        KeyPair rotated = rsaKeyPair();
+        jwks.set(jwkSet("k2", rotated));
+
+        // Act & Assert
+        now.set(Duration.ofSeconds(10).toNanos());
+        assertNull(cache.key("k2"));
+        assertEquals(1, fetches.get());
+        now.set(Duration.ofSeconds(40).toNanos());
+        assertEquals(rotated.getPublic(), cache.key("k2"));
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void key_ShouldKeepExpiredKeysWhileTheProviderFails() {
+        // Arrange
+        cache.key("k1");
+        status.set(500);
+
+        // Act
+        now.set(Duration.ofMinutes(20).toNanos());
+
+        // Assert
+        assertEquals(first.getPublic(), cache.key("k1"));
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void key_ShouldFailWith503WhenNoKeysCouldEverBeLoaded() {
+        // Arrange
+        status.set(500);
+
+        // Act & Assert
+        assertThrows(OAuthProviderUnavailableException.class, () -> cache.key("k1"));
+    }
+
+    static KeyPair rsaKeyPair() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    static String jwkSet(String kid, KeyPair keyPair) {
+        RSAPublicKey key = (RSAPublicKey) keyPair.getPublic();
+        return "{\"keys\":[{\"kty\":\"RSA\",\"use\":\"sig\",\"alg\":\"RS256\",\"kid\":\"" + kid + "\",\"n\":\""
+                + base64Url(key.getModulus()) + "\",\"e\":\"" + base64Url(key.getPublicExponent()) + "\"}]}";
+    }
+
+    private static String base64Url(BigInteger value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.toByteArray());
+    }
+}
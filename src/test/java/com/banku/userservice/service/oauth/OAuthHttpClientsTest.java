@@ -0,0 +1,127 @@
+package com.banku.userservice.service.oauth;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OAuthHttpClientsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MockEnvironment environment = new MockEnvironment();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private HttpServer server;
+    private OAuthHttpClients httpClients;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        environment.setConversionService((ApplicationConversionService) ApplicationConversionService.getSharedInstance());
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/fast", exchange -> respond(exchange, "{\"ok\":true}"));
+        server.createContext("/slow", exchange -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, "{\"ok\":true}");
+        });
+        server.start();
+        httpClients = new OAuthHttpClients(registry, new RestTemplateBuilder(), environment,
+                Duration.ofSeconds(1), Duration.ofMillis(200), Duration.ofMillis(100), 4, Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        httpClients.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    void restTemplate_ShouldReuseKeptAliveConnectionsAndTimeCalls() {
+        // Arrange
+        RestTemplate restTemplate = httpClients.restTemplate("google");
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertEquals("{\"ok\":true}", restTemplate.getForObject(url("/fast"), String.class));
+        }
+
+        // Assert
+        assertEquals(1, clientPorts.size());
+        assertEquals(3, registry.get("oauth.http.requests").tag("provider", "google").tag("status", "200").timer().count());
+        assertEquals(1, registry.get("oauth.http.pool.available").tag("provider", "google").gauge().value());
+        assertEquals(0, registry.get("oauth.http.pool.leased").tag("provider", "google").gauge().value());
+    }
+
+    @Test
+    void restTemplate_ShouldFailWhenTheResponseTakesLongerThanTheTimeout() {
+        // Arrange
+        RestTemplate restTemplate = httpClients.restTemplate("google");
+
+        // Act & Assert
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(url("/slow"), String.class));
+        assertEquals(1, registry.get("oauth.http.requests").tag("provider", "google").tag("status", "IO_ERROR").timer().count());
+    }
+
+    @Test
+    void restTemplate_ShouldFailFastWhenTheProviderPoolIsExhausted() throws Exception {
+        // Arrange
+        environment.setProperty("oauth-http.slow.max-connections", "1");
+        environment.setProperty("oauth-http.slow.response-timeout", "5s");
+        RestTemplate restTemplate = httpClients.restTemplate("slow");
+        CompletableFuture<String> holding = CompletableFuture.supplyAsync(() -> restTemplate.getForObject(url("/slow"), String.class));
+        waitForLeased("slow", 1);
+
+        // Act & Assert
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(url("/fast"), String.class));
+        assertEquals(1, registry.get("oauth.http.pool.max").tag("provider", "slow").gauge().value());
+        assertEquals(4, httpClients.settings("google").maxConnections());
+        release.countDown();
+        assertEquals("{\"ok\":true}", holding.get(5, TimeUnit.SECONDS));
+    }
+
+    private void waitForLeased(String provider, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("oauth.http.pool.leased").tag("provider", provider).gauge().value() < expected
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}